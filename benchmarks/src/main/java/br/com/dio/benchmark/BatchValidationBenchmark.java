@@ -0,0 +1,112 @@
+// ============= BatchValidationBenchmark.java =============
+package br.com.dio.benchmark;
+
+import br.com.dio.enums.DifficultyLevel;
+import br.com.dio.model.SudokuBoard;
+import br.com.dio.validation.BatchValidator;
+import br.com.dio.validation.BoardBatch;
+import br.com.dio.validation.ScalarBatchValidator;
+import br.com.dio.validation.VectorBatchValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validação de um lote de {@value #BOARDS} grades por regras (sem solução
+ * armazenada): tabuleiro a tabuleiro com {@link SudokuBoard#countConflicts()},
+ * e em lote pelas implementações escalar e vetorial de {@link BatchValidator}.
+ * Um terço das grades é uma solução válida, um terço tem um erro e o resto
+ * é uma grade parcial aleatória. Resultado em tabuleiros por microssegundo.
+ *
+ * Para comparar com AVX2 numa máquina com AVX-512, rodar pelo
+ * {@code org.openjdk.jmh.Main} com
+ * {@code -jvmArgsAppend "--add-modules=jdk.incubator.vector -XX:UseAVX=2"}
+ * (a opção substitui os argumentos de {@code @Fork}, por isso o módulo
+ * é repetido).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class BatchValidationBenchmark {
+    private static final int BOARDS = 1024;
+
+    @Param({"3", "4"})
+    public int subgridSize;
+
+    private int[][] grids;
+    private BoardBatch batch;
+    private final int[] conflicts = new int[BOARDS];
+    private final int[] filled = new int[BOARDS];
+    private final BatchValidator scalar = new ScalarBatchValidator();
+    private final BatchValidator vector = new VectorBatchValidator();
+    private SudokuBoard board;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        SudokuBoard source = new SudokuBoard(subgridSize);
+        int gridSize = source.getGridSize();
+        grids = new int[BOARDS][source.getCellCount()];
+        batch = new BoardBatch(subgridSize, BOARDS);
+        for (int[] grid : grids) {
+            int kind = random.nextInt(3);
+            if (kind == 2) {
+                for (int i = 0; i < grid.length; i++) {
+                    grid[i] = random.nextInt(4) == 0 ? 0 : 1 + random.nextInt(gridSize);
+                }
+            } else {
+                source.generateNewBoard(DifficultyLevel.EASY.getLevel(), random);
+                for (int i = 0; i < grid.length; i++) {
+                    grid[i] = source.getSolution(i / gridSize, i % gridSize);
+                }
+                if (kind == 1) {
+                    grid[random.nextInt(grid.length)] = 1 + random.nextInt(gridSize);
+                }
+            }
+            batch.add(grid);
+        }
+        board = new SudokuBoard(subgridSize);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BOARDS)
+    public int perBoard() {
+        int invalid = 0;
+        for (int[] grid : grids) {
+            board.loadPuzzle(grid, null);
+            if (board.countConflicts() != 0) {
+                invalid++;
+            }
+        }
+        return invalid;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BOARDS)
+    public int[] scalarBatch() {
+        scalar.validate(batch, conflicts, filled);
+        return conflicts;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BOARDS)
+    public int[] vectorBatch() {
+        vector.validate(batch, conflicts, filled);
+        return conflicts;
+    }
+}
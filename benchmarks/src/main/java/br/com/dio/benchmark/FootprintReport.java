@@ -0,0 +1,20 @@
+// ============= FootprintReport.java =============
+package br.com.dio.benchmark;
+
+import br.com.dio.enums.DifficultyLevel;
+import br.com.dio.model.SudokuBoard;
+import org.openjdk.jol.info.GraphLayout;
+
+/**
+ * Mede com JOL o tamanho retido de um SudokuBoard (objeto + arrays internos).
+ */
+public class FootprintReport {
+    public static void main(String[] args) {
+        SudokuBoard board = new SudokuBoard();
+        board.generateNewBoard(DifficultyLevel.HARD.getLevel());
+
+        GraphLayout layout = GraphLayout.parseInstance(board);
+        System.out.println(layout.toFootprint());
+        System.out.println("Bytes por tabuleiro: " + layout.totalSize());
+    }
+}
@@ -0,0 +1,39 @@
+// ============= GenerationBenchmark.java =============
+package br.com.dio.benchmark;
+
+import br.com.dio.enums.DifficultyLevel;
+import br.com.dio.model.SudokuBoard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Geração completa (solução + remoção com unicidade) por nível de dificuldade.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GenerationBenchmark {
+    @Param({"EASY", "MEDIUM", "HARD"})
+    public DifficultyLevel difficulty;
+
+    private final SudokuBoard board = new SudokuBoard();
+
+    @Benchmark
+    public SudokuBoard generateNewBoard() {
+        board.generateNewBoard(difficulty.getLevel());
+        return board;
+    }
+}
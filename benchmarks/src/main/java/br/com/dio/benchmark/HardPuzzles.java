@@ -0,0 +1,36 @@
+// ============= HardPuzzles.java =============
+package br.com.dio.benchmark;
+
+/**
+ * Corpus fixo de puzzles difíceis conhecidos, usado pelos benchmarks de resolução.
+ */
+final class HardPuzzles {
+    static final String AL_ESCARGOT = "100007090030020008009600500005300900010080002600004000300000010040000007007000300";
+    static final String ARTO_INKALA = "800000000003600000070090200050007000000045700000100030001000068008500010090000400";
+    static final String GOLDEN_NUGGET = "000000039000001005003050800008090006070002000100400000009080050020000600400700000";
+    static final String PLATINUM_BLONDE = "000000012000000003002300400001800005060070800000009000008500000900040500470006000";
+    static final String ANTI_BACKTRACKER = "000000010400000000020000000000050407008000300001090000300400200050100000000806000";
+
+    private HardPuzzles() {
+    }
+
+    static String byName(String name) {
+        switch (name) {
+            case "AL_ESCARGOT": return AL_ESCARGOT;
+            case "ARTO_INKALA": return ARTO_INKALA;
+            case "GOLDEN_NUGGET": return GOLDEN_NUGGET;
+            case "PLATINUM_BLONDE": return PLATINUM_BLONDE;
+            case "ANTI_BACKTRACKER": return ANTI_BACKTRACKER;
+            default: throw new IllegalArgumentException("Puzzle desconhecido: " + name);
+        }
+    }
+
+    static int[] parse(String puzzle) {
+        int[] grid = new int[puzzle.length()];
+        for (int i = 0; i < grid.length; i++) {
+            char c = puzzle.charAt(i);
+            grid[i] = c == '.' ? 0 : c - '0';
+        }
+        return grid;
+    }
+}
@@ -0,0 +1,73 @@
+// ============= LegacyBacktracker.java =============
+package br.com.dio.benchmark;
+
+/**
+ * Cópia do backtracking original de SudokuBoard (varredura de linha, coluna e
+ * bloco a cada candidato), mantida apenas como linha de base dos benchmarks.
+ */
+final class LegacyBacktracker {
+    private static final int GRID_SIZE = 9;
+    private static final int SUBGRID_SIZE = 3;
+
+    private final int[][] grid = new int[GRID_SIZE][GRID_SIZE];
+
+    boolean solve(int[] cells) {
+        for (int i = 0; i < GRID_SIZE; i++) {
+            System.arraycopy(cells, i * GRID_SIZE, grid[i], 0, GRID_SIZE);
+        }
+        if (!solveSudoku(0, 0)) {
+            return false;
+        }
+        for (int i = 0; i < GRID_SIZE; i++) {
+            System.arraycopy(grid[i], 0, cells, i * GRID_SIZE, GRID_SIZE);
+        }
+        return true;
+    }
+
+    private boolean solveSudoku(int row, int col) {
+        if (row == GRID_SIZE - 1 && col == GRID_SIZE) {
+            return true;
+        }
+
+        if (col == GRID_SIZE) {
+            row++;
+            col = 0;
+        }
+
+        if (grid[row][col] != 0) {
+            return solveSudoku(row, col + 1);
+        }
+
+        for (int num = 1; num <= GRID_SIZE; num++) {
+            if (isValidPlacement(row, col, num)) {
+                grid[row][col] = num;
+
+                if (solveSudoku(row, col + 1)) {
+                    return true;
+                }
+
+                grid[row][col] = 0;
+            }
+        }
+        return false;
+    }
+
+    private boolean isValidPlacement(int row, int col, int num) {
+        for (int i = 0; i < GRID_SIZE; i++) {
+            if (grid[row][i] == num || grid[i][col] == num) {
+                return false;
+            }
+        }
+
+        int startRow = row - row % SUBGRID_SIZE;
+        int startCol = col - col % SUBGRID_SIZE;
+        for (int i = 0; i < SUBGRID_SIZE; i++) {
+            for (int j = 0; j < SUBGRID_SIZE; j++) {
+                if (grid[startRow + i][startCol + j] == num) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,89 @@
+// ============= RenderBenchmark.java =============
+package br.com.dio.benchmark;
+
+import br.com.dio.enums.DifficultyLevel;
+import br.com.dio.model.SudokuBoard;
+import br.com.dio.view.SudokuGridPanel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Atualização completa do grid fora da tela (modo headless): alterna entre a
+ * solução e o tabuleiro reiniciado, como "Ver Solução" e "Reiniciar", chama
+ * updateDisplay e pinta o painel em uma imagem.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RenderBenchmark {
+    private SudokuBoard board;
+    private SudokuGridPanel gridPanel;
+    private BufferedImage image;
+    private boolean solved;
+
+    @Setup
+    public void setup() {
+        board = new SudokuBoard();
+        board.generateNewBoard(DifficultyLevel.MEDIUM.getLevel());
+
+        gridPanel = new SudokuGridPanel(board, null);
+        gridPanel.setSize(gridPanel.getPreferredSize());
+        layoutRecursively(gridPanel);
+        image = new BufferedImage(gridPanel.getWidth(), gridPanel.getHeight(), BufferedImage.TYPE_INT_RGB);
+    }
+
+    @Benchmark
+    public SudokuGridPanel updateDisplay() {
+        toggleBoard();
+        gridPanel.updateDisplay();
+        return gridPanel;
+    }
+
+    @Benchmark
+    public BufferedImage updateDisplayAndPaint() {
+        toggleBoard();
+        gridPanel.updateDisplay();
+        Graphics2D graphics = image.createGraphics();
+        try {
+            gridPanel.paint(graphics);
+        } finally {
+            graphics.dispose();
+        }
+        return image;
+    }
+
+    private void toggleBoard() {
+        if (solved) {
+            board.restartBoard();
+        } else {
+            board.showSolution();
+        }
+        solved = !solved;
+    }
+
+    private static void layoutRecursively(Container container) {
+        container.doLayout();
+        for (Component child : container.getComponents()) {
+            if (child instanceof Container) {
+                layoutRecursively((Container) child);
+            }
+        }
+    }
+}
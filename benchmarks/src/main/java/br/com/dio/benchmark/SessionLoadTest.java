@@ -0,0 +1,155 @@
+// ============= SessionLoadTest.java =============
+package br.com.dio.benchmark;
+
+import br.com.dio.generator.PuzzlePool;
+import br.com.dio.generator.PuzzleSource;
+import br.com.dio.server.SessionServer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Gerador de carga local para o servidor de sessões: abre sessões ociosas
+ * (cada uma com uma partida iniciada) e, com elas conectadas, clientes ativos
+ * alternam SET e CHECK medindo a latência de ida e volta de cada comando.
+ *
+ * Uso: java -cp target/benchmarks.jar br.com.dio.benchmark.SessionLoadTest
+ *          [--idle N] [--clients C] [--ops K] [--port P]
+ *
+ * Sem --port, um servidor é iniciado no próprio processo. Cada sessão usa um
+ * descritor de arquivo de cada lado da conexão: ajuste o ulimit -n.
+ */
+public class SessionLoadTest {
+    public static void main(String[] args) throws Exception {
+        int idle = 10_000;
+        int clients = 16;
+        int ops = 20_000;
+        int port = -1;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--idle": idle = Integer.parseInt(args[i + 1]); break;
+                case "--clients": clients = Integer.parseInt(args[i + 1]); break;
+                case "--ops": ops = Integer.parseInt(args[i + 1]); break;
+                case "--port": port = Integer.parseInt(args[i + 1]); break;
+                default:
+                    System.out.println("Uso: SessionLoadTest [--idle N] [--clients C] [--ops K] [--port P]");
+                    return;
+            }
+        }
+
+        SessionServer server = null;
+        if (port < 0) {
+            PuzzlePool pool = new PuzzlePool(2, 8, 1);
+            pool.prefill();
+            ExecutorService generators = Executors.newFixedThreadPool(1);
+            ExecutorService solvers = Executors.newFixedThreadPool(1);
+            server = new SessionServer(0, new PuzzleSource(pool, null, generators, 1, null, solvers));
+            server.start();
+            port = server.getPort();
+        }
+
+        long start = System.nanoTime();
+        List<Client> idleClients = new ArrayList<>(idle);
+        for (int i = 0; i < idle; i++) {
+            Client client = new Client(port);
+            client.call("NEW EASY");
+            idleClients.add(client);
+        }
+        System.out.printf("%d sessões ociosas abertas em %.1f s%s%n", idle, (System.nanoTime() - start) / 1e9,
+                server != null ? " (" + server.getActiveSessions() + " no servidor)" : "");
+
+        int opsPerClient = ops;
+        int serverPort = port;
+        long[][] latencies = new long[clients][];
+        start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<long[]>> results = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                long seed = c;
+                results.add(executor.submit(() -> runClient(serverPort, opsPerClient, seed)));
+            }
+            for (int c = 0; c < clients; c++) {
+                latencies[c] = results.get(c).get();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("%d comandos SET/CHECK em %.2f s (%.0f/s) com %d clientes ativos%n",
+                all.length, seconds, all.length / seconds, clients);
+        System.out.printf("latência (us): p50 %.1f  p99 %.1f  p99.9 %.1f  máx %.1f%n",
+                percentile(all, 0.50), percentile(all, 0.99), percentile(all, 0.999), all[all.length - 1] / 1e3);
+
+        for (Client client : idleClients) {
+            client.close();
+        }
+        if (server != null) {
+            server.close();
+        }
+        System.exit(0);
+    }
+
+    private static long[] runClient(int port, int ops, long seed) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] latencies = new long[ops];
+        try (Client client = new Client(port)) {
+            client.call("NEW MEDIUM");
+            for (int i = 0; i < ops; i++) {
+                String command = i % 2 == 0
+                        ? "SET " + random.nextInt(9) + " " + random.nextInt(9) + " " + (1 + random.nextInt(9))
+                        : "CHECK";
+                long start = System.nanoTime();
+                String response = client.call(command);
+                latencies[i] = System.nanoTime() - start;
+                if (response.startsWith("OK SOLVED")) {
+                    client.call("NEW MEDIUM");
+                }
+            }
+        }
+        return latencies;
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(fraction * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e3;
+    }
+
+    private static final class Client implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final OutputStream out;
+
+        Client(int port) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            socket.setTcpNoDelay(true);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8), 1024);
+            out = socket.getOutputStream();
+        }
+
+        String call(String command) throws IOException {
+            out.write((command + "\n").getBytes(StandardCharsets.UTF_8));
+            String response = in.readLine();
+            if (response == null) {
+                throw new IOException("Conexão encerrada pelo servidor");
+            }
+            return response;
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
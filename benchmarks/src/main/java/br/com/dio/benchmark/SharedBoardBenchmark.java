@@ -0,0 +1,93 @@
+// ============= SharedBoardBenchmark.java =============
+package br.com.dio.benchmark;
+
+import br.com.dio.enums.DifficultyLevel;
+import br.com.dio.enums.MoveResult;
+import br.com.dio.model.SharedBoard;
+import br.com.dio.model.SudokuBoard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Disputa num único tabuleiro 9x9: 64 jogadores escrevendo em células
+ * sorteadas no {@link SharedBoard} (CAS por célula) e, para comparar, no
+ * {@link SudokuBoard} protegido por um monitor. O grupo {@code readWrite}
+ * mede cópias sem trava com 63 escritores ativos. Resultado somado de todas
+ * as threads, em jogadas por microssegundo; o número de escritores pode ser
+ * mudado com {@code -t}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SharedBoardBenchmark {
+    private SharedBoard shared;
+    private SudokuBoard locked;
+    private int gridSize;
+
+    @State(Scope.Thread)
+    public static class Player {
+        final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Setup
+    public void setup() {
+        SudokuBoard board = new SudokuBoard();
+        board.generateNewBoard(DifficultyLevel.MEDIUM.getLevel(), new Random(42));
+        shared = new SharedBoard(board);
+        locked = new SudokuBoard();
+        locked.copyFrom(board);
+        gridSize = board.getGridSize();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public MoveResult sharedSet(Player player) {
+        SplittableRandom random = player.random;
+        return shared.set(random.nextInt(gridSize), random.nextInt(gridSize), random.nextInt(gridSize + 1));
+    }
+
+    @Benchmark
+    @Threads(64)
+    public int lockedSet(Player player) {
+        SplittableRandom random = player.random;
+        int row = random.nextInt(gridSize);
+        int col = random.nextInt(gridSize);
+        int value = random.nextInt(gridSize + 1);
+        synchronized (locked) {
+            locked.setPlayBoard(row, col, value);
+            return locked.getFilledCount();
+        }
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(63)
+    public MoveResult writer(Player player) {
+        return sharedSet(player);
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public SharedBoard.Snapshot reader() {
+        return shared.snapshot();
+    }
+}
@@ -0,0 +1,137 @@
+// ============= SharedBoardStressTest.java =============
+package br.com.dio.benchmark;
+
+import br.com.dio.enums.DifficultyLevel;
+import br.com.dio.enums.MoveResult;
+import br.com.dio.model.SharedBoard;
+import br.com.dio.model.SudokuBoard;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Teste de estresse de {@link SharedBoard}: em cada rodada, vários jogadores
+ * escrevem valores aleatórios no mesmo tabuleiro e depois o completam, cada
+ * um numa ordem própria, às vezes pondo um valor errado numa célula certa e
+ * corrigindo em seguida. No fim o tabuleiro está sempre completo, então
+ * exatamente uma das jogadas tem de devolver SOLVED.
+ *
+ * Uso: java -cp target/benchmarks.jar br.com.dio.benchmark.SharedBoardStressTest
+ *          [--rounds R] [--threads T] [--box 2..5]
+ *
+ * Tabuleiros pequenos (--box 2) concentram os jogadores nas mesmas células e
+ * provocam mais corridas no fim de cada rodada.
+ *
+ * Metade das rodadas usa um tabuleiro sem solução armazenada (conferido por
+ * conflitos). Termina com status 1 na primeira rodada sem exatamente um SOLVED.
+ */
+public class SharedBoardStressTest {
+    // Passadas de escrita aleatória antes de completar o tabuleiro
+    private static final int SCRIBBLE_PASSES = 2;
+    // Em 1 de cada N células da passada final, um valor errado antes do certo
+    private static final int WRONG_FIRST_ONE_IN = 4;
+
+    public static void main(String[] args) throws Exception {
+        int rounds = 2_000;
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+        int subgridSize = 2;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--rounds": rounds = Integer.parseInt(args[i + 1]); break;
+                case "--threads": threads = Integer.parseInt(args[i + 1]); break;
+                case "--box": subgridSize = Integer.parseInt(args[i + 1]); break;
+                default:
+                    System.out.println("Uso: SharedBoardStressTest [--rounds R] [--threads T] [--box 2..5]");
+                    return;
+            }
+        }
+
+        SplittableRandom random = new SplittableRandom(42);
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            SudokuBoard source = new SudokuBoard(subgridSize);
+            source.generateNewBoard(DifficultyLevel.EASY.getLevel(), random.split());
+            int[] solution = new int[source.getCellCount()];
+            source.copySolution(solution);
+            if (round % 2 == 1) {
+                int[] puzzle = new int[source.getCellCount()];
+                source.copyPuzzle(puzzle);
+                source.loadPuzzle(puzzle, null);
+            }
+
+            int solvedCount = playRound(new SharedBoard(source), solution, threads, random.split());
+            if (solvedCount != 1) {
+                System.out.printf("Rodada %d (%s): %d jogadas SOLVED, esperado 1%n", round,
+                        round % 2 == 1 ? "sem solução" : "com solução", solvedCount);
+                System.exit(1);
+            }
+        }
+        System.out.printf("%d rodadas com %d jogadores, exatamente um SOLVED em todas (%.1f s)%n",
+                rounds, threads, (System.nanoTime() - start) / 1e9);
+    }
+
+    private static int playRound(SharedBoard board, int[] solution, int threads, SplittableRandom random)
+            throws InterruptedException {
+        AtomicInteger solvedCount = new AtomicInteger();
+        CyclicBarrier startLine = new CyclicBarrier(threads);
+        Thread[] players = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            SplittableRandom playerRandom = random.split();
+            players[t] = new Thread(() -> {
+                try {
+                    startLine.await();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                play(board, solution, playerRandom, solvedCount);
+            });
+            players[t].start();
+        }
+        for (Thread player : players) {
+            player.join();
+        }
+        if (!board.isSolved()) {
+            return 0;
+        }
+        return solvedCount.get();
+    }
+
+    private static void play(SharedBoard board, int[] solution, SplittableRandom random, AtomicInteger solvedCount) {
+        int size = board.getGridSize();
+        int[] order = new int[board.getCellCount()];
+        for (int pass = 0; pass <= SCRIBBLE_PASSES; pass++) {
+            shuffle(order, random);
+            boolean last = pass == SCRIBBLE_PASSES;
+            for (int index : order) {
+                int row = index / size;
+                int col = index % size;
+                if (board.isOriginal(row, col)) {
+                    continue;
+                }
+                if (!last) {
+                    record(board.set(row, col, random.nextInt(size + 1)), solvedCount);
+                    continue;
+                }
+                if (random.nextInt(WRONG_FIRST_ONE_IN) == 0) {
+                    record(board.set(row, col, solution[index] % size + 1), solvedCount);
+                }
+                record(board.set(row, col, solution[index]), solvedCount);
+            }
+        }
+    }
+
+    private static void record(MoveResult result, AtomicInteger solvedCount) {
+        if (result == MoveResult.SOLVED) {
+            solvedCount.incrementAndGet();
+        }
+    }
+
+    private static void shuffle(int[] order, SplittableRandom random) {
+        for (int i = 0; i < order.length; i++) {
+            int j = random.nextInt(i + 1);
+            order[i] = order[j];
+            order[j] = i;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+// ============= SolverBenchmark.java =============
+package br.com.dio.benchmark;
+
+import br.com.dio.solver.BitmaskSolver;
+import br.com.dio.solver.DlxSolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolução do corpus de puzzles difíceis: motor de máscaras de bits e Dancing
+ * Links contra o backtracking original. A cópia do puzzle reutiliza um array pré-alocado para
+ * que o perfil de GC mostre apenas a alocação do próprio solver.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolverBenchmark {
+    @Param({"AL_ESCARGOT", "ARTO_INKALA", "GOLDEN_NUGGET", "PLATINUM_BLONDE", "ANTI_BACKTRACKER"})
+    public String puzzle;
+
+    private final BitmaskSolver bitmaskSolver = new BitmaskSolver();
+    private final DlxSolver dlxSolver = new DlxSolver();
+    private final LegacyBacktracker legacyBacktracker = new LegacyBacktracker();
+    private int[] givens;
+    private int[] grid;
+
+    @Setup
+    public void setup() {
+        givens = HardPuzzles.parse(HardPuzzles.byName(puzzle));
+        grid = new int[givens.length];
+    }
+
+    @Benchmark
+    public boolean bitmaskSolve() {
+        System.arraycopy(givens, 0, grid, 0, givens.length);
+        return bitmaskSolver.solve(grid);
+    }
+
+    @Benchmark
+    public int bitmaskCountSolutions() {
+        return bitmaskSolver.countSolutions(givens, 2);
+    }
+
+    @Benchmark
+    public boolean dlxSolve() {
+        System.arraycopy(givens, 0, grid, 0, givens.length);
+        return dlxSolver.solve(grid);
+    }
+
+    @Benchmark
+    public int dlxCountSolutions() {
+        return dlxSolver.countSolutions(givens, 2);
+    }
+
+    @Benchmark
+    public boolean legacySolve() {
+        System.arraycopy(givens, 0, grid, 0, givens.length);
+        return legacyBacktracker.solve(grid);
+    }
+}
@@ -0,0 +1,60 @@
+// ============= ValidationBenchmark.java =============
+package br.com.dio.benchmark;
+
+import br.com.dio.enums.DifficultyLevel;
+import br.com.dio.model.SudokuBoard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas de validação feitas a cada jogada: isComplete e countErrors sobre
+ * um tabuleiro parcialmente preenchido, com alguns erros.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+    private final SudokuBoard board = new SudokuBoard();
+
+    @Setup
+    public void setup() {
+        board.generateNewBoard(DifficultyLevel.MEDIUM.getLevel());
+
+        // Preenche metade das células vazias, errando uma a cada cinco
+        int filled = 0;
+        for (int row = 0; row < board.getGridSize(); row++) {
+            for (int col = 0; col < board.getGridSize(); col++) {
+                if (!board.isOriginal(row, col) && (row + col) % 2 == 0) {
+                    int value = board.getSolution(row, col);
+                    if (filled++ % 5 == 0) {
+                        value = value % board.getGridSize() + 1;
+                    }
+                    board.setPlayBoard(row, col, value);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean isComplete() {
+        return board.isComplete();
+    }
+
+    @Benchmark
+    public int countErrors() {
+        return board.countErrors();
+    }
+}
@@ -1,5 +1,141 @@
+import br.com.dio.enums.DifficultyLevel;
+import br.com.dio.generator.BatchGenerator;
+import br.com.dio.generator.PuzzleDeduplicator;
+import br.com.dio.metrics.SudokuMetrics;
+import br.com.dio.model.SudokuBoard;
+import br.com.dio.storage.PuzzleBank;
+import br.com.dio.storage.PuzzleBankWriter;
+import br.com.dio.util.SplitMix64;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Gerador de puzzles em lote pela linha de comando.
+ *
+ * Uso: java Main --count N (--out arquivo | --bank arquivo) [--seed S] [--threads T]
+ *                [--levels EASY,MEDIUM,HARD] [--box 2..5] [--dedup true|false]
+ *
+ * Com --bank os puzzles são acrescentados a um banco binário (PuzzleBank) em
+ * vez de escritos em texto. Por padrão, puzzles equivalentes a menos de
+ * simetria a um já gerado (ou já presente no banco) são descartados, sem
+ * mudar a saída de uma mesma --seed com outro número de threads. Com
+ * -Dsudoku.metrics=true, as latências de geração por dificuldade são
+ * impressas no fim.
+ */
 public class Main {
-    public static void main(String[] args) {
-        System.out.println("Hello, World!");
+    private static final int CHUNK_SIZE = 64;
+
+    public static void main(String[] args) throws IOException {
+        int count = -1;
+        String output = null;
+        String bank = null;
+        Long seed = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int subgridSize = 3;
+        List<DifficultyLevel> levels = List.of(DifficultyLevel.values());
+        boolean dedup = true;
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--count": count = Integer.parseInt(args[i + 1]); break;
+                case "--out": output = args[i + 1]; break;
+                case "--bank": bank = args[i + 1]; break;
+                case "--seed": seed = Long.parseLong(args[i + 1]); break;
+                case "--threads": threads = Integer.parseInt(args[i + 1]); break;
+                case "--levels": levels = parseLevels(args[i + 1]); break;
+                case "--box": subgridSize = Integer.parseInt(args[i + 1]); break;
+                case "--dedup": dedup = Boolean.parseBoolean(args[i + 1]); break;
+                default:
+                    usage();
+                    return;
+            }
+        }
+
+        if (count <= 0 || (output == null) == (bank == null) || args.length % 2 != 0) {
+            usage();
+            return;
+        }
+
+        SplitMix64 random = new SplitMix64(seed != null ? seed : ThreadLocalRandom.current().nextLong());
+        PuzzleDeduplicator deduplicator = null;
+        if (dedup) {
+            deduplicator = new PuzzleDeduplicator();
+            if (bank != null) {
+                preload(deduplicator, Paths.get(bank));
+            }
+        }
+        BatchGenerator generator = new BatchGenerator(threads, CHUNK_SIZE, subgridSize, deduplicator);
+
+        long start = System.nanoTime();
+        long written;
+        if (bank != null) {
+            try (PuzzleBankWriter writer = new PuzzleBankWriter(Paths.get(bank), subgridSize)) {
+                written = generator.generate(levels, count, random, bankRecords(writer), writer.records());
+            }
+        } else {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(Paths.get(output)), 1 << 16)) {
+                written = generator.generate(levels, count, random, out);
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d puzzles em %.2f s (%.0f puzzles/s, %d threads)%n",
+                written, seconds, written / seconds, threads);
+        SudokuMetrics metrics = SudokuMetrics.get();
+        if (metrics.isEnabled()) {
+            System.out.printf("nós %d, retrocessos %d, propagações %d, tentativas de preenchimento %d%n",
+                    metrics.getSolverNodes(), metrics.getBacktracks(), metrics.getPropagationSteps(),
+                    metrics.getFillAttempts());
+            for (String line : metrics.getLatencySummary()) {
+                System.out.println(line);
+            }
+        }
     }
-}
\ No newline at end of file
+
+    // Chaves dos puzzles que o banco já tem, para não gravá-los de novo
+    private static void preload(PuzzleDeduplicator deduplicator, Path path) throws IOException {
+        if (!Files.exists(path) || Files.size(path) == 0) {
+            return;
+        }
+        try (PuzzleBank existing = PuzzleBank.open(path)) {
+            for (long i = 0; i < existing.size(); i++) {
+                deduplicator.add(existing.getCanonicalKey(i));
+            }
+        }
+    }
+
+    private static BatchGenerator.RecordEncoder bankRecords(PuzzleBankWriter writer) {
+        return new BatchGenerator.RecordEncoder() {
+            @Override
+            public int recordLength(SudokuBoard board, DifficultyLevel level) {
+                return writer.getRecordSize();
+            }
+
+            @Override
+            public void encode(SudokuBoard board, DifficultyLevel level, byte[] buffer, int offset) {
+                writer.encode(board, buffer, offset);
+            }
+        };
+    }
+
+    private static List<DifficultyLevel> parseLevels(String value) {
+        List<DifficultyLevel> levels = new ArrayList<>();
+        for (String name : value.split(",")) {
+            levels.add(DifficultyLevel.valueOf(name.trim().toUpperCase()));
+        }
+        return levels;
+    }
+
+    private static void usage() {
+        System.out.println("Uso: java Main --count N (--out arquivo | --bank arquivo) [--seed S] "
+                + "[--threads T] [--levels EASY,MEDIUM,HARD] [--box 2..5] [--dedup true|false]");
+    }
+}
@@ -4,6 +4,7 @@
 package br.com.dio;
 
 import br.com.dio.controller.SudokuController;
+import br.com.dio.metrics.SudokuMetrics;
 import javax.swing.*;
         import java.awt.*;
         import java.awt.event.KeyAdapter;
@@ -76,6 +77,9 @@ public class SudokuGUI extends JFrame {
         JButton newGameButton = new JButton("Novo Jogo");
         newGameButton.addActionListener(e -> controller.showDifficultyDialog());
 
+        JButton loadButton = new JButton("Carregar");
+        loadButton.addActionListener(e -> controller.loadPuzzle());
+
         JButton restartButton = new JButton("Reiniciar");
         restartButton.addActionListener(e -> controller.restartCurrentGame());
 
@@ -85,10 +89,19 @@ public class SudokuGUI extends JFrame {
         JButton checkButton = new JButton("Verificar");
         checkButton.addActionListener(e -> controller.checkSolution());
 
+        JButton hintButton = new JButton("Dica");
+        hintButton.addActionListener(e -> controller.showHint());
+
+        JButton replayButton = new JButton("Rever");
+        replayButton.addActionListener(e -> controller.replayGame());
+
         buttonPanel.add(newGameButton);
+        buttonPanel.add(loadButton);
         buttonPanel.add(restartButton);
         buttonPanel.add(solutionButton);
         buttonPanel.add(checkButton);
+        buttonPanel.add(hintButton);
+        buttonPanel.add(replayButton);
 
         add(buttonPanel, BorderLayout.SOUTH);
     }
@@ -97,13 +110,27 @@ public class SudokuGUI extends JFrame {
         addKeyListener(new KeyAdapter() {
             @Override
             public void keyPressed(KeyEvent e) {
-                controller.handleKeyInput(e.getKeyChar());
+                // Ctrl+Z desfaz; Ctrl+Y ou Ctrl+Shift+Z refaz; Ctrl+H mostra uma dica
+                if (e.isControlDown() && e.getKeyCode() == KeyEvent.VK_Z) {
+                    if (e.isShiftDown()) {
+                        controller.redo();
+                    } else {
+                        controller.undo();
+                    }
+                } else if (e.isControlDown() && e.getKeyCode() == KeyEvent.VK_Y) {
+                    controller.redo();
+                } else if (e.isControlDown() && e.getKeyCode() == KeyEvent.VK_H) {
+                    controller.showHint();
+                } else {
+                    controller.handleKeyInput(e.getKeyChar());
+                }
                 requestFocus(); // Mantém o foco na janela principal
             }
         });
     }
 
     public static void main(String[] args) {
+        SudokuMetrics.register();
         try {
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
         } catch (Exception e) {
@@ -0,0 +1,112 @@
+// ============= OffHeapTier.java =============
+package br.com.dio.cache;
+
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Segundo nível do {@link PuzzleCache}: um registro circular fora do heap,
+ * em memória direta ou num arquivo mapeado. Cada registro é a chave seguida
+ * das palavras do tabuleiro; quando o fim do buffer é alcançado a escrita
+ * volta ao início e sobrescreve os registros mais antigos.
+ *
+ * O índice (chave para posição) fica no heap, com posições lógicas que só
+ * crescem: um registro na posição p está intacto enquanto nenhuma escrita
+ * reservou além de p + capacidade. As leituras não travam; conferem essa
+ * condição depois de copiar o registro e descartam o que foi sobrescrito
+ * no meio. Só as escritas são serializadas.
+ */
+final class OffHeapTier {
+    private final ByteBuffer buffer;
+    private final long capacity;
+    private final ConcurrentHashMap<Long, Long> index = new ConcurrentHashMap<>();
+    // Fim da última escrita reservada (posição lógica); atualizado antes de
+    // a escrita começar, para que leitores concorrentes a percebam
+    private volatile long reserved;
+    // Última volta em que o índice foi limpo; protegido pela trava das escritas
+    private long sweptLap;
+
+    /**
+     * @param path arquivo a mapear, recriado vazio, ou null para memória direta
+     */
+    OffHeapTier(Path path, long capacity) throws IOException {
+        if (capacity < Long.BYTES || capacity > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Capacidade inválida para o nível fora do heap: " + capacity);
+        }
+        this.capacity = capacity;
+        if (path == null) {
+            buffer = ByteBuffer.allocateDirect((int) capacity);
+        } else {
+            // O mapeamento continua válido depois de fechar o canal
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            }
+        }
+    }
+
+    long getCapacity() {
+        return capacity;
+    }
+
+    int size() {
+        return index.size();
+    }
+
+    /**
+     * @return as {@code words} palavras guardadas para a chave, ou null
+     */
+    long[] read(long key, int words) {
+        Long position = index.get(key);
+        if (position == null) {
+            return null;
+        }
+        int offset = (int) (position % capacity);
+        long[] values = new long[words];
+        boolean intact = buffer.getLong(offset) == key;
+        for (int i = 0; i < words && intact; i++) {
+            values[i] = buffer.getLong(offset + (i + 1) * Long.BYTES);
+        }
+        // As leituras do registro não podem passar para depois da conferência
+        VarHandle.acquireFence();
+        if (!intact || reserved > position + capacity) {
+            index.remove(key, position);
+            return null;
+        }
+        return values;
+    }
+
+    synchronized void write(long key, long[] values) {
+        long length = (long) (values.length + 1) * Long.BYTES;
+        if (length > capacity) {
+            return;
+        }
+        long position = reserved;
+        if (position % capacity + length > capacity) {
+            // Não cabe até o fim: pula para o início da próxima volta
+            position += capacity - position % capacity;
+        }
+        if (position / capacity != sweptLap) {
+            // Nova volta: esquece as posições das voltas já sobrescritas, para
+            // que o índice não cresça com chaves que não serão mais lidas
+            sweptLap = position / capacity;
+            long end = position + length;
+            index.values().removeIf(old -> end > old + capacity);
+        }
+        reserved = position + length;
+        // A reserva fica visível antes de qualquer byte sobrescrito
+        VarHandle.storeStoreFence();
+
+        int offset = (int) (position % capacity);
+        buffer.putLong(offset, key);
+        for (int i = 0; i < values.length; i++) {
+            buffer.putLong(offset + (i + 1) * Long.BYTES, values[i]);
+        }
+        index.put(key, position);
+    }
+}
@@ -0,0 +1,370 @@
+// ============= PuzzleCache.java =============
+package br.com.dio.cache;
+
+import br.com.dio.generator.PuzzleId;
+import br.com.dio.model.SudokuBoard;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache na frente da geração e da resolução, para quando muitas sessões
+ * pedem o mesmo puzzle (do dia, compartilhado) ou a solução da mesma grade.
+ * Pode ser usado por várias threads.
+ *
+ * <ul>
+ * <li>Puzzles por {@link PuzzleId}: o primeiro nível é um LRU no heap com os
+ * tabuleiros compactados ({@link SudokuBoard#copyPacked}) e orçamento em
+ * bytes; o que sai dele desce para o segundo nível opcional, fora do heap
+ * ({@link OffHeapTier}). Pedidos simultâneos de um id ausente esperam uma
+ * única geração.</li>
+ * <li>Soluções de grades sem solução conhecida (digitadas ou importadas),
+ * pela forma da grade com os dígitos renomeados na ordem em que aparecem:
+ * grades que diferem só na troca de dígitos compartilham a entrada, e a
+ * solução guardada é traduzida de volta. Ficam no mesmo LRU do heap.</li>
+ * </ul>
+ */
+public class PuzzleCache implements PuzzleCacheMBean {
+    public static final String OBJECT_NAME = "br.com.dio:type=PuzzleCache";
+    // Custo estimado de uma entrada além dos dados: nó do LinkedHashMap,
+    // chave e cabeçalhos dos arrays
+    private static final int ENTRY_OVERHEAD = 96;
+
+    private final long heapBudget;
+    // Em ordem de acesso; protegido por si mesmo, assim como heapBytes
+    private final LinkedHashMap<Object, Object> heap = new LinkedHashMap<>(64, 0.75f, true);
+    private long heapBytes;
+    private final OffHeapTier offHeap;
+    private final ConcurrentHashMap<Long, CompletableFuture<long[]>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder heapHits = new LongAdder();
+    private final LongAdder offHeapHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder solutionHits = new LongAdder();
+    private final LongAdder solutionMisses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Cache só no heap.
+     */
+    public PuzzleCache(long heapBudget) {
+        this.heapBudget = heapBudget;
+        this.offHeap = null;
+    }
+
+    /**
+     * @param offHeapPath arquivo mapeado do segundo nível, recriado vazio, ou
+     *                    null para memória direta
+     * @param offHeapBudget bytes do segundo nível (até 2 GB), ou 0 para não tê-lo
+     */
+    public PuzzleCache(long heapBudget, Path offHeapPath, long offHeapBudget) throws IOException {
+        this.heapBudget = heapBudget;
+        this.offHeap = offHeapBudget > 0 ? new OffHeapTier(offHeapPath, offHeapBudget) : null;
+    }
+
+    /**
+     * Registra o MBean no servidor da plataforma, substituindo outro cache
+     * registrado antes.
+     */
+    public void register() {
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+            }
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * O puzzle do id, num tabuleiro novo que o chamador pode alterar.
+     */
+    public SudokuBoard get(PuzzleId id) {
+        long key = id.toLong();
+        int words = SudokuBoard.packedLength(id.getSubgridSize());
+
+        long[] packed = (long[]) heapGet(key);
+        if (packed != null) {
+            heapHits.increment();
+            return unpack(id, packed);
+        }
+        if (offHeap != null) {
+            packed = offHeap.read(key, words);
+            if (packed != null) {
+                offHeapHits.increment();
+                heapPut(key, packed, (long) words * Long.BYTES);
+                return unpack(id, packed);
+            }
+        }
+
+        CompletableFuture<long[]> pending = new CompletableFuture<>();
+        CompletableFuture<long[]> running = inFlight.putIfAbsent(key, pending);
+        if (running != null) {
+            coalesced.increment();
+            return unpack(id, running.join());
+        }
+        try {
+            // Outra thread pode ter terminado a geração entre a consulta e a reserva
+            packed = (long[]) heapGet(key);
+            if (packed == null) {
+                misses.increment();
+                SudokuBoard board = id.generate();
+                packed = new long[words];
+                board.copyPacked(packed, 0);
+                heapPut(key, packed, (long) words * Long.BYTES);
+            }
+            pending.complete(packed);
+            return unpack(id, packed);
+        } catch (RuntimeException | Error e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, pending);
+        }
+    }
+
+    /**
+     * Garante que o tabuleiro tenha solução armazenada: a de uma grade
+     * equivalente já resolvida ou, na falta, uma resolução, guardada se a
+     * solução for única. O tabuleiro de jogo não muda.
+     *
+     * @return false se as pistas não têm solução única
+     */
+    public boolean solve(SudokuBoard board) {
+        if (board.hasSolution()) {
+            return true;
+        }
+        int cellCount = board.getCellCount();
+        int gridSize = board.getGridSize();
+        int[] grid = new int[cellCount];
+        board.copyPuzzle(grid);
+
+        // Rótulo de cada dígito pela ordem em que aparece (0 = ainda sem rótulo)
+        int[] labels = new int[gridSize + 1];
+        int nextLabel = relabel(grid, labels, 1);
+        SolutionKey key = new SolutionKey(encode(grid, labels));
+
+        byte[] cached = (byte[]) heapGet(key);
+        if (cached != null) {
+            solutionHits.increment();
+            board.setSolution(decode(cached, labels, gridSize));
+            return true;
+        }
+
+        solutionMisses.increment();
+        if (board.solvePuzzle() != 1) {
+            return false;
+        }
+        board.copySolution(grid);
+        relabel(grid, labels, nextLabel);
+        byte[] solution = encode(grid, labels);
+        heapPut(key, solution, 2L * solution.length);
+        return true;
+    }
+
+    private static int relabel(int[] grid, int[] labels, int nextLabel) {
+        for (int value : grid) {
+            if (value != 0 && labels[value] == 0) {
+                labels[value] = nextLabel++;
+            }
+        }
+        return nextLabel;
+    }
+
+    private static byte[] encode(int[] grid, int[] labels) {
+        byte[] encoded = new byte[grid.length];
+        for (int i = 0; i < grid.length; i++) {
+            encoded[i] = (byte) labels[grid[i]];
+        }
+        return encoded;
+    }
+
+    /**
+     * Traduz uma solução guardada para os dígitos desta grade. Os rótulos
+     * sem dígito na grade correspondem aos dígitos ausentes, em ordem
+     * crescente; com solução única falta no máximo um dígito nas pistas.
+     */
+    private static int[] decode(byte[] cached, int[] labels, int gridSize) {
+        int[] digitOf = new int[gridSize + 1];
+        for (int digit = 1; digit <= gridSize; digit++) {
+            if (labels[digit] != 0) {
+                digitOf[labels[digit]] = digit;
+            }
+        }
+        int missing = 1;
+        for (int label = 1; label <= gridSize; label++) {
+            if (digitOf[label] == 0) {
+                while (labels[missing] != 0) {
+                    missing++;
+                }
+                digitOf[label] = missing++;
+            }
+        }
+        int[] solution = new int[cached.length];
+        for (int i = 0; i < cached.length; i++) {
+            solution[i] = digitOf[cached[i]];
+        }
+        return solution;
+    }
+
+    private static SudokuBoard unpack(PuzzleId id, long[] packed) {
+        SudokuBoard board = new SudokuBoard(id.getSubgridSize());
+        board.loadPacked(packed, 0);
+        return board;
+    }
+
+    private Object heapGet(Object key) {
+        synchronized (heap) {
+            return heap.get(key);
+        }
+    }
+
+    private void heapPut(Object key, Object value, long dataBytes) {
+        List<Map.Entry<Object, Object>> demoted = null;
+        synchronized (heap) {
+            if (heap.put(key, value) == null) {
+                heapBytes += dataBytes + ENTRY_OVERHEAD;
+            }
+            Iterator<Map.Entry<Object, Object>> eldest = heap.entrySet().iterator();
+            while (heapBytes > heapBudget && eldest.hasNext()) {
+                Map.Entry<Object, Object> entry = eldest.next();
+                eldest.remove();
+                heapBytes -= cost(entry.getValue());
+                evictions.increment();
+                if (offHeap != null && entry.getKey() instanceof Long) {
+                    if (demoted == null) {
+                        demoted = new ArrayList<>();
+                    }
+                    demoted.add(entry);
+                }
+            }
+        }
+        // Fora da trava do heap: a escrita fora do heap tem a sua
+        if (demoted != null) {
+            for (Map.Entry<Object, Object> entry : demoted) {
+                offHeap.write((Long) entry.getKey(), (long[]) entry.getValue());
+            }
+        }
+    }
+
+    private static long cost(Object value) {
+        return value instanceof long[]
+                ? (long) ((long[]) value).length * Long.BYTES + ENTRY_OVERHEAD
+                : 2L * ((byte[]) value).length + ENTRY_OVERHEAD;
+    }
+
+    @Override
+    public long getHeapHits() {
+        return heapHits.sum();
+    }
+
+    @Override
+    public long getOffHeapHits() {
+        return offHeapHits.sum();
+    }
+
+    @Override
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public long getCoalescedRequests() {
+        return coalesced.sum();
+    }
+
+    @Override
+    public double getHitRate() {
+        long hits = heapHits.sum() + offHeapHits.sum() + coalesced.sum();
+        long total = hits + misses.sum();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public long getSolutionHits() {
+        return solutionHits.sum();
+    }
+
+    @Override
+    public long getSolutionMisses() {
+        return solutionMisses.sum();
+    }
+
+    @Override
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public long getHeapBytes() {
+        synchronized (heap) {
+            return heapBytes;
+        }
+    }
+
+    @Override
+    public long getHeapBudget() {
+        return heapBudget;
+    }
+
+    @Override
+    public int getHeapEntries() {
+        synchronized (heap) {
+            return heap.size();
+        }
+    }
+
+    @Override
+    public int getOffHeapEntries() {
+        return offHeap == null ? 0 : offHeap.size();
+    }
+
+    @Override
+    public void resetStatistics() {
+        heapHits.reset();
+        offHeapHits.reset();
+        misses.reset();
+        coalesced.reset();
+        solutionHits.reset();
+        solutionMisses.reset();
+        evictions.reset();
+    }
+
+    /**
+     * Grade com os dígitos renomeados, comparada pelo conteúdo.
+     */
+    private static final class SolutionKey {
+        private final byte[] grid;
+        private final int hash;
+
+        SolutionKey(byte[] grid) {
+            this.grid = grid;
+            this.hash = Arrays.hashCode(grid);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof SolutionKey && Arrays.equals(((SolutionKey) other).grid, grid);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
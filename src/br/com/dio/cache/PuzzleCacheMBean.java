@@ -0,0 +1,45 @@
+// ============= PuzzleCacheMBean.java =============
+package br.com.dio.cache;
+
+/**
+ * Interface JMX de {@link PuzzleCache}, registrada como
+ * {@value PuzzleCache#OBJECT_NAME}.
+ */
+public interface PuzzleCacheMBean {
+    long getHeapHits();
+
+    long getOffHeapHits();
+
+    /**
+     * Puzzles gerados por falta no cache; pedidos simultâneos do mesmo id
+     * contam uma vez só.
+     */
+    long getMisses();
+
+    /**
+     * Pedidos que esperaram a geração já em andamento do mesmo id.
+     */
+    long getCoalescedRequests();
+
+    /**
+     * Fração dos pedidos de puzzle atendidos sem gerar (algum nível do cache
+     * ou uma geração já em andamento).
+     */
+    double getHitRate();
+
+    long getSolutionHits();
+
+    long getSolutionMisses();
+
+    long getEvictions();
+
+    long getHeapBytes();
+
+    long getHeapBudget();
+
+    int getHeapEntries();
+
+    int getOffHeapEntries();
+
+    void resetStatistics();
+}
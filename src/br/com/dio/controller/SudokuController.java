@@ -1,27 +1,80 @@
 // ============= SudokuController.java =============
 package br.com.dio.controller;
 
+import br.com.dio.cache.PuzzleCache;
 import br.com.dio.enums.DifficultyLevel;
+import br.com.dio.enums.MoveResult;
+import br.com.dio.generator.PuzzlePool;
+import br.com.dio.generator.PuzzleSource;
+import br.com.dio.model.GameSession;
+import br.com.dio.model.MoveJournal;
 import br.com.dio.model.SudokuBoard;
+import br.com.dio.solver.Hint;
+import br.com.dio.util.CellSymbols;
 import br.com.dio.util.GameTimer;
+import br.com.dio.util.TickScheduler;
+import br.com.dio.view.BoardRepaintDispatcher;
 import br.com.dio.view.SudokuGridPanel;
 import javax.swing.*;
+import java.awt.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
- * Classe controladora principal do jogo
+ * Classe controladora principal do jogo.
+ * As regras da partida ficam em {@link GameSession}; o controlador só traduz
+ * a entrada da interface em operações da sessão. A tela acompanha o
+ * tabuleiro sozinha, pelos avisos dele ({@link BoardRepaintDispatcher}).
  */
 public class SudokuController {
+    private static final int POOL_LOW_WATERMARK = 2;
+    private static final int POOL_HIGH_WATERMARK = 8;
+    private static final int MAX_RACERS = 4;
+    // Soluções de grades já resolvidas ("Ver Solução"), no heap
+    private static final long CACHE_BYTES = 4L << 20;
+    private static final String[] BOARD_SIZES = {"4x4", "9x9", "16x16", "25x25"};
+    private static final int DEFAULT_SIZE_INDEX = 1;
+    // Banco de puzzles opcional: -Dsudoku.bank=arquivo
+    private static final String BANK_PROPERTY = "sudoku.bank";
+    // Reprodução da partida: velocidade em relação ao tempo real e intervalo entre quadros
+    private static final double REPLAY_SPEED = 4.0;
+    private static final int REPLAY_FRAME_MILLIS = 40;
+    private static final String TIMER_PREFIX = "Tempo: ";
+
     private SudokuBoard board;
+    private final GameSession session;
     private SudokuGridPanel gridPanel;
-    private GameTimer gameTimer;
+    private BoardRepaintDispatcher repaints;
     private JLabel statusLabel;
     private JLabel timerLabel;
+    // Texto do cronômetro, reaproveitado; só muda quando o segundo exibido muda
+    private final StringBuilder timerText = new StringBuilder(TIMER_PREFIX);
+    private long displayedSecond = -1;
     private JFrame parentFrame;
+    private final PuzzleSource puzzleSource;
+    private Timer replayTimer;
+    // Muda a cada partida, para descartar resoluções pedidas na anterior
+    private int gameSerial;
 
     public SudokuController(JFrame parentFrame) {
         this.parentFrame = parentFrame;
         this.board = new SudokuBoard();
-        this.gameTimer = new GameTimer(e -> updateTimerDisplay());
+        this.session = new GameSession(board);
+        TickScheduler.subscribe(() -> SwingUtilities.invokeLater(this::updateTimerDisplay));
+        PuzzlePool puzzlePool = new PuzzlePool(POOL_LOW_WATERMARK, POOL_HIGH_WATERMARK, 1);
+        puzzlePool.prefill();
+        // Tentativas de geração disputadas fora da EDT e da thread do SwingWorker
+        int processors = Runtime.getRuntime().availableProcessors();
+        ExecutorService generators = Executors.newFixedThreadPool(processors, runnable -> {
+            Thread thread = new Thread(runnable, "sudoku-generator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        PuzzleCache cache = new PuzzleCache(CACHE_BYTES);
+        cache.register();
+        this.puzzleSource = new PuzzleSource(puzzlePool, PuzzleSource.openBank(System.getProperty(BANK_PROPERTY)),
+                generators, Math.min(processors, MAX_RACERS), cache);
     }
 
     public void setStatusLabel(JLabel statusLabel) {
@@ -34,70 +87,206 @@ public class SudokuController {
 
     public SudokuGridPanel createGridPanel() {
         gridPanel = new SudokuGridPanel(board, e -> handleCellSelection());
+        repaints = new BoardRepaintDispatcher(gridPanel);
+        repaints.attach(board);
         return gridPanel;
     }
 
     public void showDifficultyDialog() {
         String[] options = DifficultyLevel.getDescriptions();
-        int choice = JOptionPane.showOptionDialog(
-                parentFrame,
-                "Escolha a dificuldade:",
-                "Nova Partida",
-                JOptionPane.DEFAULT_OPTION,
-                JOptionPane.QUESTION_MESSAGE,
-                null,
-                options,
-                options[0]
-        );
+        JComboBox<String> sizeBox = new JComboBox<>(BOARD_SIZES);
+        sizeBox.setSelectedIndex(board.getSubgridSize() - SudokuBoard.MIN_SUBGRID_SIZE);
+
+        JPanel message = new JPanel(new BorderLayout(0, 8));
+        message.add(new JLabel("Escolha a dificuldade:"), BorderLayout.NORTH);
+        JPanel sizePanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+        sizePanel.add(new JLabel("Tamanho: "));
+        sizePanel.add(sizeBox);
+        message.add(sizePanel, BorderLayout.SOUTH);
+
+        // O tempo com um diálogo aberto não conta
+        session.pause();
+        int choice;
+        try {
+            choice = JOptionPane.showOptionDialog(
+                    parentFrame,
+                    message,
+                    "Nova Partida",
+                    JOptionPane.DEFAULT_OPTION,
+                    JOptionPane.QUESTION_MESSAGE,
+                    null,
+                    options,
+                    options[0]
+            );
+        } finally {
+            session.resume();
+        }
 
         if (choice != JOptionPane.CLOSED_OPTION) {
-            startNewGame(DifficultyLevel.fromIndex(choice));
+            startNewGame(DifficultyLevel.fromIndex(choice),
+                    SudokuBoard.MIN_SUBGRID_SIZE + sizeBox.getSelectedIndex());
         } else {
             startNewGame(DifficultyLevel.EASY);
         }
     }
 
     public void startNewGame(DifficultyLevel difficulty) {
-        board.generateNewBoard(difficulty.getLevel());
-        gridPanel.updateDisplay();
-        gameTimer.start();
+        startNewGame(difficulty, SudokuBoard.MIN_SUBGRID_SIZE + DEFAULT_SIZE_INDEX);
+    }
+
+    public void startNewGame(DifficultyLevel difficulty, int subgridSize) {
+        // Puzzle do banco ou da reserva, sem gerar nada na EDT
+        SudokuBoard ready = puzzleSource.poll(difficulty, subgridSize);
+        if (ready != null) {
+            showNewBoard(ready);
+            return;
+        }
+
+        // Sem puzzle pronto (outro tamanho, reserva vazia): gerado fora da EDT
+        session.pause();
+        updateStatus("Gerando tabuleiro " + BOARD_SIZES[subgridSize - SudokuBoard.MIN_SUBGRID_SIZE] + "...");
+        new SwingWorker<SudokuBoard, Void>() {
+            @Override
+            protected SudokuBoard doInBackground() {
+                return puzzleSource.take(difficulty, subgridSize);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    showNewBoard(get());
+                } catch (InterruptedException | ExecutionException e) {
+                    session.resume();
+                    updateStatus("Não foi possível gerar o tabuleiro.");
+                }
+            }
+        }.execute();
+    }
+
+    private void showNewBoard(SudokuBoard newBoard) {
+        stopReplay();
+        if (newBoard.getGridSize() == board.getGridSize()) {
+            board.copyFrom(newBoard);
+        } else {
+            board = newBoard;
+            gridPanel.setBoard(board);
+            repaints.attach(board);
+        }
+        gameSerial++;
+        session.start(board);
+        updateTimerDisplay();
         updateStatus("Boa sorte! Selecione uma célula vazia e digite um número.");
     }
 
+    public void loadPuzzle() {
+        String text = JOptionPane.showInputDialog(parentFrame,
+                "Cole o puzzle numa linha, em ordem de linhas, com '.' ou '0' nas células vazias:",
+                "Carregar Puzzle", JOptionPane.PLAIN_MESSAGE);
+        if (text == null || text.isBlank()) {
+            return;
+        }
+
+        // Resolvido fora da EDT; um puzzle já visto vem do cache
+        session.pause();
+        updateStatus("Carregando puzzle...");
+        new SwingWorker<SudokuBoard, Void>() {
+            @Override
+            protected SudokuBoard doInBackground() {
+                return puzzleSource.load(text.replaceAll("\\s", ""));
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    SudokuBoard loaded = get();
+                    if (loaded != null) {
+                        showNewBoard(loaded);
+                        return;
+                    }
+                    updateStatus("O puzzle não tem solução única.");
+                } catch (ExecutionException e) {
+                    updateStatus(e.getCause() instanceof IllegalArgumentException
+                            ? "Puzzle inválido: " + e.getCause().getMessage()
+                            : "Não foi possível carregar o puzzle.");
+                } catch (InterruptedException e) {
+                    updateStatus("Não foi possível carregar o puzzle.");
+                }
+                session.resume();
+            }
+        }.execute();
+    }
+
     public void restartCurrentGame() {
-        int option = JOptionPane.showConfirmDialog(
-                parentFrame,
-                "Tem certeza que deseja reiniciar o jogo atual? Todo o progresso será perdido.",
-                "Reiniciar Jogo",
-                JOptionPane.YES_NO_OPTION
+        int option = confirm(
+                "Tem certeza que deseja reiniciar o jogo atual? O progresso pode ser recuperado com Ctrl+Z.",
+                "Reiniciar Jogo"
         );
 
         if (option == JOptionPane.YES_OPTION) {
-            board.restartBoard();
-            gridPanel.updateDisplay();
-            gameTimer.start();
+            stopReplay();
+            session.restart();
+            updateTimerDisplay();
             updateStatus("Jogo reiniciado! Boa sorte!");
         }
     }
 
     public void showSolution() {
-        int option = JOptionPane.showConfirmDialog(
-                parentFrame,
+        int option = confirm(
                 "Tem certeza que deseja ver a solução? Isso encerrará o jogo atual.",
-                "Ver Solução",
-                JOptionPane.YES_NO_OPTION
+                "Ver Solução"
         );
 
-        if (option == JOptionPane.YES_OPTION) {
-            gameTimer.stop();
-            board.showSolution();
-            gridPanel.updateDisplay();
+        if (option != JOptionPane.YES_OPTION) {
+            return;
+        }
+        stopReplay();
+        if (board.hasSolution()) {
+            finishSolution(session.solve());
+            return;
+        }
+
+        // Sem solução armazenada: as pistas são resolvidas numa cópia, fora da EDT
+        SudokuBoard clues = new SudokuBoard(board.getSubgridSize());
+        clues.copyFrom(board);
+        int serial = gameSerial;
+        updateStatus("Resolvendo...");
+        new SwingWorker<Boolean, Void>() {
+            @Override
+            protected Boolean doInBackground() {
+                return puzzleSource.solve(clues);
+            }
+
+            @Override
+            protected void done() {
+                if (serial != gameSerial) {
+                    return;
+                }
+                boolean solved;
+                try {
+                    solved = get();
+                } catch (InterruptedException | ExecutionException e) {
+                    solved = false;
+                }
+                if (solved) {
+                    int[] solution = new int[clues.getCellCount()];
+                    clues.copySolution(solution);
+                    board.setSolution(solution);
+                }
+                finishSolution(solved && session.solve());
+            }
+        }.execute();
+    }
+
+    private void finishSolution(boolean shown) {
+        if (shown) {
             updateStatus("Solução exibida. Inicie um novo jogo para jogar novamente.");
+        } else {
+            updateStatus("Não foi possível resolver: as pistas não têm solução única.");
         }
     }
 
     public void checkSolution() {
-        int errorCount = board.countErrors();
+        int errorCount = session.check();
 
         if (errorCount > 0) {
             updateStatus("Há " + errorCount + " erro(s) no tabuleiro!");
@@ -107,28 +296,117 @@ public class SudokuController {
     }
 
     public void handleKeyInput(char key) {
+        if (replayTimer != null) {
+            return;
+        }
         int selectedRow = gridPanel.getSelectedRow();
         int selectedCol = gridPanel.getSelectedCol();
 
         if (selectedRow >= 0 && selectedCol >= 0) {
-            if (key >= '1' && key <= '9') {
-                int num = key - '0';
-                if (!board.isOriginal(selectedRow, selectedCol)) {
-                    board.setPlayBoard(selectedRow, selectedCol, num);
-                    gridPanel.updateCellDisplay(selectedRow, selectedCol);
-                    checkWin();
-                } else {
+            int num = CellSymbols.fromSymbol(key);
+            if (num >= 1 && num <= board.getGridSize()) {
+                MoveResult result = session.setCell(selectedRow, selectedCol, num);
+                if (result == MoveResult.ORIGINAL_CELL) {
                     updateStatus("Esta célula não pode ser alterada!");
+                } else if (result == MoveResult.SOLVED) {
+                    showVictory();
+                } else if (result == MoveResult.ACCEPTED) {
+                    offerHint();
                 }
             } else if (key == '\b' || key == '\u007F' || key == '0') { // Backspace, Delete, 0
-                if (!board.isOriginal(selectedRow, selectedCol)) {
-                    board.setPlayBoard(selectedRow, selectedCol, 0);
-                    gridPanel.updateCellDisplay(selectedRow, selectedCol);
+                if (session.setCell(selectedRow, selectedCol, 0) == MoveResult.ACCEPTED) {
+                    offerHint();
                 }
             }
         }
     }
 
+    /**
+     * Seleciona a célula do próximo passo lógico e o descreve na barra de
+     * status, sem preencher nada.
+     */
+    public void showHint() {
+        if (replayTimer != null) {
+            return;
+        }
+        Hint hint = session.hint();
+        if (hint == null) {
+            updateStatus("Nenhuma dica disponível.");
+            return;
+        }
+        gridPanel.selectCell(hint.getRow(), hint.getCol());
+        updateStatus("Dica: " + hint.getDescription());
+    }
+
+    /**
+     * Após cada jogada, indica só a técnica do próximo passo (sem a célula),
+     * ou que há um valor errado no tabuleiro.
+     */
+    private void offerHint() {
+        Hint hint = session.hint();
+        if (hint == null) {
+            return;
+        }
+        if (hint.isMistake()) {
+            updateStatus("Há um valor errado no tabuleiro. Pressione Ctrl+H para vê-lo.");
+        } else {
+            updateStatus("Próximo passo: " + hint.getTechnique().getDescription() + " (Ctrl+H)");
+        }
+    }
+
+    public void undo() {
+        if (replayTimer == null) {
+            session.undo();
+        }
+    }
+
+    public void redo() {
+        if (replayTimer == null && session.redo()) {
+            if (session.isOver()) {
+                showVictory();
+            }
+        }
+    }
+
+    /**
+     * Reproduz a partida atual desde o início, {@value #REPLAY_SPEED} vezes
+     * mais rápido, e volta ao estado atual no fim. A entrada fica bloqueada
+     * durante a reprodução.
+     */
+    public void replayGame() {
+        MoveJournal journal = session.getJournal();
+        if (replayTimer != null || journal.size() == 0) {
+            return;
+        }
+        int end = journal.size();
+        long start = System.nanoTime();
+        int[] position = {0};
+        journal.seek(board, 0);
+        updateStatus("Reproduzindo a partida...");
+
+        replayTimer = new Timer(REPLAY_FRAME_MILLIS, e -> {
+            long replayMillis = (long) ((System.nanoTime() - start) / 1_000_000 * REPLAY_SPEED);
+            int target = Math.min(end, journal.positionAt(replayMillis));
+            journal.advance(board, position[0], target);
+            position[0] = target;
+            if (target == end) {
+                stopReplay();
+                updateStatus("Fim da reprodução.");
+            }
+        });
+        replayTimer.start();
+    }
+
+    private void stopReplay() {
+        if (replayTimer != null) {
+            replayTimer.stop();
+            replayTimer = null;
+            // Volta ao estado mais recente, caso a reprodução tenha sido interrompida
+            MoveJournal journal = session.getJournal();
+            journal.seek(board, journal.size());
+        }
+    }
+
     private void handleCellSelection() {
         int selectedRow = gridPanel.getSelectedRow();
         int selectedCol = gridPanel.getSelectedCol();
@@ -136,26 +414,39 @@ public class SudokuController {
         if (board.isOriginal(selectedRow, selectedCol)) {
             updateStatus("Esta célula é fixa e não pode ser alterada");
         } else {
-            updateStatus("Digite um número de 1 a 9");
+            updateStatus("Digite um valor de 1 a " + CellSymbols.toSymbol(board.getGridSize()));
         }
     }
 
-    private void checkWin() {
-        if (board.isComplete()) {
-            gameTimer.stop();
-            JOptionPane.showMessageDialog(
-                    parentFrame,
-                    "Parabéns! Você completou o Sudoku!\nTempo: " + gameTimer.getElapsedTime(),
-                    "Vitória!",
-                    JOptionPane.INFORMATION_MESSAGE
-            );
+    private int confirm(String message, String title) {
+        session.pause();
+        try {
+            return JOptionPane.showConfirmDialog(parentFrame, message, title, JOptionPane.YES_NO_OPTION);
+        } finally {
+            session.resume();
         }
     }
 
+    private void showVictory() {
+        // A última jogada aparece antes do diálogo modal
+        repaints.flushNow();
+        updateTimerDisplay();
+        JOptionPane.showMessageDialog(
+                parentFrame,
+                "Parabéns! Você completou o Sudoku!\nTempo: " + GameTimer.format(session.getElapsedMillis()),
+                "Vitória!",
+                JOptionPane.INFORMATION_MESSAGE
+        );
+    }
+
     private void updateTimerDisplay() {
-        if (timerLabel != null) {
-            timerLabel.setText(gameTimer.getFormattedTime());
+        long elapsed = session.getElapsedMillis();
+        if (timerLabel == null || elapsed / 1000 == displayedSecond) {
+            return;
         }
+        displayedSecond = elapsed / 1000;
+        timerText.setLength(TIMER_PREFIX.length());
+        timerLabel.setText(GameTimer.formatTo(elapsed, timerText).toString());
     }
 
     private void updateStatus(String message) {
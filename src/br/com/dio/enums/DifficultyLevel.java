@@ -2,19 +2,25 @@
 package br.com.dio.enums;
 
 /**
- * Enum para níveis de dificuldade
+ * Enum para níveis de dificuldade.
+ * Cada nível é definido pela técnica mais difícil que o puzzle pode exigir;
+ * o número de células removidas é apenas o limite de buracos na geração.
  */
 public enum DifficultyLevel {
-    EASY(1, "Fácil"),
-    MEDIUM(2, "Médio"),
-    HARD(3, "Difícil");
+    EASY(1, "Fácil", 40, Technique.HIDDEN_SINGLE),
+    MEDIUM(2, "Médio", 50, Technique.HIDDEN_TRIPLE),
+    HARD(3, "Difícil", 60, Technique.GUESSING);
 
     private final int level;
     private final String description;
+    private final int cellsToRemove;
+    private final Technique hardestTechnique;
 
-    DifficultyLevel(int level, String description) {
+    DifficultyLevel(int level, String description, int cellsToRemove, Technique hardestTechnique) {
         this.level = level;
         this.description = description;
+        this.cellsToRemove = cellsToRemove;
+        this.hardestTechnique = hardestTechnique;
     }
 
     public int getLevel() {
@@ -25,6 +31,44 @@ public enum DifficultyLevel {
         return description;
     }
 
+    public int getCellsToRemove() {
+        return cellsToRemove;
+    }
+
+    /**
+     * Células a remover num tabuleiro com {@code cellCount} células, na mesma
+     * proporção usada no 9x9.
+     */
+    public int getCellsToRemove(int cellCount) {
+        return Math.round(cellsToRemove * cellCount / 81f);
+    }
+
+    /**
+     * Técnica mais difícil aceita neste nível.
+     */
+    public Technique getHardestTechnique() {
+        return hardestTechnique;
+    }
+
+    /**
+     * Indica se um puzzle com a nota {@code grade} pertence a este nível.
+     */
+    public boolean accepts(Technique grade) {
+        return fromTechnique(grade) == this;
+    }
+
+    /**
+     * Nível correspondente à técnica mais difícil exigida por um puzzle.
+     */
+    public static DifficultyLevel fromTechnique(Technique grade) {
+        for (DifficultyLevel difficulty : values()) {
+            if (!grade.isHarderThan(difficulty.hardestTechnique)) {
+                return difficulty;
+            }
+        }
+        return HARD;
+    }
+
     public static String[] getDescriptions() {
         return new String[]{EASY.description, MEDIUM.description, HARD.description};
     }
@@ -37,4 +81,13 @@ public enum DifficultyLevel {
             default: return EASY;
         }
     }
+
+    public static DifficultyLevel fromLevel(int level) {
+        for (DifficultyLevel difficulty : values()) {
+            if (difficulty.level == level) {
+                return difficulty;
+            }
+        }
+        return EASY;
+    }
 }
\ No newline at end of file
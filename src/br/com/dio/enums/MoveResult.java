@@ -0,0 +1,23 @@
+// ============= MoveResult.java =============
+package br.com.dio.enums;
+
+/**
+ * Resultado de uma jogada numa sessão de jogo.
+ */
+public enum MoveResult {
+    ACCEPTED("Jogada registrada"),
+    UNCHANGED("A célula já tinha esse valor"),
+    ORIGINAL_CELL("Esta célula não pode ser alterada"),
+    SOLVED("Tabuleiro completo"),
+    GAME_OVER("A partida já terminou");
+
+    private final String description;
+
+    MoveResult(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,35 @@
+// ============= Technique.java =============
+package br.com.dio.enums;
+
+/**
+ * Técnicas de resolução humanas, em ordem crescente de custo. A nota de um
+ * puzzle é a técnica mais difícil necessária para resolvê-lo.
+ */
+public enum Technique {
+    NAKED_SINGLE("Single nu"),
+    HIDDEN_SINGLE("Single oculto"),
+    LOCKED_CANDIDATES("Candidatos bloqueados"),
+    NAKED_PAIR("Par nu"),
+    HIDDEN_PAIR("Par oculto"),
+    NAKED_TRIPLE("Trio nu"),
+    HIDDEN_TRIPLE("Trio oculto"),
+    X_WING("X-Wing"),
+    SWORDFISH("Swordfish"),
+    XY_WING("XY-Wing"),
+    XY_CHAIN("Cadeia XY"),
+    GUESSING("Tentativa e erro");
+
+    private final String description;
+
+    Technique(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public boolean isHarderThan(Technique other) {
+        return compareTo(other) > 0;
+    }
+}
@@ -0,0 +1,260 @@
+// ============= BatchGenerator.java =============
+package br.com.dio.generator;
+
+import br.com.dio.enums.DifficultyLevel;
+import br.com.dio.model.SudokuBoard;
+import br.com.dio.util.CellSymbols;
+import br.com.dio.util.SplitMix64;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Gerador de puzzles em lote, sem interface gráfica.
+ * Os puzzles são gerados em blocos num ForkJoinPool (roubo de trabalho), cada
+ * bloco com seu próprio gerador aleatório derivado da semente, e escritos na
+ * saída na ordem de submissão assim que ficam prontos. Com a mesma semente a
+ * saída é idêntica, independente do número de threads; os geradores são
+ * {@link SplitMix64} e os motores de resolução são os fixos da geração por
+ * semente ({@link SudokuBoard#generateFromSeed(int, SplitMix64)}), então ela
+ * também não muda com a versão do Java nem com -Dsudoku.solver.*.
+ *
+ * Formato padrão de cada linha ({@link #TEXT_LINES}): puzzle (uma posição por
+ * célula, '.' para vazio e letras a partir de A para valores acima de 9),
+ * espaço, solução, espaço e o nome da dificuldade. Outros formatos de tamanho
+ * fixo podem ser usados com um {@link RecordEncoder}.
+ *
+ * Puzzles fora do nível pedido são descartados e gerados de novo. Com um
+ * {@link PuzzleDeduplicator}, cada puzzle equivalente (a menos de
+ * simetria) a um já gerado também é descartado e gerado de novo; depois de
+ * {@value #MAX_DUPLICATE_RETRIES} tentativas repetidas seguidas a posição fica
+ * vazia, e o lote pode ter menos puzzles que o pedido. As threads de trabalho
+ * só calculam as chaves canônicas; a verificação é feita na thread chamadora,
+ * bloco a bloco na ordem de submissão, e os substitutos são gerados nela com
+ * o gerador aleatório do próprio bloco. Assim a saída continua a mesma com
+ * qualquer número de threads.
+ */
+public class BatchGenerator {
+    /**
+     * Codifica cada puzzle gerado num registro de tamanho fixo. É chamado nas
+     * threads de trabalho e, para os substitutos de repetidos, na thread
+     * chamadora, por isso deve ser thread-safe.
+     */
+    public interface RecordEncoder {
+        int recordLength(SudokuBoard board, DifficultyLevel level);
+
+        void encode(SudokuBoard board, DifficultyLevel level, byte[] buffer, int offset);
+    }
+
+    public static final RecordEncoder TEXT_LINES = new RecordEncoder() {
+        @Override
+        public int recordLength(SudokuBoard board, DifficultyLevel level) {
+            return 2 * board.getCellCount() + 2 + level.name().length() + 1;
+        }
+
+        @Override
+        public void encode(SudokuBoard board, DifficultyLevel level, byte[] buffer, int offset) {
+            encodeLine(board, level, buffer, offset);
+        }
+    };
+
+    public static final int MAX_DUPLICATE_RETRIES = 16;
+
+    private final int parallelism;
+    private final int chunkSize;
+    private final int subgridSize;
+    private final PuzzleDeduplicator deduplicator;
+
+    public BatchGenerator(int parallelism, int chunkSize) {
+        this(parallelism, chunkSize, 3);
+    }
+
+    public BatchGenerator(int parallelism, int chunkSize, int subgridSize) {
+        this(parallelism, chunkSize, subgridSize, null);
+    }
+
+    /**
+     * @param deduplicator chaves já vistas, ou null para não descartar repetidos
+     */
+    public BatchGenerator(int parallelism, int chunkSize, int subgridSize, PuzzleDeduplicator deduplicator) {
+        if (parallelism <= 0 || chunkSize <= 0) {
+            throw new IllegalArgumentException("Paralelismo e tamanho do bloco devem ser positivos");
+        }
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+        this.subgridSize = subgridSize;
+        this.deduplicator = deduplicator;
+    }
+
+    /**
+     * Gera {@code countPerLevel} puzzles para cada nível e escreve na saída.
+     *
+     * @return número de puzzles escritos
+     */
+    public long generate(List<DifficultyLevel> levels, int countPerLevel, SplitMix64 random,
+                         OutputStream out) throws IOException {
+        return generate(levels, countPerLevel, random, TEXT_LINES, out);
+    }
+
+    /**
+     * Como {@link #generate(List, int, SplitMix64, OutputStream)}, com a
+     * codificação de cada puzzle definida por {@code encoder}.
+     */
+    public long generate(List<DifficultyLevel> levels, int countPerLevel, SplitMix64 random,
+                         RecordEncoder encoder, OutputStream out) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        // Janela limitada de blocos em andamento: mantém a memória constante
+        int window = parallelism * 4;
+        Deque<ChunkTask> pending = new ArrayDeque<>(window);
+        long written = 0;
+
+        try {
+            for (DifficultyLevel level : levels) {
+                for (int start = 0; start < countPerLevel; start += chunkSize) {
+                    int size = Math.min(chunkSize, countPerLevel - start);
+                    // split() na thread chamadora, em ordem fixa: saída determinística
+                    ChunkTask task = new ChunkTask(level, size, subgridSize, encoder, deduplicator, random.split());
+                    pool.execute(task);
+                    pending.addLast(task);
+
+                    if (pending.size() >= window) {
+                        written += drain(pending.removeFirst(), out);
+                    }
+                }
+            }
+
+            while (!pending.isEmpty()) {
+                written += drain(pending.removeFirst(), out);
+            }
+            out.flush();
+        } finally {
+            pool.shutdownNow();
+        }
+        return written;
+    }
+
+    private int drain(ChunkTask task, OutputStream out) throws IOException {
+        byte[] records = task.join();
+        if (deduplicator == null) {
+            out.write(records, 0, task.generated * task.recordLength);
+            return task.generated;
+        }
+
+        // Em ordem: o primeiro de cada forma canônica é mantido, os demais trocados
+        int kept = 0;
+        for (int i = 0; i < task.generated; i++) {
+            int offset = i * task.recordLength;
+            if (deduplicator.add(task.keys[i]) || task.replace(records, offset)) {
+                System.arraycopy(records, offset, records, kept * task.recordLength, task.recordLength);
+                kept++;
+            }
+        }
+        out.write(records, 0, kept * task.recordLength);
+        return kept;
+    }
+
+    /**
+     * Gera um bloco de puzzles de uma dificuldade já codificados e, com
+     * deduplicação, as chaves canônicas deles.
+     */
+    private static final class ChunkTask extends RecursiveTask<byte[]> {
+        private final DifficultyLevel level;
+        private final int size;
+        private final int subgridSize;
+        private final RecordEncoder encoder;
+        private final PuzzleDeduplicator deduplicator;
+        private final SplitMix64 random;
+        // Preenchidos em compute(), visíveis após join(); depois disso o
+        // gerador aleatório passa para a thread chamadora (ver replace)
+        private int generated;
+        private int recordLength;
+        private long[] keys;
+
+        ChunkTask(DifficultyLevel level, int size, int subgridSize, RecordEncoder encoder,
+                  PuzzleDeduplicator deduplicator, SplitMix64 random) {
+            this.level = level;
+            this.size = size;
+            this.subgridSize = subgridSize;
+            this.encoder = encoder;
+            this.deduplicator = deduplicator;
+            this.random = random;
+        }
+
+        @Override
+        protected byte[] compute() {
+            SudokuBoard board = new SudokuBoard(subgridSize);
+            recordLength = encoder.recordLength(board, level);
+            byte[] records = new byte[size * recordLength];
+            keys = deduplicator == null ? null : new long[size];
+
+            for (int i = 0; i < size; i++) {
+                if (generateOnGrade(board)) {
+                    encoder.encode(board, level, records, generated * recordLength);
+                    if (keys != null) {
+                        keys[generated] = PuzzleDeduplicator.keyOf(board);
+                    }
+                    generated++;
+                }
+            }
+            return records;
+        }
+
+        /**
+         * Gera, na thread chamadora e depois de join(), um puzzle inédito no
+         * lugar do registro em {@code offset}, que repetiu um já visto.
+         *
+         * @return false se todas as tentativas repetiram
+         */
+        boolean replace(byte[] records, int offset) {
+            SudokuBoard board = new SudokuBoard(subgridSize);
+            for (int attempt = 0; attempt < MAX_DUPLICATE_RETRIES; attempt++) {
+                if (generateOnGrade(board) && deduplicator.firstSeen(board)) {
+                    encoder.encode(board, level, records, offset);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean generateOnGrade(SudokuBoard board) {
+            for (int attempt = 0; attempt < MAX_DUPLICATE_RETRIES; attempt++) {
+                // Um puzzle fora do nível seria escrito com o nome errado. Motores
+                // fixos: a saída não depende de -Dsudoku.solver.*
+                if (board.generateFromSeed(level.getLevel(), random)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static void encodeLine(SudokuBoard board, DifficultyLevel level, byte[] buffer, int offset) {
+        int size = board.getGridSize();
+        int position = offset;
+
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                buffer[position++] = (byte) CellSymbols.toSymbol(board.getPlayBoard(row, col));
+            }
+        }
+        buffer[position++] = ' ';
+
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                buffer[position++] = (byte) CellSymbols.toSymbol(board.getSolution(row, col));
+            }
+        }
+        buffer[position++] = ' ';
+
+        String name = level.name();
+        for (int i = 0; i < name.length(); i++) {
+            buffer[position++] = (byte) name.charAt(i);
+        }
+        buffer[position] = '\n';
+    }
+}
@@ -0,0 +1,435 @@
+// ============= Canonicalizer.java =============
+package br.com.dio.generator;
+
+import java.util.Arrays;
+
+/**
+ * Forma canônica de puzzles a menos de simetrias (troca de dígitos, linhas
+ * dentro da faixa, colunas dentro da pilha, faixas, pilhas e transposição).
+ *
+ * A forma canônica é a da solução: entre todas as transformações, a que deixa
+ * a solução lexicograficamente menor, com os dígitos renomeados pela ordem da
+ * primeira linha. Se a solução tem automorfismos, o desempate é pela menor
+ * imagem do puzzle. Como a primeira linha vira sempre 1..N, a busca percorre
+ * só a escolha da primeira e da segunda linha e as permutações de colunas,
+ * descartando cada uma no primeiro dígito da segunda linha que já perde; o
+ * restante das linhas é ordenado de forma gulosa.
+ *
+ * Disponível para tabuleiros de até 9x9 (no 16x16 as permutações de colunas
+ * passam de sete milhões). Não é thread-safe: cada thread deve usar sua
+ * própria instância.
+ */
+public final class Canonicalizer {
+    public static final int MAX_SUBGRID_SIZE = 3;
+
+    // Uma instância por thread e tamanho de bloco
+    private static final ThreadLocal<Canonicalizer[]> LOCAL =
+            ThreadLocal.withInitial(() -> new Canonicalizer[MAX_SUBGRID_SIZE + 1]);
+
+    private final int subgridSize;
+    private final int gridSize;
+    private final int cellCount;
+
+    // Permutações de colunas que respeitam as pilhas e suas inversas
+    private final int[][] permutations;
+    private final int[][] inverses;
+    // Permutações agrupadas pela primeira coluna e pela primeira da segunda pilha
+    private final int[][] byLeadingColumns;
+
+    // Rascunho da busca
+    private final int[] grid;
+    private final int[] columnOfDigit;
+    private final int[] tau;
+    private final int[] bestRow;
+    private int[] candidates = new int[64];
+    private int candidateCount;
+
+    // Rascunho da avaliação dos candidatos
+    private final int[] rowOrder;
+    private final int[] label;
+    private final int[] image;
+    private final int[] bestSolution;
+    private final int[] bestPuzzle;
+    private final int[] puzzleImage;
+
+    public Canonicalizer() {
+        this(3);
+    }
+
+    public Canonicalizer(int subgridSize) {
+        if (subgridSize < 2 || subgridSize > MAX_SUBGRID_SIZE) {
+            throw new IllegalArgumentException("Forma canônica disponível só até 9x9: bloco " + subgridSize);
+        }
+        this.subgridSize = subgridSize;
+        this.gridSize = subgridSize * subgridSize;
+        this.cellCount = gridSize * gridSize;
+
+        int[][] orders = allOrders(subgridSize);
+        int count = orders.length;
+        for (int i = 0; i < subgridSize; i++) {
+            count *= orders.length;
+        }
+        permutations = new int[count][gridSize];
+        inverses = new int[count][gridSize];
+        for (int p = 0; p < count; p++) {
+            // Índice em base s!: ordem das pilhas e ordem das colunas em cada pilha
+            int rest = p;
+            int[] stacks = orders[rest % orders.length];
+            rest /= orders.length;
+            for (int position = 0; position < subgridSize; position++) {
+                int[] within = orders[rest % orders.length];
+                rest /= orders.length;
+                for (int k = 0; k < subgridSize; k++) {
+                    int column = stacks[position] * subgridSize + within[k];
+                    permutations[p][position * subgridSize + k] = column;
+                    inverses[p][column] = position * subgridSize + k;
+                }
+            }
+        }
+
+        // A segunda linha sempre pode começar pelo menor valor possível (o
+        // primeiro da segunda pilha), então só interessam as permutações em que
+        // a coluna que o produz abre a segunda pilha
+        byLeadingColumns = new int[gridSize * gridSize][];
+        int[] bucketSize = new int[gridSize * gridSize];
+        for (int[] permutation : permutations) {
+            bucketSize[permutation[0] * gridSize + permutation[subgridSize]]++;
+        }
+        for (int bucket = 0; bucket < bucketSize.length; bucket++) {
+            byLeadingColumns[bucket] = new int[bucketSize[bucket]];
+            bucketSize[bucket] = 0;
+        }
+        for (int p = 0; p < count; p++) {
+            int bucket = permutations[p][0] * gridSize + permutations[p][subgridSize];
+            byLeadingColumns[bucket][bucketSize[bucket]++] = p;
+        }
+
+        grid = new int[cellCount];
+        columnOfDigit = new int[gridSize * (gridSize + 1)];
+        tau = new int[gridSize];
+        bestRow = new int[gridSize];
+        rowOrder = new int[gridSize];
+        label = new int[gridSize + 1];
+        image = new int[cellCount];
+        bestSolution = new int[cellCount];
+        bestPuzzle = new int[cellCount];
+        puzzleImage = new int[cellCount];
+    }
+
+    /**
+     * Instância da thread atual para o tamanho de bloco.
+     */
+    public static Canonicalizer forSubgridSize(int subgridSize) {
+        if (subgridSize < 2 || subgridSize > MAX_SUBGRID_SIZE) {
+            throw new IllegalArgumentException("Forma canônica disponível só até 9x9: bloco " + subgridSize);
+        }
+        Canonicalizer[] instances = LOCAL.get();
+        if (instances[subgridSize] == null) {
+            instances[subgridSize] = new Canonicalizer(subgridSize);
+        }
+        return instances[subgridSize];
+    }
+
+    public static boolean supports(int subgridSize) {
+        return subgridSize >= 2 && subgridSize <= MAX_SUBGRID_SIZE;
+    }
+
+    /**
+     * Chave de 64 bits da forma canônica do puzzle. Até 9x9 puzzles iguais a
+     * menos de qualquer simetria têm a mesma chave; nos maiores, só a troca de
+     * dígitos é considerada.
+     */
+    public static long keyOf(int subgridSize, int[] puzzle, int[] solution) {
+        if (supports(subgridSize)) {
+            return forSubgridSize(subgridSize).canonicalKey(puzzle, solution);
+        }
+        return relabelKey(puzzle, subgridSize * subgridSize);
+    }
+
+    // Dígitos renomeados na ordem em que aparecem
+    private static long relabelKey(int[] puzzle, int gridSize) {
+        int[] relabel = new int[gridSize + 1];
+        int next = 1;
+        int[] labelled = new int[puzzle.length];
+        for (int i = 0; i < puzzle.length; i++) {
+            int value = puzzle[i];
+            if (value != 0) {
+                if (relabel[value] == 0) {
+                    relabel[value] = next++;
+                }
+                labelled[i] = relabel[value];
+            }
+        }
+        return hash(labelled);
+    }
+
+    public int getSubgridSize() {
+        return subgridSize;
+    }
+
+    /**
+     * Encontra a transformação que leva o puzzle à forma canônica.
+     *
+     * @param puzzle   pistas em ordem de linhas, 0 nas vazias
+     * @param solution solução completa do puzzle
+     */
+    public SymmetryTransform canonicalize(int[] puzzle, int[] solution) {
+        if (puzzle.length != cellCount || solution.length != cellCount) {
+            throw new IllegalArgumentException("O tabuleiro deve ter " + cellCount + " células");
+        }
+
+        Arrays.fill(bestRow, Integer.MAX_VALUE);
+        bestRow[0] = subgridSize;
+        candidateCount = 0;
+        for (int transposed = 0; transposed < 2; transposed++) {
+            searchSecondRow(solution, transposed == 1);
+        }
+
+        // Entre os candidatos empatados na segunda linha, o de menor solução
+        // e, havendo automorfismo, o de menor puzzle
+        SymmetryTransform best = null;
+        for (int i = 0; i < candidateCount; i++) {
+            SymmetryTransform transform = complete(solution, candidates[i]);
+            transform.apply(solution, image);
+            int order = best == null ? -1 : Arrays.compare(image, bestSolution);
+            if (order == 0) {
+                transform.apply(puzzle, puzzleImage);
+                order = Arrays.compare(puzzleImage, bestPuzzle);
+                if (order < 0) {
+                    System.arraycopy(puzzleImage, 0, bestPuzzle, 0, cellCount);
+                    best = transform;
+                }
+            } else if (order < 0) {
+                System.arraycopy(image, 0, bestSolution, 0, cellCount);
+                transform.apply(puzzle, bestPuzzle);
+                best = transform;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Forma canônica do puzzle (as pistas transformadas).
+     */
+    public int[] canonicalPuzzle(int[] puzzle, int[] solution) {
+        int[] canonical = new int[cellCount];
+        canonicalize(puzzle, solution).apply(puzzle, canonical);
+        return canonical;
+    }
+
+    /**
+     * Chave de 64 bits da forma canônica: puzzles equivalentes têm a mesma chave.
+     */
+    public long canonicalKey(int[] puzzle, int[] solution) {
+        return hash(canonicalPuzzle(puzzle, solution));
+    }
+
+    /**
+     * Hash de 64 bits de uma grade (FNV-1a seguido do finalizador do MurmurHash3).
+     */
+    public static long hash(int[] grid) {
+        long hash = 0xCBF29CE484222325L;
+        for (int value : grid) {
+            hash = (hash ^ value) * 0x100000001B3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB93FE53D1A85L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * Percorre primeira linha, segunda linha (da mesma faixa) e permutação de
+     * colunas, guardando as combinações com a menor segunda linha. Com a
+     * primeira linha renomeada para 1..N, o valor na posição j da segunda
+     * linha é a posição, na permutação, da coluna onde a primeira linha tem o
+     * dígito que a segunda linha tem na coluna permutations[p][j].
+     */
+    private void searchSecondRow(int[] solution, boolean transposed) {
+        for (int row = 0; row < gridSize; row++) {
+            for (int col = 0; col < gridSize; col++) {
+                int value = transposed ? solution[col * gridSize + row] : solution[row * gridSize + col];
+                grid[row * gridSize + col] = value;
+                columnOfDigit[row * (gridSize + 1) + value] = col;
+            }
+        }
+
+        for (int first = 0; first < gridSize; first++) {
+            int bandStart = first - first % subgridSize;
+            for (int second = bandStart; second < bandStart + subgridSize; second++) {
+                if (second == first) {
+                    continue;
+                }
+                for (int col = 0; col < gridSize; col++) {
+                    tau[col] = columnOfDigit[first * (gridSize + 1) + grid[second * gridSize + col]];
+                }
+
+                // Na mesma faixa, tau[col] cai sempre em outra pilha que col
+                for (int leading = 0; leading < gridSize; leading++) {
+                    for (int p : byLeadingColumns[leading * gridSize + tau[leading]]) {
+                        int[] permutation = permutations[p];
+                        int[] inverse = inverses[p];
+                        int order = 0;
+                        int j = 1;
+                        for (; j < gridSize; j++) {
+                            int value = inverse[tau[permutation[j]]];
+                            if (value != bestRow[j]) {
+                                order = value < bestRow[j] ? -1 : 1;
+                                break;
+                            }
+                        }
+                        if (order > 0) {
+                            continue;
+                        }
+                        if (order < 0) {
+                            for (; j < gridSize; j++) {
+                                bestRow[j] = inverse[tau[permutation[j]]];
+                            }
+                            candidateCount = 0;
+                        }
+                        addCandidate(encode(transposed, first, second, p));
+                    }
+                }
+            }
+        }
+    }
+
+    private int encode(boolean transposed, int first, int second, int permutation) {
+        return ((permutation * gridSize + first) * gridSize + second) * 2 + (transposed ? 1 : 0);
+    }
+
+    private void addCandidate(int candidate) {
+        if (candidateCount == candidates.length) {
+            candidates = Arrays.copyOf(candidates, candidateCount * 2);
+        }
+        candidates[candidateCount++] = candidate;
+    }
+
+    /**
+     * Monta a transformação completa de um candidato: renomeia os dígitos pela
+     * primeira linha e ordena as demais linhas de forma gulosa (as linhas de uma
+     * solução são todas diferentes, então não há empates).
+     */
+    private SymmetryTransform complete(int[] solution, int candidate) {
+        boolean transposed = (candidate & 1) == 1;
+        candidate >>>= 1;
+        int second = candidate % gridSize;
+        candidate /= gridSize;
+        int first = candidate % gridSize;
+        int[] permutation = permutations[candidate / gridSize];
+
+        for (int row = 0; row < gridSize; row++) {
+            for (int col = 0; col < gridSize; col++) {
+                grid[row * gridSize + col] = transposed ? solution[col * gridSize + row] : solution[row * gridSize + col];
+            }
+        }
+        int[] digits = new int[gridSize + 1];
+        for (int j = 0; j < gridSize; j++) {
+            digits[grid[first * gridSize + permutation[j]]] = j + 1;
+        }
+        System.arraycopy(digits, 0, label, 0, label.length);
+
+        // Primeira faixa: primeira e segunda linha escolhidas, resto em ordem
+        int firstBand = first / subgridSize;
+        int count = 0;
+        rowOrder[count++] = first;
+        rowOrder[count++] = second;
+        for (int row = firstBand * subgridSize; row < (firstBand + 1) * subgridSize; row++) {
+            if (row != first && row != second) {
+                rowOrder[count++] = row;
+            }
+        }
+        sortRows(2, count, permutation);
+
+        // Demais faixas: a que tem a menor linha primeiro, linhas em ordem
+        boolean[] usedBand = new boolean[subgridSize];
+        usedBand[firstBand] = true;
+        for (int placed = 1; placed < subgridSize; placed++) {
+            int bestBand = -1;
+            int bestRowIndex = -1;
+            for (int band = 0; band < subgridSize; band++) {
+                if (usedBand[band]) {
+                    continue;
+                }
+                for (int row = band * subgridSize; row < (band + 1) * subgridSize; row++) {
+                    if (bestRowIndex < 0 || compareRows(row, bestRowIndex, permutation) < 0) {
+                        bestRowIndex = row;
+                        bestBand = band;
+                    }
+                }
+            }
+            usedBand[bestBand] = true;
+            int start = count;
+            for (int row = bestBand * subgridSize; row < (bestBand + 1) * subgridSize; row++) {
+                rowOrder[count++] = row;
+            }
+            sortRows(start, count, permutation);
+        }
+
+        return new SymmetryTransform(subgridSize, transposed, rowOrder.clone(), permutation.clone(), digits);
+    }
+
+    private void sortRows(int from, int to, int[] permutation) {
+        for (int i = from + 1; i < to; i++) {
+            int row = rowOrder[i];
+            int j = i - 1;
+            while (j >= from && compareRows(rowOrder[j], row, permutation) > 0) {
+                rowOrder[j + 1] = rowOrder[j];
+                j--;
+            }
+            rowOrder[j + 1] = row;
+        }
+    }
+
+    private int compareRows(int a, int b, int[] permutation) {
+        for (int j = 0; j < gridSize; j++) {
+            int va = label[grid[a * gridSize + permutation[j]]];
+            int vb = label[grid[b * gridSize + permutation[j]]];
+            if (va != vb) {
+                return va < vb ? -1 : 1;
+            }
+        }
+        return 0;
+    }
+
+    private static int[][] allOrders(int size) {
+        int total = 1;
+        for (int i = 2; i <= size; i++) {
+            total *= i;
+        }
+        int[][] orders = new int[total][];
+        int[] current = new int[size];
+        for (int i = 0; i < size; i++) {
+            current[i] = i;
+        }
+        for (int k = 0; k < total; k++) {
+            orders[k] = current.clone();
+            nextPermutation(current);
+        }
+        return orders;
+    }
+
+    private static void nextPermutation(int[] values) {
+        int i = values.length - 2;
+        while (i >= 0 && values[i] >= values[i + 1]) {
+            i--;
+        }
+        if (i < 0) {
+            return;
+        }
+        int j = values.length - 1;
+        while (values[j] <= values[i]) {
+            j--;
+        }
+        int temp = values[i];
+        values[i] = values[j];
+        values[j] = temp;
+        for (int a = i + 1, b = values.length - 1; a < b; a++, b--) {
+            temp = values[a];
+            values[a] = values[b];
+            values[b] = temp;
+        }
+    }
+}
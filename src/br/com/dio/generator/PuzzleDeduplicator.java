@@ -0,0 +1,140 @@
+// ============= PuzzleDeduplicator.java =============
+package br.com.dio.generator;
+
+import br.com.dio.model.SudokuBoard;
+
+/**
+ * Conjunto concorrente de chaves canônicas para descartar puzzles repetidos
+ * durante a geração. As chaves ficam em tabelas de endereçamento aberto de
+ * long, divididas em faixas com um lock cada: threads que inserem chaves de
+ * faixas diferentes não disputam o mesmo lock, e não há um objeto por chave.
+ */
+public class PuzzleDeduplicator {
+    private static final int STRIPES = 64;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public PuzzleDeduplicator() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Registra a chave.
+     *
+     * @return true se a chave ainda não estava no conjunto
+     */
+    public boolean add(long key) {
+        // Os bits altos escolhem a faixa, os baixos a posição dentro dela
+        Stripe stripe = stripes[(int) (key >>> 58) & (STRIPES - 1)];
+        synchronized (stripe) {
+            return stripe.add(key);
+        }
+    }
+
+    public boolean contains(long key) {
+        Stripe stripe = stripes[(int) (key >>> 58) & (STRIPES - 1)];
+        synchronized (stripe) {
+            return stripe.contains(key);
+        }
+    }
+
+    /**
+     * Registra a forma canônica do puzzle do tabuleiro (que precisa ter solução).
+     *
+     * @return true se nenhum puzzle equivalente foi visto antes
+     */
+    public boolean firstSeen(SudokuBoard board) {
+        return add(keyOf(board));
+    }
+
+    /**
+     * Chave canônica das pistas originais do tabuleiro.
+     */
+    public static long keyOf(SudokuBoard board) {
+        if (!board.hasSolution()) {
+            throw new IllegalArgumentException("A forma canônica depende da solução do tabuleiro");
+        }
+        int[] puzzle = new int[board.getCellCount()];
+        int[] solution = new int[puzzle.length];
+        board.copyPuzzle(puzzle);
+        board.copySolution(solution);
+        return Canonicalizer.keyOf(board.getSubgridSize(), puzzle, solution);
+    }
+
+    public long size() {
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+        return size;
+    }
+
+    private static final class Stripe {
+        // 0 marca posição vazia; a chave 0 é guardada à parte
+        private long[] keys = new long[INITIAL_CAPACITY];
+        private boolean hasZero;
+        private int size;
+
+        boolean add(long key) {
+            if (key == 0) {
+                if (hasZero) {
+                    return false;
+                }
+                hasZero = true;
+                size++;
+                return true;
+            }
+
+            int mask = keys.length - 1;
+            int slot = (int) key & mask;
+            while (keys[slot] != 0) {
+                if (keys[slot] == key) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            size++;
+            // Ocupação de no máximo 50%
+            if (size * 2 > keys.length) {
+                grow();
+            }
+            return true;
+        }
+
+        boolean contains(long key) {
+            if (key == 0) {
+                return hasZero;
+            }
+            int mask = keys.length - 1;
+            int slot = (int) key & mask;
+            while (keys[slot] != 0) {
+                if (keys[slot] == key) {
+                    return true;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return false;
+        }
+
+        private void grow() {
+            long[] old = keys;
+            keys = new long[old.length * 2];
+            int mask = keys.length - 1;
+            for (long key : old) {
+                if (key != 0) {
+                    int slot = (int) key & mask;
+                    while (keys[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = key;
+                }
+            }
+        }
+    }
+}
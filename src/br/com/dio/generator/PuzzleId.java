@@ -0,0 +1,129 @@
+// ============= PuzzleId.java =============
+package br.com.dio.generator;
+
+import br.com.dio.enums.DifficultyLevel;
+import br.com.dio.model.SudokuBoard;
+import br.com.dio.util.SplitMix64;
+
+import java.time.LocalDate;
+import java.util.random.RandomGenerator;
+
+/**
+ * Identificador de 8 bytes de um puzzle gerado por semente
+ * ({@link SudokuBoard#generateFromSeed}): em vez de guardar a grade, guarda-se
+ * o id e o puzzle é gerado de novo quando preciso (puzzle do dia, placares).
+ *
+ * Bits, do mais alto para o mais baixo: 2 da dificuldade (ordinal), 2 do
+ * lado do bloco (menos 2) e 60 da semente. Em texto, 16 dígitos hexadecimais.
+ */
+public final class PuzzleId {
+    private static final int SEED_BITS = 60;
+    private static final long SEED_MASK = (1L << SEED_BITS) - 1;
+    private static final int SIZE_SHIFT = SEED_BITS;
+    private static final int DIFFICULTY_SHIFT = SEED_BITS + 2;
+
+    private final long value;
+
+    private PuzzleId(long value) {
+        this.value = value;
+    }
+
+    /**
+     * @param seed semente; só os {@value #SEED_BITS} bits baixos são usados
+     */
+    public static PuzzleId of(DifficultyLevel difficulty, int subgridSize, long seed) {
+        if (subgridSize < SudokuBoard.MIN_SUBGRID_SIZE || subgridSize > SudokuBoard.MAX_SUBGRID_SIZE) {
+            throw new IllegalArgumentException("Tamanho de bloco não suportado: " + subgridSize);
+        }
+        return new PuzzleId(((long) difficulty.ordinal() << DIFFICULTY_SHIFT)
+                | ((long) (subgridSize - SudokuBoard.MIN_SUBGRID_SIZE) << SIZE_SHIFT)
+                | (seed & SEED_MASK));
+    }
+
+    public static PuzzleId random(DifficultyLevel difficulty, int subgridSize, RandomGenerator random) {
+        return of(difficulty, subgridSize, random.nextLong());
+    }
+
+    /**
+     * Puzzle do dia: o mesmo para todos os jogadores na mesma data. O
+     * {@code salt}, guardado só no servidor, impede que os puzzles dos
+     * próximos dias sejam calculados de antemão a partir da data.
+     */
+    public static PuzzleId daily(LocalDate date, DifficultyLevel difficulty, int subgridSize, long salt) {
+        long day = (date.toEpochDay() << 4) | ((long) difficulty.ordinal() << 2) | (subgridSize - 2);
+        return of(difficulty, subgridSize, SplitMix64.mix(day ^ salt));
+    }
+
+    public static PuzzleId fromLong(long value) {
+        int difficulty = (int) (value >>> DIFFICULTY_SHIFT);
+        if (difficulty >= DifficultyLevel.values().length) {
+            throw new IllegalArgumentException("Id de puzzle inválido: " + Long.toHexString(value));
+        }
+        return new PuzzleId(value);
+    }
+
+    /**
+     * Lê os 16 dígitos hexadecimais de {@link #toString()}.
+     */
+    public static PuzzleId parse(String text) {
+        if (text.length() != 16) {
+            throw new IllegalArgumentException("Id de puzzle inválido: " + text);
+        }
+        try {
+            return fromLong(Long.parseUnsignedLong(text, 16));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Id de puzzle inválido: " + text);
+        }
+    }
+
+    public long toLong() {
+        return value;
+    }
+
+    public DifficultyLevel getDifficulty() {
+        return DifficultyLevel.values()[(int) (value >>> DIFFICULTY_SHIFT)];
+    }
+
+    public int getSubgridSize() {
+        return (int) ((value >>> SIZE_SHIFT) & 3) + SudokuBoard.MIN_SUBGRID_SIZE;
+    }
+
+    public long getSeed() {
+        return value & SEED_MASK;
+    }
+
+    /**
+     * Gera o puzzle deste id; sempre o mesmo.
+     */
+    public SudokuBoard generate() {
+        SudokuBoard board = new SudokuBoard(getSubgridSize());
+        generateInto(board);
+        return board;
+    }
+
+    /**
+     * Gera o puzzle deste id num tabuleiro do mesmo tamanho.
+     */
+    public void generateInto(SudokuBoard board) {
+        if (board.getSubgridSize() != getSubgridSize()) {
+            throw new IllegalArgumentException("Tabuleiro de tamanho diferente do id: " + board.getGridSize());
+        }
+        board.generateFromSeed(getDifficulty().getLevel(), getSeed());
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof PuzzleId && ((PuzzleId) other).value == value;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+        String hex = Long.toHexString(value);
+        return "0".repeat(16 - hex.length()) + hex;
+    }
+}
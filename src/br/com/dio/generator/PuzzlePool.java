@@ -0,0 +1,190 @@
+// ============= PuzzlePool.java =============
+package br.com.dio.generator;
+
+import br.com.dio.enums.DifficultyLevel;
+import br.com.dio.model.SudokuBoard;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reserva de puzzles pré-gerados por nível de dificuldade.
+ * Threads em segundo plano reabastecem cada fila quando ela cai abaixo da
+ * marca mínima, até atingir a marca máxima.
+ */
+public class PuzzlePool {
+    private final Map<DifficultyLevel, BlockingQueue<SudokuBoard>> queues = new EnumMap<>(DifficultyLevel.class);
+    private final Map<DifficultyLevel, AtomicBoolean> refilling = new EnumMap<>(DifficultyLevel.class);
+    private final int lowWatermark;
+    private final int highWatermark;
+    private final int subgridSize;
+    private final ExecutorService workers;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder generated = new LongAdder();
+    private final AtomicLong refillCount = new AtomicLong();
+    private final AtomicLong totalRefillNanos = new AtomicLong();
+    private final AtomicLong maxRefillNanos = new AtomicLong();
+
+    public PuzzlePool(int lowWatermark, int highWatermark, int workerCount) {
+        this(lowWatermark, highWatermark, workerCount, 3);
+    }
+
+    public PuzzlePool(int lowWatermark, int highWatermark, int workerCount, int subgridSize) {
+        if (lowWatermark < 0 || highWatermark <= lowWatermark || workerCount <= 0) {
+            throw new IllegalArgumentException("Parâmetros inválidos para a reserva de puzzles");
+        }
+        this.lowWatermark = lowWatermark;
+        this.highWatermark = highWatermark;
+        this.subgridSize = subgridSize;
+        this.workers = Executors.newFixedThreadPool(workerCount, daemonThreads());
+
+        for (DifficultyLevel difficulty : DifficultyLevel.values()) {
+            queues.put(difficulty, new ArrayBlockingQueue<>(highWatermark));
+            refilling.put(difficulty, new AtomicBoolean());
+        }
+    }
+
+    /**
+     * Dispara o reabastecimento de todas as filas até a marca máxima.
+     */
+    public void prefill() {
+        for (DifficultyLevel difficulty : DifficultyLevel.values()) {
+            scheduleRefill(difficulty);
+        }
+    }
+
+    /**
+     * Retira um puzzle da reserva. Se a fila estiver vazia, gera um puzzle na
+     * thread chamadora (contabilizado como falha).
+     */
+    public SudokuBoard take(DifficultyLevel difficulty) {
+        SudokuBoard board = poll(difficulty);
+        if (board == null) {
+            board = new SudokuBoard(subgridSize);
+            board.generateNewBoard(difficulty.getLevel());
+        }
+        return board;
+    }
+
+    /**
+     * Retira um puzzle da reserva sem gerar nada: null se a fila estiver
+     * vazia (contabilizado como falha).
+     */
+    public SudokuBoard poll(DifficultyLevel difficulty) {
+        SudokuBoard board = queues.get(difficulty).poll();
+
+        if (board != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+
+        if (queues.get(difficulty).size() <= lowWatermark) {
+            scheduleRefill(difficulty);
+        }
+        return board;
+    }
+
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private void scheduleRefill(DifficultyLevel difficulty) {
+        AtomicBoolean flag = refilling.get(difficulty);
+        if (flag.compareAndSet(false, true)) {
+            try {
+                workers.execute(() -> refill(difficulty, flag));
+            } catch (RuntimeException e) {
+                flag.set(false);
+                throw e;
+            }
+        }
+    }
+
+    private void refill(DifficultyLevel difficulty, AtomicBoolean flag) {
+        BlockingQueue<SudokuBoard> queue = queues.get(difficulty);
+        long start = System.nanoTime();
+        try {
+            while (queue.size() < highWatermark && !Thread.currentThread().isInterrupted()) {
+                SudokuBoard board = new SudokuBoard(subgridSize);
+                boolean onGrade = board.generateNewBoard(difficulty.getLevel());
+                generated.increment();
+                if (!onGrade) {
+                    // Fora do nível: a reserva só guarda puzzles da fila certa
+                    continue;
+                }
+                if (!queue.offer(board)) {
+                    break;
+                }
+            }
+        } finally {
+            recordRefill(System.nanoTime() - start);
+            flag.set(false);
+        }
+
+        // Um take pode ter esvaziado a fila enquanto o flag ainda estava ativo
+        if (queue.size() <= lowWatermark && !workers.isShutdown()) {
+            scheduleRefill(difficulty);
+        }
+    }
+
+    private void recordRefill(long nanos) {
+        refillCount.incrementAndGet();
+        totalRefillNanos.addAndGet(nanos);
+        maxRefillNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public int getSubgridSize() {
+        return subgridSize;
+    }
+
+    public int size(DifficultyLevel difficulty) {
+        return queues.get(difficulty).size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getGeneratedCount() {
+        return generated.sum();
+    }
+
+    public long getRefillCount() {
+        return refillCount.get();
+    }
+
+    public double getAverageRefillMillis() {
+        long count = refillCount.get();
+        return count == 0 ? 0 : totalRefillNanos.get() / 1_000_000.0 / count;
+    }
+
+    public double getMaxRefillMillis() {
+        return maxRefillNanos.get() / 1_000_000.0;
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "puzzle-pool-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,212 @@
+// ============= PuzzleSource.java =============
+package br.com.dio.generator;
+
+import br.com.dio.cache.PuzzleCache;
+import br.com.dio.enums.DifficultyLevel;
+import br.com.dio.model.SudokuBoard;
+import br.com.dio.storage.PuzzleBank;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+/**
+ * Origem dos puzzles de cada partida, na ordem: banco em arquivo (numa
+ * variante sorteada, para que o mesmo registro não se repita igual), reserva
+ * pré-gerada e, por fim, geração. Pode ser usada por várias threads.
+ *
+ * A geração reaproveita solvers guardados por thread; com um executor, ela é
+ * feita nas threads dele, e não na chamadora. Isso é necessário quando quem
+ * pede é uma thread virtual: cada uma guardaria seus próprios solvers
+ * (dezenas de KB) até terminar. Ela tem prazo e pode disputar várias
+ * tentativas (ver {@link RacingGenerator}). Pelo mesmo motivo, resoluções e
+ * dicas pedidas por sessões podem ser levadas a outro executor
+ * ({@link #compute}), separado do da geração: uma dica leva menos de 1 ms e
+ * não deve esperar na fila atrás de gerações inteiras.
+ *
+ * Puzzles pedidos por id e soluções de grades sem solução passam pelo
+ * {@link PuzzleCache}, quando há um.
+ */
+public class PuzzleSource {
+    private final PuzzlePool pool;
+    private final PuzzleBank bank;
+    private final RacingGenerator generator;
+    private final Executor generators;
+    private final Executor solvers;
+    private final PuzzleCache cache;
+
+    /**
+     * @param pool reserva de puzzles de um tamanho, ou null
+     * @param bank banco de puzzles, ou null
+     */
+    public PuzzleSource(PuzzlePool pool, PuzzleBank bank) {
+        this(pool, bank, null);
+    }
+
+    /**
+     * @param generators threads onde os puzzles são gerados, ou null para
+     *                   gerar na thread chamadora
+     */
+    public PuzzleSource(PuzzlePool pool, PuzzleBank bank, Executor generators) {
+        this(pool, bank, generators, 1);
+    }
+
+    /**
+     * @param racers tentativas de geração simultâneas por puzzle, nas threads
+     *               de {@code generators}
+     */
+    public PuzzleSource(PuzzlePool pool, PuzzleBank bank, Executor generators, int racers) {
+        this(pool, bank, generators, racers, null);
+    }
+
+    /**
+     * @param cache cache de puzzles por id e de soluções, ou null
+     */
+    public PuzzleSource(PuzzlePool pool, PuzzleBank bank, Executor generators, int racers, PuzzleCache cache) {
+        this(pool, bank, generators, racers, cache, null);
+    }
+
+    /**
+     * @param solvers threads das resoluções e dicas ({@link #compute}), ou
+     *                null para a thread chamadora
+     */
+    public PuzzleSource(PuzzlePool pool, PuzzleBank bank, Executor generators, int racers, PuzzleCache cache,
+                        Executor solvers) {
+        this.pool = pool;
+        this.bank = bank;
+        this.generator = new RacingGenerator(generators, racers);
+        this.generators = generators;
+        this.solvers = solvers;
+        this.cache = cache;
+    }
+
+    /**
+     * Abre o banco indicado, se o arquivo existe; falhas são reportadas e o
+     * banco é ignorado.
+     */
+    public static PuzzleBank openBank(String path) {
+        if (path == null || !Files.exists(Paths.get(path))) {
+            return null;
+        }
+        try {
+            return PuzzleBank.open(Paths.get(path));
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Um puzzle novo do banco ou da reserva, sem gerar nada.
+     *
+     * @return null se nenhum dos dois tem puzzle desse tamanho e nível agora
+     */
+    public SudokuBoard poll(DifficultyLevel difficulty, int subgridSize) {
+        if (bank != null && bank.getSubgridSize() == subgridSize) {
+            RandomGenerator random = ThreadLocalRandom.current();
+            SudokuBoard stored = new SudokuBoard(subgridSize);
+            if (bank.loadRandom(difficulty, random, stored)) {
+                SudokuBoard variant = new SudokuBoard(subgridSize);
+                SymmetryTransform.random(subgridSize, random).apply(stored, variant);
+                return variant;
+            }
+        }
+
+        if (pool != null && pool.getSubgridSize() == subgridSize) {
+            return pool.poll(difficulty);
+        }
+        return null;
+    }
+
+    /**
+     * Um puzzle novo. Quando {@link #poll} não tem nenhum, leva o tempo de uma
+     * geração, limitado pelo prazo de {@link RacingGenerator}.
+     */
+    public SudokuBoard take(DifficultyLevel difficulty, int subgridSize) {
+        SudokuBoard ready = poll(difficulty, subgridSize);
+        return ready != null ? ready : generator.generate(difficulty, subgridSize);
+    }
+
+    /**
+     * O puzzle do id, sempre o mesmo (ver {@link PuzzleId}). Sem prazo: a
+     * geração por semente não pode ser interrompida sem mudar o resultado.
+     */
+    public SudokuBoard take(PuzzleId id) {
+        return call(generators, () -> cache != null ? cache.get(id) : id.generate());
+    }
+
+    /**
+     * Um puzzle digitado ou importado, em texto numa linha só (ver
+     * {@link SudokuBoard#loadPuzzle(byte[], int)}), com o tamanho dado pelo
+     * número de símbolos. Ele chega sem solução, e a solução vem de
+     * {@link #solve}: o mesmo puzzle, ou uma variante com os dígitos
+     * trocados, não é resolvido de novo quando há cache.
+     *
+     * @return null se as pistas não têm solução única
+     * @throws IllegalArgumentException se o texto não é um tabuleiro
+     */
+    public SudokuBoard load(String puzzle) {
+        SudokuBoard board = new SudokuBoard(subgridSizeOf(puzzle.length()));
+        if (!board.loadPuzzle(puzzle.getBytes(StandardCharsets.ISO_8859_1), 0)) {
+            throw new IllegalArgumentException("Símbolo inválido no puzzle");
+        }
+        return solve(board) ? board : null;
+    }
+
+    private static int subgridSizeOf(int symbols) {
+        for (int size = SudokuBoard.MIN_SUBGRID_SIZE; size <= SudokuBoard.MAX_SUBGRID_SIZE; size++) {
+            if (size * size * size * size == symbols) {
+                return size;
+            }
+        }
+        throw new IllegalArgumentException("Puzzle com " + symbols + " símbolos; esperado 16, 81, 256 ou 625");
+    }
+
+    /**
+     * Garante a solução armazenada de um tabuleiro, resolvendo as pistas se
+     * preciso (ver {@link PuzzleCache#solve}).
+     *
+     * @return false se as pistas não têm solução única
+     */
+    public boolean solve(SudokuBoard board) {
+        if (board.hasSolution()) {
+            return true;
+        }
+        return compute(() -> cache != null ? cache.solve(board) : board.solvePuzzle() == 1);
+    }
+
+    /**
+     * Executa um trabalho curto que usa os solvers e avaliadores guardados por
+     * thread em {@link SudokuBoard} (resolução, dica) nas threads de
+     * resolução, se houver, e espera o resultado; sem elas, na thread
+     * chamadora. Quem chama fica parado até o fim, então o trabalho pode usar
+     * os objetos dela.
+     */
+    public <T> T compute(Supplier<T> work) {
+        return call(solvers, work);
+    }
+
+    private static <T> T call(Executor executor, Supplier<T> work) {
+        if (executor == null) {
+            return work.get();
+        }
+        try {
+            return CompletableFuture.supplyAsync(work, executor).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
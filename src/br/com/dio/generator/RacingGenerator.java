@@ -0,0 +1,131 @@
+// ============= RacingGenerator.java =============
+package br.com.dio.generator;
+
+import br.com.dio.enums.DifficultyLevel;
+import br.com.dio.model.SudokuBoard;
+import br.com.dio.util.Deadline;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Geração com latência limitada: dispara várias tentativas com sementes
+ * diferentes, que dividem um mesmo prazo, e fica com a primeira a terminar no
+ * nível pedido; as demais são canceladas pelo prazo. Cada tentativa que
+ * termina fora do nível gera de novo enquanto houver prazo. Se ele expira antes,
+ * vale a melhor tentativa parcial (um puzzle válido, talvez fora do nível) e,
+ * se nenhuma chegou a preencher a solução, uma geração sem prazo.
+ *
+ * Meta: p99,9 de {@value #BASE_TIMEOUT_MILLIS} ms mais uma tentativa de
+ * remoção de pistas no 9x9, com o prazo proporcional ao número de células
+ * nos outros tamanhos. Pode ser usada por várias threads.
+ */
+public class RacingGenerator {
+    public static final long BASE_TIMEOUT_MILLIS = 40;
+    private static final int BASE_CELL_COUNT = 81;
+
+    private final Executor executor;
+    private final int racers;
+
+    /**
+     * @param executor threads onde as tentativas rodam, ou null para uma
+     *                 única tentativa na thread chamadora
+     * @param racers   tentativas simultâneas (ignorado sem executor)
+     */
+    public RacingGenerator(Executor executor, int racers) {
+        if (racers < 1) {
+            throw new IllegalArgumentException("O número de tentativas deve ser positivo: " + racers);
+        }
+        this.executor = executor;
+        this.racers = executor == null ? 1 : racers;
+    }
+
+    public int getRacers() {
+        return racers;
+    }
+
+    /**
+     * Prazo padrão para o tamanho, em ms.
+     */
+    public static long timeoutMillis(int subgridSize) {
+        int cellCount = subgridSize * subgridSize * subgridSize * subgridSize;
+        return Math.max(BASE_TIMEOUT_MILLIS, BASE_TIMEOUT_MILLIS * cellCount / BASE_CELL_COUNT);
+    }
+
+    public SudokuBoard generate(DifficultyLevel difficulty, int subgridSize) {
+        return generate(difficulty, subgridSize, timeoutMillis(subgridSize), TimeUnit.MILLISECONDS);
+    }
+
+    public SudokuBoard generate(DifficultyLevel difficulty, int subgridSize, long timeout, TimeUnit unit) {
+        if (subgridSize < SudokuBoard.MIN_SUBGRID_SIZE || subgridSize > SudokuBoard.MAX_SUBGRID_SIZE) {
+            throw new IllegalArgumentException("Tamanho de bloco não suportado: " + subgridSize);
+        }
+        Race race = new Race(difficulty, subgridSize, Deadline.after(timeout, unit), racers);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < racers; i++) {
+            long seed = random.nextLong();
+            if (executor == null) {
+                race.run(seed);
+            } else {
+                executor.execute(() -> race.run(seed));
+            }
+        }
+        return race.winner.join();
+    }
+
+    private static final class Race {
+        private final DifficultyLevel difficulty;
+        private final int subgridSize;
+        private final Deadline deadline;
+        private final AtomicInteger remaining;
+        private final AtomicReference<SudokuBoard> partial = new AtomicReference<>();
+        private final CompletableFuture<SudokuBoard> winner = new CompletableFuture<>();
+
+        Race(DifficultyLevel difficulty, int subgridSize, Deadline deadline, int racers) {
+            this.difficulty = difficulty;
+            this.subgridSize = subgridSize;
+            this.deadline = deadline;
+            this.remaining = new AtomicInteger(racers);
+        }
+
+        void run(long seed) {
+            try {
+                if (winner.isDone()) {
+                    return;
+                }
+                SplittableRandom random = new SplittableRandom(seed);
+                do {
+                    SudokuBoard board = new SudokuBoard(subgridSize);
+                    if (board.generateNewBoard(difficulty.getLevel(), random, deadline)) {
+                        if (winner.complete(board)) {
+                            // As demais tentativas param na próxima consulta ao prazo
+                            deadline.cancel();
+                        }
+                        break;
+                    }
+                    if (board.hasSolution()) {
+                        partial.compareAndSet(null, board);
+                    }
+                    // Fora do nível, mas ainda no prazo: outra geração
+                } while (!deadline.isExpired() && !winner.isDone());
+
+                if (remaining.decrementAndGet() == 0 && !winner.isDone()) {
+                    // Última a terminar, sem vencedora: parcial ou geração sem prazo
+                    SudokuBoard fallback = partial.get();
+                    if (fallback == null) {
+                        fallback = new SudokuBoard(subgridSize);
+                        fallback.generateNewBoard(difficulty.getLevel(), new SplittableRandom(seed));
+                    }
+                    winner.complete(fallback);
+                }
+            } catch (RuntimeException e) {
+                winner.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+// ============= SymmetryTransform.java =============
+package br.com.dio.generator;
+
+import br.com.dio.model.SudokuBoard;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Transformação que preserva as regras do Sudoku: transposição opcional,
+ * permutação das faixas e das linhas dentro de cada faixa, das colunas dentro
+ * de cada pilha e das pilhas, e troca dos dígitos. Um puzzle transformado tem
+ * a mesma dificuldade e a solução transformada do original, por isso serve
+ * para gerar variantes sem resolver nada.
+ */
+public final class SymmetryTransform {
+    private final int subgridSize;
+    private final int gridSize;
+    private final boolean transposed;
+    // Linha (coluna) de origem de cada linha (coluna) do resultado
+    private final int[] rows;
+    private final int[] cols;
+    // Dígito do resultado para cada dígito de origem (índice 0 = vazio)
+    private final int[] digits;
+
+    SymmetryTransform(int subgridSize, boolean transposed, int[] rows, int[] cols, int[] digits) {
+        this.subgridSize = subgridSize;
+        this.gridSize = subgridSize * subgridSize;
+        this.transposed = transposed;
+        this.rows = rows;
+        this.cols = cols;
+        this.digits = digits;
+    }
+
+    /**
+     * Sorteia uma transformação uniformemente entre todas as simetrias.
+     */
+    public static SymmetryTransform random(int subgridSize, RandomGenerator random) {
+        int gridSize = subgridSize * subgridSize;
+        int[] digits = new int[gridSize + 1];
+        for (int d = 1; d <= gridSize; d++) {
+            digits[d] = d;
+        }
+        shuffle(digits, 1, gridSize, random);
+        return new SymmetryTransform(subgridSize, random.nextBoolean(),
+                randomLines(subgridSize, random), randomLines(subgridSize, random), digits);
+    }
+
+    private static int[] randomLines(int subgridSize, RandomGenerator random) {
+        int[] groups = new int[subgridSize];
+        for (int i = 0; i < subgridSize; i++) {
+            groups[i] = i;
+        }
+        shuffle(groups, 0, subgridSize, random);
+
+        int[] lines = new int[subgridSize * subgridSize];
+        int[] inGroup = new int[subgridSize];
+        for (int g = 0; g < subgridSize; g++) {
+            for (int i = 0; i < subgridSize; i++) {
+                inGroup[i] = i;
+            }
+            shuffle(inGroup, 0, subgridSize, random);
+            for (int i = 0; i < subgridSize; i++) {
+                lines[g * subgridSize + i] = groups[g] * subgridSize + inGroup[i];
+            }
+        }
+        return lines;
+    }
+
+    private static void shuffle(int[] values, int from, int length, RandomGenerator random) {
+        for (int i = length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int temp = values[from + i];
+            values[from + i] = values[from + j];
+            values[from + j] = temp;
+        }
+    }
+
+    public int getSubgridSize() {
+        return subgridSize;
+    }
+
+    /**
+     * Aplica a transformação a uma grade (puzzle ou solução) em ordem de linhas.
+     * {@code source} e {@code target} devem ser arrays diferentes.
+     */
+    public void apply(int[] source, int[] target) {
+        if (source.length != gridSize * gridSize || target.length != source.length) {
+            throw new IllegalArgumentException("O tabuleiro deve ter " + gridSize * gridSize + " células");
+        }
+        for (int r = 0; r < gridSize; r++) {
+            int row = rows[r];
+            for (int c = 0; c < gridSize; c++) {
+                int col = cols[c];
+                int index = transposed ? col * gridSize + row : row * gridSize + col;
+                target[r * gridSize + c] = digits[source[index]];
+            }
+        }
+    }
+
+    /**
+     * Carrega em {@code target} o puzzle de {@code source} transformado, com a
+     * solução transformada junto.
+     */
+    public void apply(SudokuBoard source, SudokuBoard target) {
+        if (source.getSubgridSize() != subgridSize || target.getSubgridSize() != subgridSize) {
+            throw new IllegalArgumentException("Tamanho de tabuleiro diferente da transformação");
+        }
+        int[] grid = new int[gridSize * gridSize];
+        int[] puzzle = new int[grid.length];
+        source.copyPuzzle(grid);
+        apply(grid, puzzle);
+
+        int[] solution = null;
+        if (source.hasSolution()) {
+            solution = new int[grid.length];
+            source.copySolution(grid);
+            apply(grid, solution);
+        }
+        target.loadPuzzle(puzzle, solution);
+    }
+
+    /**
+     * Transformação que desfaz esta.
+     */
+    public SymmetryTransform inverse() {
+        int[] rowsInverse = invert(rows);
+        int[] colsInverse = invert(cols);
+        int[] digitsInverse = invert(digits);
+        // Com transposição, as linhas do resultado vêm das colunas da origem
+        return transposed
+                ? new SymmetryTransform(subgridSize, true, colsInverse, rowsInverse, digitsInverse)
+                : new SymmetryTransform(subgridSize, false, rowsInverse, colsInverse, digitsInverse);
+    }
+
+    private static int[] invert(int[] permutation) {
+        int[] inverse = new int[permutation.length];
+        for (int i = 0; i < permutation.length; i++) {
+            inverse[permutation[i]] = i;
+        }
+        return inverse;
+    }
+}
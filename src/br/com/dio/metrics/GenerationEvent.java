@@ -0,0 +1,50 @@
+// ============= GenerationEvent.java =============
+package br.com.dio.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de uma geração de tabuleiro. Fora de uma gravação (ou com o
+ * evento desligado nas configurações) nada é registrado.
+ *
+ * Exemplo: java -XX:StartFlightRecording=filename=sudoku.jfr ... e
+ * jfr print --events br.com.dio.Generation sudoku.jfr
+ */
+@Name("br.com.dio.Generation")
+@Label("Geração de Sudoku")
+@Category("Sudoku")
+@Description("Geração de um tabuleiro: preenchimento da solução e remoção de pistas")
+@StackTrace(false)
+public class GenerationEvent extends Event {
+    @Label("Dificuldade")
+    String difficulty;
+
+    @Label("Lado do bloco")
+    int subgridSize;
+
+    @Label("Tentativas de preenchimento")
+    @Description("Sementes diagonais sorteadas até uma ter solução")
+    int fillAttempts;
+
+    @Label("Nós no preenchimento")
+    long fillNodes;
+
+    @Label("Nós")
+    @Description("Nós da busca na geração inteira")
+    long nodes;
+
+    @Label("Retrocessos")
+    long backtracks;
+
+    @Label("Passos de propagação")
+    long propagations;
+
+    @Label("Interrompida")
+    @Description("O prazo expirou ou foi cancelado antes do fim da geração")
+    boolean timedOut;
+}
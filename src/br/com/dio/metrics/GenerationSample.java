@@ -0,0 +1,109 @@
+// ============= GenerationSample.java =============
+package br.com.dio.metrics;
+
+import br.com.dio.enums.DifficultyLevel;
+import br.com.dio.solver.SudokuSolver;
+
+/**
+ * Medição de uma geração em andamento: guarda os contadores dos solvers no
+ * início e, no fim, registra as diferenças em {@link SudokuMetrics} e num
+ * {@link GenerationEvent}. Só existe quando algum dos dois está ligado; os
+ * pontos de medição ficam no código de produção e, desligados, custam um
+ * teste.
+ *
+ * Uso na thread que gera:
+ * <pre>
+ * GenerationSample sample = GenerationSample.start(fill, count);
+ * ... preenchimento ...
+ * if (sample != null) sample.filled(tentativas);
+ * ... remoção de pistas ...
+ * if (sample != null) sample.finish(dificuldade, lado, interrompida); // em todas as saídas
+ * </pre>
+ */
+public final class GenerationSample {
+    private final SudokuSolver fill;
+    private final SudokuSolver count;
+    private final GenerationEvent event;
+    private final boolean collecting;
+    private final long startNanos;
+    private final long startNodes;
+    private final long startBacktracks;
+    private final long startPropagations;
+    private long fillNodes;
+    private int fillAttempts;
+
+    private GenerationSample(SudokuSolver fill, SudokuSolver count, GenerationEvent event, boolean collecting) {
+        this.fill = fill;
+        this.count = count == fill ? null : count;
+        this.event = event;
+        this.collecting = collecting;
+        this.startNodes = nodes();
+        this.startBacktracks = backtracks();
+        this.startPropagations = propagations();
+        event.begin();
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * @param fill  solver do preenchimento da solução
+     * @param count solver das verificações de unicidade (pode ser o mesmo)
+     * @return null se nem as métricas nem o evento JFR estão ligados
+     */
+    public static GenerationSample start(SudokuSolver fill, SudokuSolver count) {
+        GenerationEvent event = new GenerationEvent();
+        boolean collecting = SudokuMetrics.isCollecting();
+        if (!collecting && !event.isEnabled()) {
+            return null;
+        }
+        return new GenerationSample(fill, count, event, collecting);
+    }
+
+    /**
+     * Fim do preenchimento da solução.
+     *
+     * @param attempts sementes sorteadas até uma ter solução
+     */
+    public void filled(int attempts) {
+        fillAttempts = attempts;
+        fillNodes = nodes() - startNodes;
+    }
+
+    /**
+     * @param timedOut o prazo expirou (ou foi cancelado) antes do fim
+     */
+    public void finish(DifficultyLevel difficulty, int subgridSize, boolean timedOut) {
+        long nanos = System.nanoTime() - startNanos;
+        event.end();
+        long nodeCount = nodes() - startNodes;
+        long backtrackCount = backtracks() - startBacktracks;
+        long propagationCount = propagations() - startPropagations;
+
+        if (collecting) {
+            SudokuMetrics.get().recordGeneration(difficulty, nanos, fillAttempts,
+                    nodeCount, backtrackCount, propagationCount, timedOut);
+        }
+        if (event.shouldCommit()) {
+            event.difficulty = difficulty.name();
+            event.subgridSize = subgridSize;
+            event.fillAttempts = fillAttempts;
+            event.fillNodes = fillNodes;
+            event.nodes = nodeCount;
+            event.backtracks = backtrackCount;
+            event.propagations = propagationCount;
+            event.timedOut = timedOut;
+            event.commit();
+        }
+    }
+
+    private long nodes() {
+        return fill.getNodeCount() + (count != null ? count.getNodeCount() : 0);
+    }
+
+    private long backtracks() {
+        return fill.getBacktrackCount() + (count != null ? count.getBacktrackCount() : 0);
+    }
+
+    private long propagations() {
+        return fill.getPropagationCount() + (count != null ? count.getPropagationCount() : 0);
+    }
+}
@@ -0,0 +1,158 @@
+// ============= SudokuMetrics.java =============
+package br.com.dio.metrics;
+
+import br.com.dio.enums.DifficultyLevel;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas agregadas da geração de tabuleiros: contadores dos solvers e um
+ * histograma de latência por {@link DifficultyLevel}, expostos por JMX.
+ *
+ * Desligada por padrão; liga com -Dsudoku.metrics=true ou pelo atributo
+ * Enabled do MBean. Desligada, o custo por geração é a leitura de um campo
+ * volatile (os eventos JFR têm controle próprio, ver {@link GenerationEvent}).
+ */
+public final class SudokuMetrics implements SudokuMetricsMBean {
+    public static final String OBJECT_NAME = "br.com.dio:type=SudokuMetrics";
+    private static final String ENABLED_PROPERTY = "sudoku.metrics";
+
+    private static final SudokuMetrics INSTANCE = new SudokuMetrics();
+    private static volatile boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    private final LongAdder generations = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder fillAttempts = new LongAdder();
+    private final LongAdder nodes = new LongAdder();
+    private final LongAdder backtracks = new LongAdder();
+    private final LongAdder propagations = new LongAdder();
+    private final LatencyHistogram[] latencies = new LatencyHistogram[DifficultyLevel.values().length];
+
+    private SudokuMetrics() {
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+    }
+
+    public static SudokuMetrics get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Registra o MBean no servidor da plataforma; chamadas repetidas são
+     * ignoradas.
+     */
+    public static void register() {
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, name);
+            }
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+    }
+
+    static boolean isCollecting() {
+        return enabled;
+    }
+
+    void recordGeneration(DifficultyLevel difficulty, long nanos, int attempts,
+                          long nodeCount, long backtrackCount, long propagationCount, boolean timedOut) {
+        generations.increment();
+        if (timedOut) {
+            timeouts.increment();
+        }
+        fillAttempts.add(attempts);
+        nodes.add(nodeCount);
+        backtracks.add(backtrackCount);
+        propagations.add(propagationCount);
+        latencies[difficulty.ordinal()].record(nanos);
+    }
+
+    public LatencyHistogram getLatencies(DifficultyLevel difficulty) {
+        return latencies[difficulty.ordinal()];
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    @Override
+    public long getGenerationCount() {
+        return generations.sum();
+    }
+
+    @Override
+    public long getTimeoutCount() {
+        return timeouts.sum();
+    }
+
+    @Override
+    public long getFillAttempts() {
+        return fillAttempts.sum();
+    }
+
+    @Override
+    public long getSolverNodes() {
+        return nodes.sum();
+    }
+
+    @Override
+    public long getBacktracks() {
+        return backtracks.sum();
+    }
+
+    @Override
+    public long getPropagationSteps() {
+        return propagations.sum();
+    }
+
+    @Override
+    public String[] getLatencySummary() {
+        DifficultyLevel[] levels = DifficultyLevel.values();
+        String[] lines = new String[levels.length];
+        for (int i = 0; i < levels.length; i++) {
+            LatencyHistogram histogram = latencies[i];
+            lines[i] = String.format(Locale.ROOT, "%s: n=%d p50=%.2f p99=%.2f p99.9=%.2f máx=%.2f ms",
+                    levels[i].name(), histogram.getCount(),
+                    histogram.percentile(0.50) / 1e6, histogram.percentile(0.99) / 1e6,
+                    histogram.percentile(0.999) / 1e6, histogram.percentile(1.0) / 1e6);
+        }
+        return lines;
+    }
+
+    @Override
+    public double latencyPercentileMillis(String difficulty, double fraction) {
+        DifficultyLevel level;
+        try {
+            level = DifficultyLevel.valueOf(difficulty.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Dificuldade inválida: " + difficulty);
+        }
+        return latencies[level.ordinal()].percentile(fraction) / 1e6;
+    }
+
+    @Override
+    public void reset() {
+        generations.reset();
+        timeouts.reset();
+        fillAttempts.reset();
+        nodes.reset();
+        backtracks.reset();
+        propagations.reset();
+        for (LatencyHistogram histogram : latencies) {
+            histogram.reset();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+// ============= SudokuMetricsMBean.java =============
+package br.com.dio.metrics;
+
+/**
+ * Interface JMX de {@link SudokuMetrics}, registrada como
+ * {@value SudokuMetrics#OBJECT_NAME}.
+ */
+public interface SudokuMetricsMBean {
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    long getGenerationCount();
+
+    /**
+     * Gerações, já contadas em {@link #getGenerationCount()}, interrompidas
+     * pelo prazo ou canceladas por outra tentativa (ver RacingGenerator).
+     */
+    long getTimeoutCount();
+
+    long getFillAttempts();
+
+    long getSolverNodes();
+
+    long getBacktracks();
+
+    long getPropagationSteps();
+
+    /**
+     * Uma linha por dificuldade: amostras e percentis de latência em ms.
+     */
+    String[] getLatencySummary();
+
+    /**
+     * Percentil da latência de geração na dificuldade (EASY, MEDIUM, HARD), em ms.
+     */
+    double latencyPercentileMillis(String difficulty, double fraction);
+
+    void reset();
+}
@@ -0,0 +1,22 @@
+// ============= BoardListener.java =============
+package br.com.dio.model;
+
+/**
+ * Observador das alterações do tabuleiro de jogo de um {@link SudokuBoard}.
+ * Os avisos chegam na thread que alterou o tabuleiro, logo depois da
+ * alteração; quem os recebe não deve fazer trabalho pesado neles (ver
+ * {@link br.com.dio.view.BoardRepaintDispatcher}, que só marca as células).
+ * Uma alteração em bloco (reinício, solução, desfazer uma jogada em grupo,
+ * reprodução do histórico) gera um único aviso no fim.
+ */
+public interface BoardListener {
+    /**
+     * O valor exibido de uma célula mudou.
+     */
+    void cellChanged(int row, int col);
+
+    /**
+     * O tabuleiro inteiro pode ter mudado (novo puzzle, cópia, carga).
+     */
+    void boardChanged();
+}
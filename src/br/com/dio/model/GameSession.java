@@ -0,0 +1,172 @@
+// ============= GameSession.java =============
+package br.com.dio.model;
+
+import br.com.dio.enums.MoveResult;
+import br.com.dio.solver.Hint;
+import br.com.dio.util.GameTimer;
+
+/**
+ * Partida em andamento, sem nenhuma dependência de interface: tabuleiro,
+ * histórico de jogadas e tempo de jogo. É usada tanto pela interface Swing
+ * quanto pelo servidor de sessões. Não é thread-safe; cada sessão pertence a
+ * uma única thread (a EDT ou a thread virtual da conexão).
+ */
+public class GameSession {
+    private SudokuBoard board;
+    // Tempo de jogo da partida inteira; o histórico registra os instantes nele
+    private final GameTimer clock = new GameTimer();
+    private final MoveJournal journal = new MoveJournal(clock);
+    // Tempo de jogo no último reinício, descontado do tempo exibido
+    private long restartMillis;
+    private boolean over;
+
+    public GameSession(SudokuBoard board) {
+        start(board);
+    }
+
+    /**
+     * Começa uma partida nova com o puzzle do tabuleiro.
+     */
+    public void start(SudokuBoard newBoard) {
+        board = newBoard;
+        clock.start();
+        journal.reset(board);
+        restartMillis = 0;
+        over = false;
+    }
+
+    public SudokuBoard getBoard() {
+        return board;
+    }
+
+    public MoveJournal getJournal() {
+        return journal;
+    }
+
+    public boolean isOver() {
+        return over;
+    }
+
+    public boolean isComplete() {
+        return board.isComplete();
+    }
+
+    /**
+     * Tempo de jogo em ms desde o início ou o último reinício, sem as pausas
+     * e congelado no fim da partida.
+     */
+    public long getElapsedMillis() {
+        return clock.getElapsedMillis() - restartMillis;
+    }
+
+    /**
+     * Para de contar o tempo, por exemplo enquanto um diálogo está aberto.
+     */
+    public void pause() {
+        clock.pause();
+    }
+
+    /**
+     * Volta a contar o tempo, a menos que a partida tenha terminado.
+     */
+    public void resume() {
+        if (!over) {
+            clock.resume();
+        }
+    }
+
+    public boolean isPaused() {
+        return clock.isPaused();
+    }
+
+    /**
+     * Coloca um valor (0 para apagar) numa célula editável.
+     */
+    public MoveResult setCell(int row, int col, int value) {
+        int size = board.getGridSize();
+        if (row < 0 || row >= size || col < 0 || col >= size || value < 0 || value > size) {
+            throw new IllegalArgumentException("Jogada fora do tabuleiro: " + row + " " + col + " " + value);
+        }
+        if (over) {
+            return MoveResult.GAME_OVER;
+        }
+        if (board.isOriginal(row, col)) {
+            return MoveResult.ORIGINAL_CELL;
+        }
+        if (!journal.play(board, row, col, value)) {
+            return MoveResult.UNCHANGED;
+        }
+        return finishIfComplete() ? MoveResult.SOLVED : MoveResult.ACCEPTED;
+    }
+
+    /**
+     * Número de erros: células diferentes da solução ou, sem solução
+     * conhecida, repetições nas unidades.
+     */
+    public int check() {
+        return board.countErrors();
+    }
+
+    /**
+     * Próximo passo lógico (ver {@link SudokuBoard#hint()}); não altera o
+     * tabuleiro.
+     *
+     * @return null se a partida terminou ou não há dica
+     */
+    public Hint hint() {
+        return over ? null : board.hint();
+    }
+
+    /**
+     * Preenche a solução, encerrando a partida.
+     *
+     * @return false se a solução não é conhecida
+     */
+    public boolean solve() {
+        if (!board.hasSolution()) {
+            return false;
+        }
+        int[] solution = new int[board.getCellCount()];
+        board.copySolution(solution);
+        journal.playAll(board, solution);
+        end();
+        return true;
+    }
+
+    /**
+     * Esvazia as células editáveis e zera o tempo; pode ser desfeito.
+     */
+    public void restart() {
+        journal.restart(board);
+        over = false;
+        clock.resume();
+        restartMillis = clock.getElapsedMillis();
+    }
+
+    public boolean undo() {
+        return !over && journal.undo(board);
+    }
+
+    public boolean redo() {
+        if (over || !journal.redo(board)) {
+            return false;
+        }
+        finishIfComplete();
+        return true;
+    }
+
+    private boolean finishIfComplete() {
+        if (board.isComplete()) {
+            end();
+            return true;
+        }
+        return false;
+    }
+
+    private void end() {
+        if (!over) {
+            clock.pause();
+            over = true;
+        }
+    }
+}
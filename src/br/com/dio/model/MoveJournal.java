@@ -0,0 +1,307 @@
+// ============= MoveJournal.java =============
+package br.com.dio.model;
+
+import br.com.dio.util.GameTimer;
+
+import java.util.Arrays;
+
+/**
+ * Histórico de jogadas de uma partida, só de acréscimo.
+ *
+ * Cada alteração de célula ocupa um char: índice da célula (10 bits), o XOR
+ * entre o valor antigo e o novo (5 bits) e um bit que a liga à anterior,
+ * formando um grupo desfeito de uma vez (reiniciar, ver solução). Como o XOR
+ * é o seu próprio inverso, desfazer e refazer apenas acrescentam de novo as
+ * entradas do grupo: o histórico guarda a sessão inteira, inclusive os
+ * desfazer, e pode ser reproduzido do início. O instante de cada entrada fica
+ * num int[] paralelo (ms de jogo desde o início, lidos de um
+ * {@link GameTimer}, sem as pausas) e, a cada {@value #SNAPSHOT_INTERVAL}
+ * entradas, uma cópia do tabuleiro limita o custo de ir a qualquer ponto.
+ *
+ * Os arrays crescem por duplicação; registrar uma jogada não aloca nada.
+ */
+public class MoveJournal {
+    public static final int SNAPSHOT_INTERVAL = 128;
+
+    private static final int CELL_MASK = (1 << 10) - 1;
+    private static final int DELTA_SHIFT = 10;
+    private static final int DELTA_MASK = 0x1F;
+    private static final char LINKED = 0x8000;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private char[] moves = new char[INITIAL_CAPACITY];
+    private int[] times = new int[INITIAL_CAPACITY];
+    private int size;
+
+    // Início (posição no histórico) dos grupos que podem ser desfeitos e refeitos
+    private int[] undoStack = new int[INITIAL_CAPACITY];
+    private int undoCount;
+    private int[] redoStack = new int[INITIAL_CAPACITY];
+    private int redoCount;
+
+    // Valores do tabuleiro de jogo a cada SNAPSHOT_INTERVAL entradas
+    private byte[] snapshots = new byte[0];
+    private int snapshotCount;
+    private int gridSize;
+    private int cellCount;
+
+    private final GameTimer clock;
+    // Tempo do cronômetro no início do histórico
+    private long startMillis;
+
+    /**
+     * Histórico com cronômetro próprio, que corre desde a criação.
+     */
+    public MoveJournal() {
+        this(new GameTimer());
+        clock.start();
+    }
+
+    /**
+     * Histórico que registra os instantes no cronômetro da partida.
+     */
+    public MoveJournal(GameTimer clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Começa um histórico novo a partir do estado atual do tabuleiro.
+     */
+    public void reset(SudokuBoard board) {
+        gridSize = board.getGridSize();
+        cellCount = board.getCellCount();
+        size = 0;
+        undoCount = 0;
+        redoCount = 0;
+        snapshotCount = 0;
+        startMillis = clock.getElapsedMillis();
+        takeSnapshot(board);
+    }
+
+    /**
+     * Altera uma célula e registra a jogada.
+     *
+     * @return false se a célula é original ou já tinha o valor
+     */
+    public boolean play(SudokuBoard board, int row, int col, int value) {
+        int old = board.getPlayBoard(row, col);
+        if (board.isOriginal(row, col) || old == value) {
+            return false;
+        }
+        int start = size;
+        append(board, row * gridSize + col, old ^ value, false);
+        undoStack = push(undoStack, undoCount++, start);
+        redoCount = 0;
+        return true;
+    }
+
+    /**
+     * Leva as células editáveis aos valores dados (em ordem de linhas) como
+     * uma única jogada, desfeita de uma vez.
+     *
+     * @return false se nada mudou
+     */
+    public boolean playAll(SudokuBoard board, int[] values) {
+        int start = size;
+        board.beginChanges();
+        try {
+            for (int index = 0; index < cellCount; index++) {
+                int row = index / gridSize;
+                int col = index % gridSize;
+                int old = board.getPlayBoard(row, col);
+                if (!board.isOriginal(row, col) && old != values[index]) {
+                    append(board, index, old ^ values[index], size > start);
+                }
+            }
+        } finally {
+            board.endChanges();
+        }
+        if (size == start) {
+            return false;
+        }
+        undoStack = push(undoStack, undoCount++, start);
+        redoCount = 0;
+        return true;
+    }
+
+    /**
+     * Esvazia as células editáveis, como uma jogada que pode ser desfeita.
+     */
+    public boolean restart(SudokuBoard board) {
+        return playAll(board, new int[cellCount]);
+    }
+
+    public boolean canUndo() {
+        return undoCount > 0;
+    }
+
+    public boolean canRedo() {
+        return redoCount > 0;
+    }
+
+    /**
+     * Desfaz a última jogada. O(tamanho da jogada), O(1) para uma célula.
+     */
+    public boolean undo(SudokuBoard board) {
+        if (undoCount == 0) {
+            return false;
+        }
+        int start = undoStack[--undoCount];
+        appendGroup(board, start);
+        redoStack = push(redoStack, redoCount++, start);
+        return true;
+    }
+
+    public boolean redo(SudokuBoard board) {
+        if (redoCount == 0) {
+            return false;
+        }
+        int start = redoStack[--redoCount];
+        appendGroup(board, start);
+        undoStack = push(undoStack, undoCount++, start);
+        return true;
+    }
+
+    /**
+     * Número de entradas do histórico.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Instante da entrada, em ms desde o início do histórico.
+     */
+    public int getTime(int position) {
+        checkPosition(position, size - 1);
+        return times[position];
+    }
+
+    /**
+     * Tempo de jogo gasto na entrada: ms desde a anterior (ou desde o início,
+     * na primeira).
+     */
+    public int getSplit(int position) {
+        checkPosition(position, size - 1);
+        return position == 0 ? times[0] : times[position] - times[position - 1];
+    }
+
+    /**
+     * Quantas entradas foram registradas até o instante dado (ms desde o
+     * início), para reproduzir a partida em qualquer velocidade.
+     */
+    public int positionAt(long millis) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (times[middle] <= millis) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Leva o tabuleiro ao estado após as primeiras {@code position} entradas,
+     * partindo da cópia mais próxima: no máximo {@value #SNAPSHOT_INTERVAL}
+     * entradas são reaplicadas. O histórico não muda.
+     */
+    public void seek(SudokuBoard board, int position) {
+        checkPosition(position, size);
+        int snapshot = position / SNAPSHOT_INTERVAL;
+        int offset = snapshot * cellCount;
+        board.beginChanges();
+        try {
+            for (int index = 0; index < cellCount; index++) {
+                int row = index / gridSize;
+                int col = index % gridSize;
+                if (!board.isOriginal(row, col)) {
+                    board.setPlayBoard(row, col, snapshots[offset + index]);
+                }
+            }
+            advance(board, snapshot * SNAPSHOT_INTERVAL, position);
+        } finally {
+            board.endChanges();
+        }
+    }
+
+    /**
+     * Reaplica as entradas {@code from} (inclusive) a {@code to} (exclusive) a
+     * um tabuleiro que está no estado da posição {@code from}.
+     */
+    public void advance(SudokuBoard board, int from, int to) {
+        checkPosition(from, size);
+        checkPosition(to, size);
+        board.beginChanges();
+        try {
+            for (int position = from; position < to; position++) {
+                applyEntry(board, moves[position]);
+            }
+        } finally {
+            board.endChanges();
+        }
+    }
+
+    private void appendGroup(SudokuBoard board, int start) {
+        int position = start;
+        board.beginChanges();
+        try {
+            do {
+                char move = moves[position++];
+                append(board, move & CELL_MASK, (move >>> DELTA_SHIFT) & DELTA_MASK, position - 1 > start);
+            } while (position < size && (moves[position] & LINKED) != 0);
+        } finally {
+            board.endChanges();
+        }
+    }
+
+    private void append(SudokuBoard board, int index, int delta, boolean linked) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+            times = Arrays.copyOf(times, size * 2);
+        }
+        char move = (char) (index | delta << DELTA_SHIFT | (linked ? LINKED : 0));
+        applyEntry(board, move);
+        moves[size] = move;
+        times[size] = (int) (clock.getElapsedMillis() - startMillis);
+        size++;
+        if (size % SNAPSHOT_INTERVAL == 0) {
+            takeSnapshot(board);
+        }
+    }
+
+    private void applyEntry(SudokuBoard board, char move) {
+        int index = move & CELL_MASK;
+        int row = index / gridSize;
+        int col = index % gridSize;
+        board.setPlayBoard(row, col, board.getPlayBoard(row, col) ^ ((move >>> DELTA_SHIFT) & DELTA_MASK));
+    }
+
+    private void takeSnapshot(SudokuBoard board) {
+        int offset = snapshotCount * cellCount;
+        if (offset + cellCount > snapshots.length) {
+            snapshots = Arrays.copyOf(snapshots, Math.max(offset + cellCount, snapshots.length * 2));
+        }
+        for (int index = 0; index < cellCount; index++) {
+            snapshots[offset + index] = (byte) board.getPlayBoard(index / gridSize, index % gridSize);
+        }
+        snapshotCount++;
+    }
+
+    private static int[] push(int[] stack, int count, int value) {
+        if (count == stack.length) {
+            stack = Arrays.copyOf(stack, count * 2);
+        }
+        stack[count] = value;
+        return stack;
+    }
+
+    private static void checkPosition(int position, int max) {
+        if (position < 0 || position > max) {
+            throw new IndexOutOfBoundsException("Posição " + position + " fora do intervalo 0.." + max);
+        }
+    }
+}
@@ -0,0 +1,279 @@
+// ============= SharedBoard.java =============
+package br.com.dio.model;
+
+import br.com.dio.enums.MoveResult;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tabuleiro de jogo compartilhado por vários jogadores (modo cooperativo),
+ * sem travas. Cada célula é um carimbo de 64 bits num {@link AtomicLongArray}:
+ * o valor nos 8 bits baixos e, acima, uma versão que cresce a cada escrita.
+ * Jogadas são trocas por CAS, e {@link #compareAndSet} só escreve se a
+ * célula ainda está na versão que o jogador viu, o que resolve conflitos
+ * entre jogadas simultâneas na mesma célula.
+ *
+ * Cada carimbo ocupa sua própria linha de cache, para que escritores em
+ * células diferentes não disputem a mesma linha. Puzzle, solução e células
+ * originais vêm de um {@link SudokuBoard} e não mudam depois.
+ */
+public class SharedBoard {
+    // Longs por célula: 8 x 8 bytes = uma linha de cache de 64 bytes
+    private static final int CELL_STRIDE = 8;
+    private static final int VALUE_BITS = 8;
+    private static final long VALUE_MASK = (1L << VALUE_BITS) - 1;
+    // Tentativas de leitura dupla antes de {@link #snapshot} desistir de uma
+    // cópia atômica; com escritas contínuas as duas leituras podem nunca bater
+    private static final int MAX_COLLECTS = 8;
+
+    private final int subgridSize;
+    private final int gridSize;
+    private final int cellCount;
+    private final int[] solution;
+    private final boolean[] original;
+    private final AtomicLongArray stamps;
+    // Células vazias ou diferentes da solução (só vazias, sem solução); um
+    // LongAdder espalha as atualizações em vez de concentrá-las num contador
+    private final LongAdder remaining = new LongAdder();
+    private final AtomicBoolean solved = new AtomicBoolean();
+
+    /**
+     * Começa com o tabuleiro de jogo atual de {@code board}.
+     */
+    public SharedBoard(SudokuBoard board) {
+        subgridSize = board.getSubgridSize();
+        gridSize = board.getGridSize();
+        cellCount = board.getCellCount();
+        original = new boolean[cellCount];
+        stamps = new AtomicLongArray(cellCount * CELL_STRIDE);
+        if (board.hasSolution()) {
+            solution = new int[cellCount];
+            board.copySolution(solution);
+        } else {
+            solution = null;
+        }
+
+        int wrong = 0;
+        for (int i = 0; i < cellCount; i++) {
+            int value = board.getPlayBoard(i / gridSize, i % gridSize);
+            original[i] = board.isOriginal(i / gridSize, i % gridSize);
+            stamps.set(i * CELL_STRIDE, value);
+            if (!isCorrect(i, value)) {
+                wrong++;
+            }
+        }
+        remaining.add(wrong);
+    }
+
+    public int getSubgridSize() {
+        return subgridSize;
+    }
+
+    public int getGridSize() {
+        return gridSize;
+    }
+
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    public boolean isOriginal(int row, int col) {
+        return original[index(row, col)];
+    }
+
+    public boolean isSolved() {
+        return solved.get();
+    }
+
+    /**
+     * Carimbo atual da célula; ver {@link #valueOf} e {@link #versionOf}.
+     */
+    public long getStamp(int row, int col) {
+        return stamps.get(index(row, col) * CELL_STRIDE);
+    }
+
+    public int getValue(int row, int col) {
+        return valueOf(getStamp(row, col));
+    }
+
+    public static int valueOf(long stamp) {
+        return (int) (stamp & VALUE_MASK);
+    }
+
+    public static long versionOf(long stamp) {
+        return stamp >>> VALUE_BITS;
+    }
+
+    /**
+     * Coloca um valor (0 para apagar) numa célula editável, valendo a última
+     * escrita. Devolve SOLVED para exatamente um dos jogadores quando o
+     * tabuleiro fica completo: o último a atualizar a contagem de células
+     * erradas, que nem sempre é o autor da última escrita.
+     */
+    public MoveResult set(int row, int col, int value) {
+        int index = checkMove(row, col, value);
+        if (solved.get()) {
+            return MoveResult.GAME_OVER;
+        }
+        if (original[index]) {
+            return MoveResult.ORIGINAL_CELL;
+        }
+        int offset = index * CELL_STRIDE;
+        while (true) {
+            long stamp = stamps.get(offset);
+            if (valueOf(stamp) == value) {
+                return MoveResult.UNCHANGED;
+            }
+            if (stamps.compareAndSet(offset, stamp, next(stamp, value))) {
+                return afterWrite(index, valueOf(stamp), value);
+            }
+        }
+    }
+
+    /**
+     * Escreve só se a célula ainda tem o carimbo {@code expectedStamp}, lido
+     * antes pelo jogador; se outro jogador escreveu nela depois, nada muda e
+     * o jogador deve reler a célula e decidir de novo.
+     *
+     * @return false se o carimbo mudou, a célula é original ou a partida acabou
+     */
+    public boolean compareAndSet(int row, int col, long expectedStamp, int value) {
+        int index = checkMove(row, col, value);
+        if (original[index] || solved.get()) {
+            return false;
+        }
+        if (!stamps.compareAndSet(index * CELL_STRIDE, expectedStamp, next(expectedStamp, value))) {
+            return false;
+        }
+        afterWrite(index, valueOf(expectedStamp), value);
+        return true;
+    }
+
+    /**
+     * Cópia do tabuleiro sem travas, por leitura dupla: lê todos os carimbos
+     * duas vezes e, se nenhum mudou, o tabuleiro esteve exatamente assim
+     * entre as duas leituras (as versões só crescem). Sob escritas contínuas,
+     * depois de {@value #MAX_COLLECTS} tentativas devolve a última leitura,
+     * em que cada célula está correta mas o conjunto pode não ter existido
+     * num mesmo instante ({@link Snapshot#isAtomic()} é false).
+     */
+    public Snapshot snapshot() {
+        long[] previous = new long[cellCount];
+        long[] current = new long[cellCount];
+        collect(previous);
+        for (int attempt = 0; attempt < MAX_COLLECTS; attempt++) {
+            collect(current);
+            if (Arrays.equals(previous, current)) {
+                return new Snapshot(gridSize, current, true);
+            }
+            long[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return new Snapshot(gridSize, previous, false);
+    }
+
+    private void collect(long[] target) {
+        for (int i = 0; i < cellCount; i++) {
+            target[i] = stamps.get(i * CELL_STRIDE);
+        }
+    }
+
+    private MoveResult afterWrite(int index, int oldValue, int newValue) {
+        boolean wasCorrect = isCorrect(index, oldValue);
+        boolean nowCorrect = isCorrect(index, newValue);
+        if (wasCorrect && !nowCorrect) {
+            remaining.increment();
+        } else if (!wasCorrect && nowCorrect) {
+            remaining.decrement();
+        }
+        // A soma só chega a zero com o tabuleiro certo, mas pode passar por
+        // zero no meio de escritas concorrentes; a cópia confirma. A conferência
+        // vale para qualquer escrita, mesmo de um valor errado: a última
+        // atualização da soma pode vir de uma escrita errada já desfeita por
+        // outro jogador, e só quem a faz vê a soma zerada depois dela. Sem
+        // solução, trocar um valor por outro pode desfazer o último conflito
+        if (remaining.sum() == 0 && !solved.get() && isComplete(snapshot()) && solved.compareAndSet(false, true)) {
+            return MoveResult.SOLVED;
+        }
+        return MoveResult.ACCEPTED;
+    }
+
+    private boolean isComplete(Snapshot snapshot) {
+        if (!snapshot.isAtomic()) {
+            return false;
+        }
+        int[] values = new int[cellCount];
+        for (int i = 0; i < cellCount; i++) {
+            values[i] = snapshot.getValue(i / gridSize, i % gridSize);
+            if (!isCorrect(i, values[i])) {
+                return false;
+            }
+        }
+        if (solution != null) {
+            return true;
+        }
+        SudokuBoard check = new SudokuBoard(subgridSize);
+        check.loadPuzzle(values, null);
+        return check.countConflicts() == 0;
+    }
+
+    /**
+     * Certa quando igual à solução; sem solução, quando preenchida (os
+     * conflitos são verificados ao completar).
+     */
+    private boolean isCorrect(int index, int value) {
+        return solution != null ? value == solution[index] : value != 0;
+    }
+
+    private int checkMove(int row, int col, int value) {
+        if (row < 0 || row >= gridSize || col < 0 || col >= gridSize || value < 0 || value > gridSize) {
+            throw new IllegalArgumentException("Jogada fora do tabuleiro: " + row + " " + col + " " + value);
+        }
+        return row * gridSize + col;
+    }
+
+    private int index(int row, int col) {
+        if (row < 0 || row >= gridSize || col < 0 || col >= gridSize) {
+            throw new IllegalArgumentException("Célula fora do tabuleiro: " + row + " " + col);
+        }
+        return row * gridSize + col;
+    }
+
+    private static long next(long stamp, int value) {
+        return ((versionOf(stamp) + 1) << VALUE_BITS) | value;
+    }
+
+    /**
+     * Cópia imutável dos carimbos de todas as células.
+     */
+    public static final class Snapshot {
+        private final int gridSize;
+        private final long[] stamps;
+        private final boolean atomic;
+
+        Snapshot(int gridSize, long[] stamps, boolean atomic) {
+            this.gridSize = gridSize;
+            this.stamps = stamps;
+            this.atomic = atomic;
+        }
+
+        /**
+         * Indica se todas as células foram lidas num mesmo instante.
+         */
+        public boolean isAtomic() {
+            return atomic;
+        }
+
+        public int getValue(int row, int col) {
+            return valueOf(stamps[row * gridSize + col]);
+        }
+
+        public long getVersion(int row, int col) {
+            return versionOf(stamps[row * gridSize + col]);
+        }
+    }
+}
@@ -1,248 +1,1029 @@
 // ============= SudokuBoard.java =============
 package br.com.dio.model;
 
+import br.com.dio.enums.DifficultyLevel;
+import br.com.dio.enums.Technique;
+import br.com.dio.metrics.GenerationSample;
+import br.com.dio.solver.Hint;
+import br.com.dio.solver.LogicalGrader;
+import br.com.dio.solver.SolverBackend;
+import br.com.dio.solver.SudokuSolver;
+import br.com.dio.util.CellSymbols;
+import br.com.dio.util.Deadline;
+import br.com.dio.util.SplitMix64;
+
+import java.util.Arrays;
 import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * Classe responsável pela lógica do tabuleiro de Sudoku
  */
 public class SudokuBoard {
-    private static final int GRID_SIZE = 9;
-    private static final int SUBGRID_SIZE = 3;
+    public static final int MIN_SUBGRID_SIZE = 2;
+    public static final int MAX_SUBGRID_SIZE = 5;
+    private static final int DEFAULT_SUBGRID_SIZE = 3;
+    private static final int MAX_CARVING_ATTEMPTS = 4;
+    // No 9x9 a dificuldade é dada pela nota do avaliador lógico, e não pelo
+    // número de buracos; cada tentativa que não atinge o nível é descartada
+    private static final int GRADED_GRID_SIZE = 9;
+    private static final int MAX_GRADED_ATTEMPTS = 24;
+    // Limite de nós por verificação de unicidade em tabuleiros maiores que 9x9
+    private static final long LARGE_BOARD_NODE_BUDGET = 200;
+    // Limite de nós por tentativa de preencher a solução, por célula. Algumas
+    // sementes diagonais levam o DLX a centenas de milhares de nós no 16x16;
+    // passar do limite troca a semente em vez de insistir
+    private static final long FILL_NODES_PER_CELL = 20;
+    // Técnica mais difícil tentada nas dicas acima de 9x9: as cadeias XY
+    // passam de 1 ms em 16x16, e sem dedução a dica revela uma célula
+    private static final Technique LARGE_HINT_LIMIT = Technique.XY_WING;
+    // Gerações seguidas, com a mesma sequência da semente, até um puzzle no
+    // nível pedido; na prática a primeira já basta
+    private static final int MAX_SEEDED_GENERATIONS = 8;
+    // Motores fixos da geração por semente: os puzzles de uma semente não
+    // podem depender de -Dsudoku.solver.*
+    private static final SolverBackend SEEDED_FILL_BACKEND = SolverBackend.DLX;
+    private static final SolverBackend SEEDED_COUNT_BACKEND = SolverBackend.BITMASK;
+
+    // Um layout compartilhado por tamanho de tabuleiro (índice = lado do bloco)
+    private static final Layout[] LAYOUTS = new Layout[MAX_SUBGRID_SIZE + 1];
+
+    static {
+        for (int size = MIN_SUBGRID_SIZE; size <= MAX_SUBGRID_SIZE; size++) {
+            LAYOUTS[size] = new Layout(size);
+        }
+    }
+
+    // O solver mantém estado interno de busca, por isso uma instância por
+    // thread, por motor e por tamanho de tabuleiro
+    private static final ThreadLocal<SudokuSolver[][]> SOLVERS = ThreadLocal.withInitial(
+            () -> new SudokuSolver[SolverBackend.values().length][MAX_SUBGRID_SIZE + 1]);
+
+    private static final ThreadLocal<LogicalGrader[]> GRADERS =
+            ThreadLocal.withInitial(() -> new LogicalGrader[MAX_SUBGRID_SIZE + 1]);
 
-    private int[][] solution;
-    private int[][] playBoard;
-    private boolean[][] isOriginal;
+    // Rascunho de solvePuzzle por tamanho: importações em massa não alocam por puzzle
+    private static final ThreadLocal<int[][]> SCRATCH =
+            ThreadLocal.withInitial(() -> new int[MAX_SUBGRID_SIZE + 1][]);
+
+    // Motores usados para preencher a solução e para verificar a unicidade ao
+    // remover pistas; configuráveis por -Dsudoku.solver.fill e -Dsudoku.solver.count.
+    // Dancing Links preenche grades vazias mais rápido e sem a cauda longa da
+    // busca por máscaras em 25x25; as máscaras verificam unicidade mais rápido
+    private static volatile SolverBackend fillBackend =
+            SolverBackend.fromName(System.getProperty("sudoku.solver.fill"), SolverBackend.DLX);
+    private static volatile SolverBackend countBackend =
+            SolverBackend.fromName(System.getProperty("sudoku.solver.count"), SolverBackend.BITMASK);
+
+    private static final BoardListener[] NO_LISTENERS = new BoardListener[0];
+
+    private final Layout layout;
+    private final long[] cells;
+    // Copiado a cada inclusão ou remoção: os avisos percorrem o array sem travas
+    private BoardListener[] listeners = NO_LISTENERS;
+    // Alterações em bloco em andamento (ver beginChanges): os avisos ficam
+    // retidos e viram um só no fim
+    private int batchDepth;
+    private int batchCells;
+    private int batchLastIndex;
+    private boolean batchBoard;
+
+    // Contadores mantidos a cada alteração do tabuleiro de jogo
+    private int filledCount;
+    private int wrongCount;
+
+    // Ocorrências de cada dígito por unidade (linhas, colunas e blocos) e,
+    // por unidade, a máscara dos dígitos presentes (bit d para o dígito d);
+    // alocadas só na primeira consulta de conflitos ou de candidatos
+    private byte[] unitCounts;
+    private int[] unitMasks;
+    private int conflictCount;
 
     public SudokuBoard() {
-        solution = new int[GRID_SIZE][GRID_SIZE];
-        playBoard = new int[GRID_SIZE][GRID_SIZE];
-        isOriginal = new boolean[GRID_SIZE][GRID_SIZE];
+        this(DEFAULT_SUBGRID_SIZE);
+    }
+
+    /**
+     * @param subgridSize lado do bloco: 2 (4x4), 3 (9x9), 4 (16x16) ou 5 (25x25)
+     */
+    public SudokuBoard(int subgridSize) {
+        if (subgridSize < MIN_SUBGRID_SIZE || subgridSize > MAX_SUBGRID_SIZE) {
+            throw new IllegalArgumentException("Tamanho de bloco não suportado: " + subgridSize);
+        }
+        layout = LAYOUTS[subgridSize];
+        cells = new long[layout.packedWords];
+    }
+
+    /**
+     * Passa a avisar {@code listener} das alterações do tabuleiro de jogo.
+     */
+    public void addListener(BoardListener listener) {
+        BoardListener[] updated = Arrays.copyOf(listeners, listeners.length + 1);
+        updated[listeners.length] = listener;
+        listeners = updated;
+    }
+
+    public void removeListener(BoardListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                BoardListener[] updated = new BoardListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, updated, 0, i);
+                System.arraycopy(listeners, i + 1, updated, i, listeners.length - i - 1);
+                listeners = updated;
+                return;
+            }
+        }
     }
 
     public int getGridSize() {
-        return GRID_SIZE;
+        return layout.gridSize;
     }
 
     public int getSubgridSize() {
-        return SUBGRID_SIZE;
+        return layout.subgridSize;
+    }
+
+    public int getCellCount() {
+        return layout.cellCount;
     }
 
     public int getSolution(int row, int col) {
-        return solution[row][col];
+        return readValue(layout.solutionOffset, row * layout.gridSize + col);
     }
 
     public int getPlayBoard(int row, int col) {
-        return playBoard[row][col];
+        return readValue(layout.playOffset, row * layout.gridSize + col);
     }
 
     public boolean isOriginal(int row, int col) {
-        return isOriginal[row][col];
+        return isOriginalCell(row * layout.gridSize + col);
     }
 
+    /**
+     * @throws IllegalArgumentException se a célula está fora do tabuleiro ou o
+     *         valor fora de 0..lado: no tabuleiro compactado ele invadiria a célula vizinha
+     */
     public void setPlayBoard(int row, int col, int value) {
-        if (!isOriginal[row][col]) {
-            playBoard[row][col] = value;
+        int gridSize = layout.gridSize;
+        if (row < 0 || row >= gridSize || col < 0 || col >= gridSize || value < 0 || value > gridSize) {
+            throw new IllegalArgumentException("Jogada fora do tabuleiro: " + row + " " + col + " " + value);
+        }
+        int index = row * gridSize + col;
+        if (!isOriginalCell(index)) {
+            updateCell(index, value);
         }
     }
 
-    public void generateNewBoard(int difficulty) {
-        // Limpa o tabuleiro
-        clearBoard();
+    /**
+     * Copia solução, tabuleiro de jogo e células originais de outro tabuleiro.
+     */
+    public void copyFrom(SudokuBoard other) {
+        if (other.layout != layout) {
+            throw new IllegalArgumentException("Tabuleiros de tamanhos diferentes");
+        }
+        System.arraycopy(other.cells, 0, cells, 0, layout.packedWords);
+        recount();
+    }
+
+    /**
+     * Número de longs da representação compacta (solução, tabuleiro de jogo
+     * e células originais) de um tabuleiro com blocos de lado {@code subgridSize}.
+     */
+    public static int packedLength(int subgridSize) {
+        if (subgridSize < MIN_SUBGRID_SIZE || subgridSize > MAX_SUBGRID_SIZE) {
+            throw new IllegalArgumentException("Tamanho de bloco não suportado: " + subgridSize);
+        }
+        return LAYOUTS[subgridSize].packedWords;
+    }
 
-        // Gera nova solução
-        fillDiagonalBlocks();
-        solveSudoku(0, 0);
+    /**
+     * Copia a representação compacta para {@code target} a partir de
+     * {@code offset}; {@link #packedLength} longs.
+     */
+    public void copyPacked(long[] target, int offset) {
+        System.arraycopy(cells, 0, target, offset, layout.packedWords);
+    }
+
+    /**
+     * Restaura um tabuleiro copiado por {@link #copyPacked} de outro do mesmo
+     * tamanho.
+     */
+    public void loadPacked(long[] source, int offset) {
+        System.arraycopy(source, offset, cells, 0, layout.packedWords);
+        recount();
+    }
+
+    /**
+     * Guarda a solução de um puzzle sem solução conhecida (importado ou
+     * digitado), sem mexer no tabuleiro de jogo.
+     */
+    public void setSolution(int[] solution) {
+        if (solution.length != layout.cellCount) {
+            throw new IllegalArgumentException("A solução deve ter " + layout.cellCount + " células");
+        }
+        for (int i = 0; i < layout.cellCount; i++) {
+            if (solution[i] < 1 || solution[i] > layout.gridSize) {
+                throw new IllegalArgumentException("Valor inválido na solução, célula " + i + ": " + solution[i]);
+            }
+            if (isOriginalCell(i) && readValue(layout.playOffset, i) != solution[i]) {
+                throw new IllegalArgumentException("A pista da célula " + i + " não confere com a solução");
+            }
+        }
+        storeValues(layout.solutionOffset, solution);
+        recount();
+    }
 
-        // Copia solução para o tabuleiro de jogo
-        copyToPlayBoard();
+    /**
+     * Carrega um puzzle externo. {@code puzzle} traz as pistas em ordem de
+     * linhas (0 nas células vazias) e {@code solution} a grade completa, ou
+     * null se a solução não é conhecida.
+     */
+    public void loadPuzzle(int[] puzzle, int[] solution) {
+        if (puzzle.length != layout.cellCount || (solution != null && solution.length != layout.cellCount)) {
+            throw new IllegalArgumentException("O tabuleiro deve ter " + layout.cellCount + " células");
+        }
+        for (int i = 0; i < layout.cellCount; i++) {
+            if (puzzle[i] < 0 || puzzle[i] > layout.gridSize) {
+                throw new IllegalArgumentException("Valor inválido na célula " + i + ": " + puzzle[i]);
+            }
+            if (solution != null) {
+                if (solution[i] < 1 || solution[i] > layout.gridSize) {
+                    throw new IllegalArgumentException("Valor inválido na solução, célula " + i + ": " + solution[i]);
+                }
+                if (puzzle[i] != 0 && puzzle[i] != solution[i]) {
+                    throw new IllegalArgumentException("A pista da célula " + i + " não confere com a solução");
+                }
+            }
+        }
 
-        // Remove números baseado na dificuldade
-        removeNumbers(difficulty);
+        clearBoard();
+        if (solution != null) {
+            storeValues(layout.solutionOffset, solution);
+        }
+        storeValues(layout.playOffset, puzzle);
+        markOriginalCells();
+        recount();
+    }
 
-        // Marca células originais
+    /**
+     * Carrega um puzzle em texto, sem solução: {@link #getCellCount()}
+     * símbolos a partir de {@code offset}, em ordem de linhas, com '.' ou '0'
+     * nas vazias (ver {@link CellSymbols}). Os bytes vão direto para a
+     * representação compactada, sem String nem array intermediário.
+     *
+     * @return false se algum símbolo é inválido para o tamanho (o tabuleiro
+     *         fica vazio)
+     */
+    public boolean loadPuzzle(byte[] text, int offset) {
+        if (offset < 0 || offset > text.length - layout.cellCount) {
+            throw new IllegalArgumentException("O texto deve ter " + layout.cellCount + " símbolos a partir de " + offset);
+        }
+        clearBoard();
+        for (int i = 0; i < layout.cellCount; i++) {
+            int value = CellSymbols.fromSymbol((char) (text[offset + i] & 0xFF));
+            if (value < 0 || value > layout.gridSize) {
+                clearBoard();
+                recount();
+                return false;
+            }
+            writeValue(layout.playOffset, i, value);
+        }
         markOriginalCells();
+        recount();
+        return true;
+    }
+
+    /**
+     * Resolve as pistas originais verificando a unicidade numa só busca, e
+     * guarda a solução quando ela é única. O tabuleiro de jogo não muda.
+     *
+     * @return número de soluções, parando em 2 (0 se as pistas se contradizem)
+     */
+    public int solvePuzzle() {
+        int[][] scratch = SCRATCH.get();
+        int[] grid = scratch[layout.subgridSize];
+        if (grid == null) {
+            grid = new int[layout.cellCount];
+            scratch[layout.subgridSize] = grid;
+        }
+        copyPuzzle(grid);
+        int count = solver(countBackend).solveAndCount(grid, 2);
+        if (count == 1) {
+            storeValues(layout.solutionOffset, grid);
+            recount();
+        }
+        return count;
+    }
+
+    /**
+     * Copia as pistas originais para {@code target} (0 nas demais células).
+     */
+    public void copyPuzzle(int[] target) {
+        for (int i = 0; i < layout.cellCount; i++) {
+            target[i] = isOriginalCell(i) ? readValue(layout.playOffset, i) : 0;
+        }
+    }
+
+    /**
+     * Copia a solução para {@code target} (zeros se não houver solução).
+     */
+    public void copySolution(int[] target) {
+        for (int i = 0; i < layout.cellCount; i++) {
+            target[i] = readValue(layout.solutionOffset, i);
+        }
+    }
+
+    /**
+     * @return false se o puzzle ficou fora do nível pedido (ver
+     *         {@link #generateNewBoard(int, RandomGenerator, Deadline)})
+     */
+    public boolean generateNewBoard(int difficulty) {
+        return generateNewBoard(difficulty, new Random());
+    }
+
+    /**
+     * Gera um novo tabuleiro usando o gerador aleatório informado. Com a mesma
+     * semente o resultado é sempre o mesmo.
+     *
+     * @return false se o puzzle ficou fora do nível pedido
+     */
+    public boolean generateNewBoard(int difficulty, RandomGenerator random) {
+        return generateNewBoard(difficulty, random, Deadline.none());
+    }
+
+    /**
+     * Gera um novo tabuleiro dentro de um prazo. O preenchimento da solução
+     * troca de semente sempre que uma tentativa passa do limite de nós, e a
+     * busca de um puzzle no nível pedido para de tentar quando o prazo
+     * expira, ficando com a melhor tentativa feita: o atraso máximo é o prazo
+     * mais uma tentativa de remoção de pistas.
+     *
+     * @return false se o puzzle ficou fora do nível pedido (no 9x9, nenhuma
+     *         tentativa recebeu a nota do nível) ou se o prazo expirou antes
+     *         do fim. Se a solução já estava preenchida, o tabuleiro tem um
+     *         puzzle válido, de solução única, mas talvez fora do nível; senão,
+     *         fica vazio e sem solução ({@link #hasSolution()} é false)
+     */
+    public boolean generateNewBoard(int difficulty, RandomGenerator random, Deadline deadline) {
+        return generate(difficulty, random, deadline, solver(fillBackend), solver(countBackend));
+    }
+
+    /**
+     * Gera o tabuleiro como função pura da semente e da dificuldade: a mesma
+     * semente dá sempre o mesmo puzzle, em qualquer thread ou máquina, então
+     * basta guardar a semente (ver {@link br.com.dio.generator.PuzzleId}).
+     * Usa {@link SplitMix64}, motores fixos e nenhum prazo; mudanças no
+     * algoritmo de geração mudam os puzzles das sementes já publicadas.
+     * Um puzzle fora do nível é gerado de novo, continuando a sequência da
+     * semente, até {@value #MAX_SEEDED_GENERATIONS} vezes.
+     *
+     * @return false se nenhuma das gerações ficou no nível pedido
+     */
+    public boolean generateFromSeed(int difficulty, long seed) {
+        SplitMix64 random = new SplitMix64(seed);
+        for (int generation = 1; generation < MAX_SEEDED_GENERATIONS; generation++) {
+            if (generateFromSeed(difficulty, random)) {
+                return true;
+            }
+        }
+        return generateFromSeed(difficulty, random);
+    }
+
+    /**
+     * Uma geração com os mesmos motores fixos e sem prazo de
+     * {@link #generateFromSeed(int, long)}, continuando a sequência de
+     * {@code random}: o resultado depende só do estado do gerador (por
+     * exemplo, lotes com --seed), e não de -Dsudoku.solver.*.
+     *
+     * @return false se o puzzle ficou fora do nível pedido
+     */
+    public boolean generateFromSeed(int difficulty, SplitMix64 random) {
+        return generate(difficulty, random, Deadline.none(),
+                solver(SEEDED_FILL_BACKEND), solver(SEEDED_COUNT_BACKEND));
+    }
+
+    private boolean generate(int difficulty, RandomGenerator random, Deadline deadline,
+                             SudokuSolver fill, SudokuSolver counter) {
+        int[] grid = new int[layout.cellCount];
+        // Medição opcional (null se desligada, ver SudokuMetrics)
+        GenerationSample sample = GenerationSample.start(fill, counter);
+        boolean complete = false;
+        try {
+            // Limpa o tabuleiro
+            clearBoard();
+
+            // Gera nova solução (no 4x4 os blocos diagonais podem ser incompatíveis)
+            long fillBudget = FILL_NODES_PER_CELL * layout.cellCount;
+            int attempts = 0;
+            do {
+                if (deadline.isExpired()) {
+                    recount();
+                    return false;
+                }
+                Arrays.fill(grid, 0);
+                fillDiagonalBlocks(grid, random);
+                attempts++;
+            } while (!fill.solve(grid, fillBudget));
+            storeValues(layout.solutionOffset, grid);
+            if (sample != null) {
+                sample.filled(attempts);
+            }
+
+            // Remove números baseado na dificuldade
+            complete = removeNumbers(difficulty, grid, random, deadline, counter);
+            storeValues(layout.playOffset, grid);
+
+            // Marca células originais
+            markOriginalCells();
+            recount();
+            return complete;
+        } finally {
+            // Também as gerações interrompidas: são as mais lentas
+            if (sample != null) {
+                sample.finish(DifficultyLevel.fromLevel(difficulty), layout.subgridSize,
+                        !complete && deadline.isExpired());
+            }
+        }
     }
 
     public void restartBoard() {
-        // Limpa apenas as células não originais
-        for (int i = 0; i < GRID_SIZE; i++) {
-            for (int j = 0; j < GRID_SIZE; j++) {
-                if (!isOriginal[i][j]) {
-                    playBoard[i][j] = 0;
+        beginChanges();
+        try {
+            // Limpa apenas as células não originais
+            for (int i = 0; i < layout.cellCount; i++) {
+                if (!isOriginalCell(i)) {
+                    updateCell(i, 0);
                 }
             }
+        } finally {
+            endChanges();
         }
     }
 
+    /**
+     * O(1). Sem solução armazenada (puzzle importado), o tabuleiro está
+     * completo quando todas as células estão preenchidas e não há conflitos.
+     */
     public boolean isComplete() {
-        for (int i = 0; i < GRID_SIZE; i++) {
-            for (int j = 0; j < GRID_SIZE; j++) {
-                if (playBoard[i][j] != solution[i][j]) {
-                    return false;
+        if (filledCount != layout.cellCount) {
+            return false;
+        }
+        return hasSolution() ? wrongCount == 0 : countConflicts() == 0;
+    }
+
+    /**
+     * O(1). Compara com a solução armazenada ou, se não houver, conta os
+     * conflitos pelas regras do jogo.
+     */
+    public int countErrors() {
+        return hasSolution() ? wrongCount : countConflicts();
+    }
+
+    /**
+     * Conta as repetições de dígitos em linhas, colunas e blocos, sem usar a
+     * solução: cada ocorrência além da primeira numa unidade conta uma vez.
+     * A primeira chamada monta os contadores por unidade; depois é O(1).
+     */
+    public int countConflicts() {
+        trackUnits();
+        return conflictCount;
+    }
+
+    /**
+     * Candidatos de uma célula vazia (bit d para o dígito d): os dígitos que
+     * não aparecem na linha, na coluna nem no bloco. 0 para células
+     * preenchidas. As máscaras por unidade são mantidas a cada jogada, então
+     * a consulta é O(1) depois da primeira.
+     */
+    public int getCandidates(int row, int col) {
+        trackUnits();
+        return candidatesOf(row * layout.gridSize + col);
+    }
+
+    /**
+     * Candidatos de todas as células, em ordem de linhas.
+     */
+    public void copyCandidates(int[] target) {
+        trackUnits();
+        for (int i = 0; i < layout.cellCount; i++) {
+            target[i] = candidatesOf(i);
+        }
+    }
+
+    private int candidatesOf(int index) {
+        if (readValue(layout.playOffset, index) != 0) {
+            return 0;
+        }
+        int row = index / layout.gridSize;
+        int col = index % layout.gridSize;
+        int box = (row / layout.subgridSize) * layout.subgridSize + col / layout.subgridSize;
+        int present = unitMasks[row] | unitMasks[layout.gridSize + col] | unitMasks[2 * layout.gridSize + box];
+        return layout.allDigits & ~present;
+    }
+
+    /**
+     * Próximo passo lógico a partir do estado atual do jogo: a colocação
+     * dedutível com a técnica mais barata, ou o primeiro valor errado, se
+     * houver. Sem dedução possível, revela a célula com menos candidatos.
+     *
+     * @return null se o tabuleiro está completo ou não tem solução
+     */
+    public Hint hint() {
+        Hint mistake = findMistake();
+        if (mistake != null || filledCount == layout.cellCount) {
+            return mistake;
+        }
+
+        int[] values = new int[layout.cellCount];
+        int[] candidates = new int[layout.cellCount];
+        for (int i = 0; i < layout.cellCount; i++) {
+            values[i] = readValue(layout.playOffset, i);
+        }
+        copyCandidates(candidates);
+
+        Technique limit = layout.subgridSize > 3 ? LARGE_HINT_LIMIT : Technique.GUESSING;
+        Hint hint = grader().hint(values, candidates, limit);
+        if (hint.getTechnique() != Technique.GUESSING) {
+            return hint;
+        }
+
+        // Nenhuma técnica conhecida avança: revela a célula escolhida
+        int index = hint.getRow() * layout.gridSize + hint.getCol();
+        int value = readValue(layout.solutionOffset, index);
+        if (value == 0) {
+            if (!solveSudoku(values)) {
+                return null;
+            }
+            value = values[index];
+        }
+        return Hint.placement(hint.getRow(), hint.getCol(), value, Technique.GUESSING);
+    }
+
+    private Hint findMistake() {
+        if (hasSolution() ? wrongCount == 0 : countConflicts() == 0) {
+            return null;
+        }
+        for (int i = 0; i < layout.cellCount; i++) {
+            int value = readValue(layout.playOffset, i);
+            if (value == 0 || isOriginalCell(i)) {
+                continue;
+            }
+            int row = i / layout.gridSize;
+            int col = i % layout.gridSize;
+            if (hasSolution()) {
+                int expected = readValue(layout.solutionOffset, i);
+                if (value != expected) {
+                    return Hint.mistake(row, col, expected);
                 }
+            } else if (conflicts(i, value)) {
+                return Hint.mistake(row, col, 0);
             }
         }
-        return true;
+        return null;
     }
 
-    public int countErrors() {
-        int errorCount = 0;
-        for (int i = 0; i < GRID_SIZE; i++) {
-            for (int j = 0; j < GRID_SIZE; j++) {
-                if (playBoard[i][j] != 0 && playBoard[i][j] != solution[i][j]) {
-                    errorCount++;
+    private boolean conflicts(int index, int value) {
+        int row = index / layout.gridSize;
+        int col = index % layout.gridSize;
+        int box = (row / layout.subgridSize) * layout.subgridSize + col / layout.subgridSize;
+        return unitCounts[unitSlot(row, value)] > 1
+                || unitCounts[unitSlot(layout.gridSize + col, value)] > 1
+                || unitCounts[unitSlot(2 * layout.gridSize + box, value)] > 1;
+    }
+
+    private void trackUnits() {
+        if (unitCounts == null) {
+            unitCounts = new byte[3 * layout.gridSize * (layout.gridSize + 1)];
+            unitMasks = new int[3 * layout.gridSize];
+            conflictCount = 0;
+            for (int i = 0; i < layout.cellCount; i++) {
+                int value = readValue(layout.playOffset, i);
+                if (value != 0) {
+                    addToUnits(i, value);
                 }
             }
         }
-        return errorCount;
     }
 
-    public void showSolution() {
-        for (int i = 0; i < GRID_SIZE; i++) {
-            for (int j = 0; j < GRID_SIZE; j++) {
-                playBoard[i][j] = solution[i][j];
+    public int getFilledCount() {
+        return filledCount;
+    }
+
+    public boolean hasSolution() {
+        // Uma solução válida nunca tem a primeira palavra zerada
+        return cells[layout.solutionOffset] != 0;
+    }
+
+    /**
+     * Preenche as células editáveis com a solução armazenada.
+     *
+     * @return false, sem alterar nada, se o tabuleiro não tem solução
+     *         (puzzle importado ainda não resolvido, ver {@link #solvePuzzle()})
+     */
+    public boolean showSolution() {
+        if (!hasSolution()) {
+            return false;
+        }
+        beginChanges();
+        try {
+            for (int i = 0; i < layout.cellCount; i++) {
+                if (!isOriginalCell(i)) {
+                    updateCell(i, readValue(layout.solutionOffset, i));
+                }
             }
+        } finally {
+            endChanges();
+        }
+        return true;
+    }
+
+    /**
+     * Início de uma alteração em bloco: até o {@link #endChanges()}
+     * correspondente, os avisos aos {@link BoardListener} ficam retidos. Pode
+     * ser aninhado.
+     */
+    void beginChanges() {
+        batchDepth++;
+    }
+
+    /**
+     * Fim de uma alteração em bloco: um único aviso, {@code cellChanged} se
+     * só uma célula mudou, senão {@code boardChanged}.
+     */
+    void endChanges() {
+        if (--batchDepth > 0) {
+            return;
+        }
+        boolean board = batchBoard || batchCells > 1;
+        boolean cell = batchCells == 1;
+        batchCells = 0;
+        batchBoard = false;
+        if (board) {
+            notifyBoard();
+        } else if (cell) {
+            notifyCell(batchLastIndex);
         }
     }
 
     // Métodos privados de geração
     private void clearBoard() {
-        for (int i = 0; i < GRID_SIZE; i++) {
-            for (int j = 0; j < GRID_SIZE; j++) {
-                solution[i][j] = 0;
-                playBoard[i][j] = 0;
-                isOriginal[i][j] = false;
-            }
+        for (int i = 0; i < layout.packedWords; i++) {
+            cells[i] = 0;
         }
     }
 
-    private void fillDiagonalBlocks() {
-        for (int block = 0; block < GRID_SIZE; block += SUBGRID_SIZE) {
-            fillBlock(block, block);
+    private void fillDiagonalBlocks(int[] grid, RandomGenerator random) {
+        for (int block = 0; block < layout.gridSize; block += layout.subgridSize) {
+            fillBlock(grid, block, block, random);
         }
     }
 
-    private void fillBlock(int row, int col) {
-        Random random = new Random();
-        int[] nums = {1, 2, 3, 4, 5, 6, 7, 8, 9};
-
-        // Embaralha os números
-        for (int i = nums.length - 1; i > 0; i--) {
-            int j = random.nextInt(i + 1);
-            int temp = nums[i];
-            nums[i] = nums[j];
-            nums[j] = temp;
+    private void fillBlock(int[] grid, int row, int col, RandomGenerator random) {
+        // Permutação de 1..N embaralhada direto nas células do bloco (Fisher-Yates
+        // "de dentro para fora"), sem array auxiliar
+        int first = row * layout.gridSize + col;
+        for (int i = 0; i < layout.gridSize; i++) {
+            int j = i == 0 ? 0 : random.nextInt(i + 1);
+            int target = first + (i / layout.subgridSize) * layout.gridSize + i % layout.subgridSize;
+            int source = first + (j / layout.subgridSize) * layout.gridSize + j % layout.subgridSize;
+            grid[target] = grid[source];
+            grid[source] = i + 1;
         }
+    }
 
-        int index = 0;
-        for (int i = 0; i < SUBGRID_SIZE; i++) {
-            for (int j = 0; j < SUBGRID_SIZE; j++) {
-                solution[row + i][col + j] = nums[index++];
-            }
+    private boolean solveSudoku(int[] grid) {
+        return solver(fillBackend).solve(grid);
+    }
+
+    private SudokuSolver solver(SolverBackend backend) {
+        SudokuSolver[] solvers = SOLVERS.get()[backend.ordinal()];
+        SudokuSolver solver = solvers[layout.subgridSize];
+        if (solver == null) {
+            solver = backend.create(layout.subgridSize);
+            solvers[layout.subgridSize] = solver;
         }
+        return solver;
     }
 
-    private boolean solveSudoku(int row, int col) {
-        if (row == GRID_SIZE - 1 && col == GRID_SIZE) {
-            return true;
+    private LogicalGrader grader() {
+        LogicalGrader[] graders = GRADERS.get();
+        LogicalGrader grader = graders[layout.subgridSize];
+        if (grader == null) {
+            grader = new LogicalGrader(layout.subgridSize);
+            graders[layout.subgridSize] = grader;
         }
+        return grader;
+    }
+
+    /**
+     * Avalia o puzzle atual (apenas as pistas originais) pela técnica humana
+     * mais difícil necessária para resolvê-lo.
+     */
+    public Technique grade() {
+        int[] grid = new int[layout.cellCount];
+        copyPuzzle(grid);
+        return grader().grade(grid);
+    }
 
-        if (col == GRID_SIZE) {
-            row++;
-            col = 0;
+    public static SolverBackend getFillBackend() {
+        return fillBackend;
+    }
+
+    public static SolverBackend getCountBackend() {
+        return countBackend;
+    }
+
+    /**
+     * Troca os motores de resolução usados pela geração de novos tabuleiros.
+     * Vale para todas as threads a partir da próxima geração.
+     */
+    public static void setSolverBackends(SolverBackend fill, SolverBackend count) {
+        if (fill == null || count == null) {
+            throw new IllegalArgumentException("O motor de resolução não pode ser nulo");
         }
+        fillBackend = fill;
+        countBackend = count;
+    }
+
+    /**
+     * Remove pistas uma a uma em ordem aleatória, mantendo apenas as remoções
+     * que preservam a unicidade da solução. Se a meta da dificuldade não for
+     * atingida, tenta outras ordens e fica com a que removeu mais pistas.
+     * No 9x9 cada tentativa é avaliada pelas técnicas humanas exigidas e só é
+     * aceita se a nota corresponder ao nível pedido; a meta de buracos vira
+     * apenas um ponto de partida.
+     * Recebe a solução em {@code grid} e devolve nele o puzzle resultante.
+     *
+     * @return false se o prazo interrompeu as tentativas ou, no 9x9, se
+     *         nenhuma foi aceita pelo nível: o puzzle devolvido é o que removeu
+     *         mais pistas, com outra nota
+     */
+    private boolean removeNumbers(int difficulty, int[] grid, RandomGenerator random, Deadline deadline,
+                                  SudokuSolver counter) {
+        DifficultyLevel level = DifficultyLevel.fromLevel(difficulty);
+        int target = level.getCellsToRemove(layout.cellCount);
+        boolean graded = layout.gridSize == GRADED_GRID_SIZE;
+
+        int[] solved = grid.clone();
+        int[] best = new int[layout.cellCount];
+        int[] order = new int[layout.cellCount];
+        int bestRemoved = -1;
 
-        if (solution[row][col] != 0) {
-            return solveSudoku(row, col + 1);
+        // Acima de 9x9 cada verificação de unicidade é bem mais cara: uma tentativa só
+        int attempts = graded ? MAX_GRADED_ATTEMPTS : layout.gridSize > 9 ? 1 : MAX_CARVING_ATTEMPTS;
+        boolean expired = false;
+        for (int attempt = 0; attempt < attempts; attempt++) {
+            if (attempt > 0 && deadline.isExpired()) {
+                expired = true;
+                break;
+            }
+            System.arraycopy(solved, 0, grid, 0, layout.cellCount);
+            for (int i = 0; i < layout.cellCount; i++) {
+                order[i] = i;
+            }
+            shuffle(order, random);
+
+            int removed = carve(grid, order, target, graded ? level : null, counter);
+            if (graded && level.accepts(grader().grade(grid))) {
+                // Primeira tentativa no nível certo: não há por que continuar
+                return true;
+            }
+            if (removed > bestRemoved) {
+                bestRemoved = removed;
+                System.arraycopy(grid, 0, best, 0, layout.cellCount);
+            }
+            if (!graded && bestRemoved >= target) {
+                break;
+            }
         }
 
-        for (int num = 1; num <= GRID_SIZE; num++) {
-            if (isValidPlacement(row, col, num)) {
-                solution[row][col] = num;
+        System.arraycopy(best, 0, grid, 0, layout.cellCount);
+        return !expired && !graded;
+    }
 
-                if (solveSudoku(row, col + 1)) {
-                    return true;
-                }
+    /**
+     * @param level nível exigido pela avaliação lógica, ou null para apenas
+     *              manter a unicidade. Com avaliação, uma remoção só é aceita se
+     *              o puzzle continuar resolvível pelas técnicas do nível (o que
+     *              já garante a unicidade), e a remoção continua além da meta
+     *              de buracos enquanto o puzzle for fácil demais para o nível
+     */
+    private int carve(int[] grid, int[] order, int target, DifficultyLevel level, SudokuSolver counter) {
+        LogicalGrader grader = level == null ? null : grader();
+        Technique limit = level == null ? Technique.GUESSING : level.getHardestTechnique();
+        long nodeBudget = layout.gridSize > 9 ? LARGE_BOARD_NODE_BUDGET : Long.MAX_VALUE;
+        int removed = 0;
+        boolean done = target <= 0;
 
-                solution[row][col] = 0;
+        for (int i = 0; i < order.length && !done; i++) {
+            int cell = order[i];
+            int value = grid[cell];
+            grid[cell] = 0;
+
+            // Basta encontrar uma segunda solução para rejeitar a remoção. Se a
+            // verificação estourar o limite de nós, a pista é mantida
+            boolean accepted = limit != Technique.GUESSING
+                    ? !grader.grade(grid, limit).isHarderThan(limit)
+                    : counter.countSolutions(grid, 2, nodeBudget) == 1;
+            if (accepted) {
+                removed++;
+                done = removed >= target && (level == null || level.accepts(grader.grade(grid)));
+            } else {
+                grid[cell] = value;
             }
         }
-        return false;
+        return removed;
     }
 
-    private boolean isValidPlacement(int row, int col, int num) {
-        // Verifica linha
-        for (int i = 0; i < GRID_SIZE; i++) {
-            if (solution[row][i] == num) {
-                return false;
+    private static void shuffle(int[] values, RandomGenerator random) {
+        for (int i = values.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int temp = values[i];
+            values[i] = values[j];
+            values[j] = temp;
+        }
+    }
+
+    private void markOriginalCells() {
+        for (int i = 0; i < layout.cellCount; i++) {
+            if (readValue(layout.playOffset, i) != 0) {
+                cells[layout.originalOffset + (i >>> 6)] |= 1L << i;
             }
         }
+    }
 
-        // Verifica coluna
-        for (int i = 0; i < GRID_SIZE; i++) {
-            if (solution[i][col] == num) {
-                return false;
+    // Manutenção incremental dos contadores
+    private void updateCell(int index, int value) {
+        int oldValue = readValue(layout.playOffset, index);
+        if (oldValue == value) {
+            return;
+        }
+
+        int solutionValue = readValue(layout.solutionOffset, index);
+        if (oldValue != 0) {
+            filledCount--;
+            if (oldValue != solutionValue) {
+                wrongCount--;
+            }
+            if (unitCounts != null) {
+                removeFromUnits(index, oldValue);
+            }
+        }
+        if (value != 0) {
+            filledCount++;
+            if (value != solutionValue) {
+                wrongCount++;
+            }
+            if (unitCounts != null) {
+                addToUnits(index, value);
             }
         }
 
-        // Verifica bloco 3x3
-        int startRow = row - row % SUBGRID_SIZE;
-        int startCol = col - col % SUBGRID_SIZE;
+        writeValue(layout.playOffset, index, value);
+        notifyCell(index);
+    }
 
-        for (int i = 0; i < SUBGRID_SIZE; i++) {
-            for (int j = 0; j < SUBGRID_SIZE; j++) {
-                if (solution[startRow + i][startCol + j] == num) {
-                    return false;
+    private void notifyCell(int index) {
+        if (batchDepth > 0) {
+            batchCells++;
+            batchLastIndex = index;
+            return;
+        }
+        for (BoardListener listener : listeners) {
+            listener.cellChanged(index / layout.gridSize, index % layout.gridSize);
+        }
+    }
+
+    private void notifyBoard() {
+        if (batchDepth > 0) {
+            batchBoard = true;
+            return;
+        }
+        for (BoardListener listener : listeners) {
+            listener.boardChanged();
+        }
+    }
+
+    private void recount() {
+        filledCount = 0;
+        wrongCount = 0;
+        for (int i = 0; i < layout.cellCount; i++) {
+            int value = readValue(layout.playOffset, i);
+            if (value != 0) {
+                filledCount++;
+                if (value != readValue(layout.solutionOffset, i)) {
+                    wrongCount++;
                 }
             }
         }
 
-        return true;
+        if (unitCounts != null) {
+            unitCounts = null;
+            trackUnits();
+        }
+        // Cópias e cargas terminam aqui
+        notifyBoard();
     }
 
-    private void copyToPlayBoard() {
-        for (int i = 0; i < GRID_SIZE; i++) {
-            for (int j = 0; j < GRID_SIZE; j++) {
-                playBoard[i][j] = solution[i][j];
-            }
+    private void addToUnits(int index, int value) {
+        int row = index / layout.gridSize;
+        int col = index % layout.gridSize;
+        int box = (row / layout.subgridSize) * layout.subgridSize + col / layout.subgridSize;
+
+        addToUnit(row, value);
+        addToUnit(layout.gridSize + col, value);
+        addToUnit(2 * layout.gridSize + box, value);
+    }
+
+    private void addToUnit(int unit, int value) {
+        if (unitCounts[unitSlot(unit, value)]++ > 0) {
+            conflictCount++;
+        } else {
+            unitMasks[unit] |= 1 << value;
         }
     }
 
-    private void removeNumbers(int difficulty) {
-        Random random = new Random();
-        int numbersToRemove;
+    private void removeFromUnits(int index, int value) {
+        int row = index / layout.gridSize;
+        int col = index % layout.gridSize;
+        int box = (row / layout.subgridSize) * layout.subgridSize + col / layout.subgridSize;
 
-        switch (difficulty) {
-            case 1: // Fácil
-                numbersToRemove = 40;
-                break;
-            case 2: // Médio
-                numbersToRemove = 50;
-                break;
-            case 3: // Difícil
-                numbersToRemove = 60;
-                break;
-            default:
-                numbersToRemove = 40;
+        removeFromUnit(row, value);
+        removeFromUnit(layout.gridSize + col, value);
+        removeFromUnit(2 * layout.gridSize + box, value);
+    }
+
+    private void removeFromUnit(int unit, int value) {
+        if (--unitCounts[unitSlot(unit, value)] > 0) {
+            conflictCount--;
+        } else {
+            unitMasks[unit] &= ~(1 << value);
         }
+    }
 
-        while (numbersToRemove > 0) {
-            int row = random.nextInt(GRID_SIZE);
-            int col = random.nextInt(GRID_SIZE);
+    private int unitSlot(int unit, int value) {
+        return unit * (layout.gridSize + 1) + value;
+    }
 
-            if (playBoard[row][col] != 0) {
-                playBoard[row][col] = 0;
-                numbersToRemove--;
-            }
+    // Acesso à representação compacta
+    private boolean isOriginalCell(int index) {
+        return (cells[layout.originalOffset + (index >>> 6)] & (1L << index)) != 0;
+    }
+
+    private int readValue(int offset, int index) {
+        Layout layout = this.layout;
+        int shift = (index & layout.valuesPerWordMask) * layout.valueBits;
+        return (int) (cells[offset + (index >>> layout.valuesPerWordShift)] >>> shift) & layout.valueMask;
+    }
+
+    private void writeValue(int offset, int index, int value) {
+        Layout layout = this.layout;
+        int word = offset + (index >>> layout.valuesPerWordShift);
+        int shift = (index & layout.valuesPerWordMask) * layout.valueBits;
+        cells[word] = (cells[word] & ~((long) layout.valueMask << shift)) | ((long) value << shift);
+    }
+
+    private void storeValues(int offset, int[] grid) {
+        for (int i = 0; i < layout.cellCount; i++) {
+            writeValue(offset, i, grid[i]);
         }
     }
 
-    private void markOriginalCells() {
-        for (int i = 0; i < GRID_SIZE; i++) {
-            for (int j = 0; j < GRID_SIZE; j++) {
-                isOriginal[i][j] = (playBoard[i][j] != 0);
-            }
+    /**
+     * Constantes da representação compacta para um tamanho de tabuleiro:
+     * valores de 4 bits (16 por long) até 9x9 e de 8 bits (8 por long) acima
+     * disso, seguidos da máscara de células originais (1 bit por célula).
+     */
+    private static final class Layout {
+        final int subgridSize;
+        final int gridSize;
+        final int cellCount;
+        final int valueBits;
+        final int valueMask;
+        final int valuesPerWordShift;
+        final int valuesPerWordMask;
+        final int valueWords;
+        final int playOffset;
+        final int solutionOffset;
+        final int originalOffset;
+        final int packedWords;
+        // Máscara de candidatos com todos os dígitos (bits 1..N)
+        final int allDigits;
+
+        Layout(int subgridSize) {
+            this.subgridSize = subgridSize;
+            this.gridSize = subgridSize * subgridSize;
+            this.cellCount = gridSize * gridSize;
+            this.valueBits = gridSize < 16 ? 4 : 8;
+            this.valueMask = (1 << valueBits) - 1;
+            this.valuesPerWordShift = valueBits == 4 ? 4 : 3;
+            this.valuesPerWordMask = (1 << valuesPerWordShift) - 1;
+            this.valueWords = (cellCount + valuesPerWordMask) >>> valuesPerWordShift;
+            this.playOffset = 0;
+            this.solutionOffset = playOffset + valueWords;
+            this.originalOffset = solutionOffset + valueWords;
+            this.packedWords = originalOffset + (cellCount + 63) / 64;
+            this.allDigits = ((1 << gridSize) - 1) << 1;
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,196 @@
+// ============= SessionProtocol.java =============
+package br.com.dio.server;
+
+import br.com.dio.enums.DifficultyLevel;
+import br.com.dio.enums.MoveResult;
+import br.com.dio.generator.PuzzleId;
+import br.com.dio.generator.PuzzleSource;
+import br.com.dio.model.GameSession;
+import br.com.dio.model.SudokuBoard;
+import br.com.dio.solver.Hint;
+import br.com.dio.util.CellSymbols;
+
+/**
+ * Protocolo de texto de uma sessão: um comando por linha, uma resposta por
+ * linha, começando por OK ou ERR. Linhas e colunas contam a partir de 0;
+ * tabuleiros vão numa linha só, em ordem de linhas, com '.' nas vazias.
+ *
+ * <pre>
+ * NEW [EASY|MEDIUM|HARD] [2..5]  OK puzzle
+ * PLAY id                        OK puzzle (sempre o mesmo para o id, ver PuzzleId)
+ * LOAD puzzle                    OK puzzle | ERR ... (16, 81, 256 ou 625 símbolos, solução única)
+ * SET linha coluna valor         OK ACCEPTED | OK UNCHANGED | OK SOLVED ms | ERR ...
+ * CHECK                          OK erros
+ * HINT                           OK linha coluna valor TÉCNICA | OK MISTAKE linha coluna valor | OK NONE
+ * SOLVE                          OK solução
+ * BOARD                          OK tabuleiro
+ * UNDO | REDO | RESTART          OK | ERR ...
+ * TIME                           OK ms
+ * QUIT                           OK (e a conexão é fechada)
+ * </pre>
+ *
+ * Sem I/O: cada conexão tem a sua instância e lhe passa as linhas lidas.
+ * Dicas e resoluções rodam nas threads de resolução de {@link PuzzleSource}
+ * (ver {@link PuzzleSource#compute}), e não na thread da sessão.
+ */
+public class SessionProtocol {
+    private final PuzzleSource puzzles;
+    private GameSession session;
+    private boolean closed;
+
+    public SessionProtocol(PuzzleSource puzzles) {
+        this.puzzles = puzzles;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public GameSession getSession() {
+        return session;
+    }
+
+    /**
+     * Executa um comando e devolve a resposta, sem o fim de linha.
+     */
+    public String execute(String line) {
+        String[] parts = line.trim().split("\\s+");
+        String command = parts[0].toUpperCase();
+        try {
+            switch (command) {
+                case "NEW":
+                    return newGame(parts);
+                case "PLAY":
+                    return play(parts);
+                case "LOAD":
+                    return load(parts);
+                case "QUIT":
+                    closed = true;
+                    return "OK";
+                case "":
+                    return "ERR comando vazio";
+                default:
+                    break;
+            }
+            if (session == null) {
+                return "ERR nenhuma partida em andamento; use NEW";
+            }
+            switch (command) {
+                case "SET":
+                    return setCell(parts);
+                case "CHECK":
+                    return "OK " + session.check();
+                case "HINT":
+                    return hint();
+                case "SOLVE":
+                    return puzzles.solve(session.getBoard()) && session.solve()
+                            ? "OK " + solution(session.getBoard()) : "ERR solução desconhecida";
+                case "BOARD":
+                    return "OK " + playBoard(session.getBoard());
+                case "UNDO":
+                    return session.undo() ? "OK" : "ERR nada para desfazer";
+                case "REDO":
+                    return session.redo() ? "OK" : "ERR nada para refazer";
+                case "RESTART":
+                    session.restart();
+                    return "OK";
+                case "TIME":
+                    return "OK " + session.getElapsedMillis();
+                default:
+                    return "ERR comando desconhecido: " + parts[0];
+            }
+        } catch (IllegalArgumentException e) {
+            return "ERR " + e.getMessage();
+        }
+    }
+
+    private String newGame(String[] parts) {
+        DifficultyLevel difficulty = parts.length > 1 ? DifficultyLevel.valueOf(parts[1].toUpperCase())
+                : DifficultyLevel.EASY;
+        int subgridSize = parts.length > 2 ? Integer.parseInt(parts[2]) : 3;
+        if (subgridSize < SudokuBoard.MIN_SUBGRID_SIZE || subgridSize > SudokuBoard.MAX_SUBGRID_SIZE) {
+            return "ERR tamanho de bloco não suportado: " + subgridSize;
+        }
+
+        return begin(puzzles.take(difficulty, subgridSize));
+    }
+
+    private String play(String[] parts) {
+        if (parts.length != 2) {
+            return "ERR uso: PLAY id";
+        }
+        return begin(puzzles.take(PuzzleId.parse(parts[1])));
+    }
+
+    private String load(String[] parts) {
+        if (parts.length != 2) {
+            return "ERR uso: LOAD puzzle";
+        }
+        SudokuBoard board = puzzles.load(parts[1]);
+        if (board == null) {
+            return "ERR o puzzle não tem solução única";
+        }
+        return begin(board);
+    }
+
+    private String begin(SudokuBoard board) {
+        if (session == null) {
+            session = new GameSession(board);
+        } else {
+            session.start(board);
+        }
+        return "OK " + playBoard(board);
+    }
+
+    private String setCell(String[] parts) {
+        if (parts.length != 4 || parts[3].length() != 1) {
+            return "ERR uso: SET linha coluna valor";
+        }
+        int value = CellSymbols.fromSymbol(parts[3].charAt(0));
+        if (value < 0) {
+            return "ERR valor inválido: " + parts[3];
+        }
+
+        MoveResult result = session.setCell(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), value);
+        switch (result) {
+            case SOLVED:
+                return "OK SOLVED " + session.getElapsedMillis();
+            case ACCEPTED:
+            case UNCHANGED:
+                return "OK " + result.name();
+            default:
+                return "ERR " + result.getDescription();
+        }
+    }
+
+    private String hint() {
+        Hint hint = puzzles.compute(session::hint);
+        if (hint == null) {
+            return "OK NONE";
+        }
+        String cell = hint.getRow() + " " + hint.getCol() + " " + CellSymbols.toSymbol(hint.getValue());
+        return hint.isMistake() ? "OK MISTAKE " + cell : "OK " + cell + " " + hint.getTechnique().name();
+    }
+
+    private static String playBoard(SudokuBoard board) {
+        int size = board.getGridSize();
+        StringBuilder text = new StringBuilder(board.getCellCount());
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                text.append(CellSymbols.toSymbol(board.getPlayBoard(row, col)));
+            }
+        }
+        return text.toString();
+    }
+
+    private static String solution(SudokuBoard board) {
+        int size = board.getGridSize();
+        StringBuilder text = new StringBuilder(board.getCellCount());
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                text.append(CellSymbols.toSymbol(board.getSolution(row, col)));
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,211 @@
+// ============= SessionServer.java =============
+package br.com.dio.server;
+
+import br.com.dio.cache.PuzzleCache;
+import br.com.dio.generator.PuzzlePool;
+import br.com.dio.generator.PuzzleSource;
+import br.com.dio.metrics.SudokuMetrics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor de partidas sem interface gráfica, no protocolo de linhas de
+ * {@link SessionProtocol}. Cada conexão é uma sessão atendida por uma thread
+ * virtual própria: uma sessão ociosa fica bloqueada na leitura sem ocupar
+ * uma thread do sistema, e os buffers por conexão são pequenos, de modo que
+ * uma JVM comporta centenas de milhares de sessões paradas.
+ *
+ * Uso: java br.com.dio.server.SessionServer [--port P] [--bank arquivo]
+ *          [--cache-mb M] [--offheap-mb M] [--offheap-file arquivo]
+ *
+ * O cache de puzzles por id e de soluções tem {@value #DEFAULT_CACHE_MB} MB
+ * no heap por padrão; o segundo nível, fora do heap, só existe com
+ * --offheap-mb (em memória direta, ou no arquivo de --offheap-file).
+ */
+public class SessionServer implements Closeable {
+    public static final int DEFAULT_PORT = 7070;
+    // Maior linha aceita; o maior comando é LOAD de um 25x25 (625 símbolos)
+    private static final int MAX_LINE = 640;
+    private static final int BACKLOG = 4096;
+    private static final int POOL_LOW_WATERMARK = 16;
+    private static final int POOL_HIGH_WATERMARK = 256;
+    private static final int MAX_RACERS = 4;
+    private static final int DEFAULT_CACHE_MB = 16;
+
+    private final ServerSocket serverSocket;
+    private final PuzzleSource puzzles;
+    private final ThreadFactory sessionThreads = Thread.ofVirtual().name("session-", 0).factory();
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private Thread acceptor;
+
+    /**
+     * @param port porta local, ou 0 para uma porta livre qualquer
+     */
+    public SessionServer(int port, PuzzleSource puzzles) throws IOException {
+        this.puzzles = puzzles;
+        this.serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+    }
+
+    public void start() {
+        acceptor = Thread.ofPlatform().name("session-acceptor").daemon(true).start(this::acceptLoop);
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public int getActiveSessions() {
+        return activeSessions.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        if (acceptor != null) {
+            acceptor.interrupt();
+        }
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                sessionThreads.newThread(() -> serve(socket)).start();
+            } catch (SocketException e) {
+                // Servidor fechado
+                return;
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        activeSessions.incrementAndGet();
+        SessionProtocol protocol = new SessionProtocol(puzzles);
+        try (socket) {
+            InputStream in = socket.getInputStream();
+            OutputStream out = socket.getOutputStream();
+            LineReader reader = new LineReader(in);
+
+            String line;
+            while (!protocol.isClosed() && (line = reader.readLine()) != null) {
+                String response = protocol.execute(line) + "\n";
+                out.write(response.getBytes(StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            // Conexão encerrada pelo cliente
+        } finally {
+            activeSessions.decrementAndGet();
+        }
+    }
+
+    /**
+     * Leitura de linhas com um buffer de {@value #MAX_LINE} bytes, em vez dos
+     * 8 KB de um BufferedReader por conexão.
+     */
+    private static final class LineReader {
+        private final InputStream in;
+        private final byte[] buffer = new byte[MAX_LINE];
+        private int start;
+        private int end;
+
+        LineReader(InputStream in) {
+            this.in = in;
+        }
+
+        String readLine() throws IOException {
+            int scanned = start;
+            while (true) {
+                for (; scanned < end; scanned++) {
+                    if (buffer[scanned] == '\n') {
+                        int length = scanned - start;
+                        if (length > 0 && buffer[scanned - 1] == '\r') {
+                            length--;
+                        }
+                        String line = new String(buffer, start, length, StandardCharsets.UTF_8);
+                        start = scanned + 1;
+                        return line;
+                    }
+                }
+                if (start > 0) {
+                    // Move o trecho parcial para o início do buffer
+                    System.arraycopy(buffer, start, buffer, 0, end - start);
+                    end -= start;
+                    scanned -= start;
+                    start = 0;
+                }
+                if (end == buffer.length) {
+                    throw new IOException("Linha maior que " + MAX_LINE + " bytes");
+                }
+                int read = in.read(buffer, end, buffer.length - end);
+                if (read < 0) {
+                    return null;
+                }
+                end += read;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = DEFAULT_PORT;
+        String bank = null;
+        long cacheMegabytes = DEFAULT_CACHE_MB;
+        long offHeapMegabytes = 0;
+        String offHeapFile = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--port": port = Integer.parseInt(args[i + 1]); break;
+                case "--bank": bank = args[i + 1]; break;
+                case "--cache-mb": cacheMegabytes = Long.parseLong(args[i + 1]); break;
+                case "--offheap-mb": offHeapMegabytes = Long.parseLong(args[i + 1]); break;
+                case "--offheap-file": offHeapFile = args[i + 1]; break;
+                default:
+                    System.out.println("Uso: java br.com.dio.server.SessionServer [--port P] [--bank arquivo] "
+                            + "[--cache-mb M] [--offheap-mb M] [--offheap-file arquivo]");
+                    return;
+            }
+        }
+
+        SudokuMetrics.register();
+        PuzzleCache cache = new PuzzleCache(cacheMegabytes << 20,
+                offHeapFile != null ? Paths.get(offHeapFile) : null, offHeapMegabytes << 20);
+        cache.register();
+        int processors = Runtime.getRuntime().availableProcessors();
+        PuzzlePool pool = new PuzzlePool(POOL_LOW_WATERMARK, POOL_HIGH_WATERMARK, Math.max(1, processors / 2));
+        pool.prefill();
+        // Gerações fora das threads virtuais das sessões (ver PuzzleSource)
+        ExecutorService generators = Executors.newFixedThreadPool(processors, runnable -> {
+            Thread thread = new Thread(runnable, "session-generator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Dicas e resoluções numa fila própria, sem esperar atrás das gerações
+        ExecutorService solvers = Executors.newFixedThreadPool(processors, runnable -> {
+            Thread thread = new Thread(runnable, "session-solver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        SessionServer server = new SessionServer(port, new PuzzleSource(pool, PuzzleSource.openBank(bank),
+                generators, Math.min(processors, MAX_RACERS), cache, solvers));
+        server.start();
+        System.out.println("Servidor de sessões na porta " + server.getPort());
+        server.acceptor.join();
+    }
+}
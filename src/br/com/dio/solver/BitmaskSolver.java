@@ -0,0 +1,380 @@
+// ============= BitmaskSolver.java =============
+package br.com.dio.solver;
+
+/**
+ * Motor de resolução baseado em máscaras de bits por linha, coluna e bloco.
+ * Escolhe sempre a célula mais restrita (MRV) e propaga singles nus e ocultos
+ * antes de cada ramificação. Suporta tabuleiros de 4x4 a 25x25 (um bit por
+ * dígito num int). Não aloca memória durante a busca, mas não é thread-safe:
+ * cada thread deve usar sua própria instância.
+ */
+public final class BitmaskSolver implements SudokuSolver {
+    private final int gridSize;
+    private final int subgridSize;
+    private final int cellCount;
+    private final int unitCount;
+    private final int allDigits;
+
+    private final int[] rowOf;
+    private final int[] colOf;
+    private final int[] boxOf;
+    private final int[][] units;
+
+    private final int[] cells;
+    private final int[] rowUsed;
+    private final int[] colUsed;
+    private final int[] boxUsed;
+
+    // Pilha de células preenchidas durante a busca, usada para desfazer jogadas
+    private final int[] trail;
+    private int trailSize;
+
+    // Lista de células vazias com remoção por troca; desfazer em ordem LIFO
+    // basta incrementar o contador
+    private final int[] empty;
+    private final int[] emptyPosition;
+    private int emptyCount;
+
+    // Rascunho da busca de singles ocultos: dígitos vistos uma ou mais vezes por unidade
+    private final int[] seenOnce;
+    private final int[] seenTwice;
+
+    private int[] output;
+    private int solutionLimit;
+    private int solutionCount;
+    private long nodeBudget;
+    private boolean budgetExhausted;
+
+    // Contadores acumulados; os nós saem do consumo do limite de nós
+    private long nodeCount;
+    private long backtrackCount;
+    private long propagationCount;
+
+    public BitmaskSolver() {
+        this(3);
+    }
+
+    /**
+     * @param subgridSize lado do bloco (2 a 5), para tabuleiros de 4x4 a 25x25
+     */
+    public BitmaskSolver(int subgridSize) {
+        if (subgridSize < 2 || subgridSize > 5) {
+            throw new IllegalArgumentException("Tamanho de bloco não suportado: " + subgridSize);
+        }
+        this.subgridSize = subgridSize;
+        this.gridSize = subgridSize * subgridSize;
+        this.cellCount = gridSize * gridSize;
+        this.unitCount = gridSize * 3;
+        this.allDigits = ((1 << gridSize) - 1) << 1; // bits 1..N
+
+        rowOf = new int[cellCount];
+        colOf = new int[cellCount];
+        boxOf = new int[cellCount];
+        units = new int[unitCount][gridSize];
+        for (int cell = 0; cell < cellCount; cell++) {
+            int row = cell / gridSize;
+            int col = cell % gridSize;
+            int box = (row / subgridSize) * subgridSize + col / subgridSize;
+            int boxIndex = (row % subgridSize) * subgridSize + col % subgridSize;
+
+            rowOf[cell] = row;
+            colOf[cell] = col;
+            boxOf[cell] = box;
+
+            units[row][col] = cell;
+            units[gridSize + col][row] = cell;
+            units[2 * gridSize + box][boxIndex] = cell;
+        }
+
+        cells = new int[cellCount];
+        rowUsed = new int[gridSize];
+        colUsed = new int[gridSize];
+        boxUsed = new int[gridSize];
+        trail = new int[cellCount];
+        empty = new int[cellCount];
+        emptyPosition = new int[cellCount];
+        seenOnce = new int[unitCount];
+        seenTwice = new int[unitCount];
+    }
+
+    @Override
+    public int getGridSize() {
+        return gridSize;
+    }
+
+    @Override
+    public boolean solve(int[] grid, long maxNodes) {
+        if (!load(grid)) {
+            return false;
+        }
+        output = grid;
+        solutionLimit = 1;
+        solutionCount = 0;
+        nodeBudget = maxNodes;
+        budgetExhausted = false;
+        search();
+        nodeCount += maxNodes - Math.max(nodeBudget, 0);
+        output = null;
+        return solutionCount > 0;
+    }
+
+    @Override
+    public int countSolutions(int[] grid, int limit, long maxNodes) {
+        if (!load(grid)) {
+            return 0;
+        }
+        output = null;
+        solutionLimit = limit;
+        solutionCount = 0;
+        nodeBudget = maxNodes;
+        budgetExhausted = false;
+        search();
+        nodeCount += maxNodes - Math.max(nodeBudget, 0);
+        return budgetExhausted ? UNKNOWN : solutionCount;
+    }
+
+    @Override
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    @Override
+    public long getBacktrackCount() {
+        return backtrackCount;
+    }
+
+    @Override
+    public long getPropagationCount() {
+        return propagationCount;
+    }
+
+    @Override
+    public int solveAndCount(int[] grid, int limit) {
+        if (!load(grid)) {
+            return 0;
+        }
+        // A busca trabalha sobre cells: o array pode receber a solução
+        output = grid;
+        solutionLimit = limit;
+        solutionCount = 0;
+        nodeBudget = Long.MAX_VALUE;
+        budgetExhausted = false;
+        search();
+        nodeCount += Long.MAX_VALUE - nodeBudget;
+        output = null;
+        return solutionCount;
+    }
+
+    private boolean load(int[] grid) {
+        if (grid.length != cellCount) {
+            throw new IllegalArgumentException("O tabuleiro deve ter " + cellCount + " células");
+        }
+
+        for (int i = 0; i < gridSize; i++) {
+            rowUsed[i] = 0;
+            colUsed[i] = 0;
+            boxUsed[i] = 0;
+        }
+        trailSize = 0;
+        emptyCount = 0;
+
+        for (int cell = 0; cell < cellCount; cell++) {
+            int value = grid[cell];
+            if (value < 0 || value > gridSize) {
+                throw new IllegalArgumentException("Valor inválido na célula " + cell + ": " + value);
+            }
+
+            cells[cell] = value;
+            if (value == 0) {
+                emptyPosition[cell] = emptyCount;
+                empty[emptyCount++] = cell;
+            } else {
+                int bit = 1 << value;
+                if (((rowUsed[rowOf[cell]] | colUsed[colOf[cell]] | boxUsed[boxOf[cell]]) & bit) != 0) {
+                    return false;
+                }
+                rowUsed[rowOf[cell]] |= bit;
+                colUsed[colOf[cell]] |= bit;
+                boxUsed[boxOf[cell]] |= bit;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Busca em profundidade. Retorna true quando o limite de soluções foi atingido
+     * e a busca deve ser interrompida.
+     */
+    private boolean search() {
+        if (--nodeBudget < 0) {
+            budgetExhausted = true;
+            return true;
+        }
+        int mark = trailSize;
+
+        if (!propagate()) {
+            undo(mark);
+            backtrackCount++;
+            return false;
+        }
+
+        // Escolhe a célula vazia com menos candidatos (MRV)
+        int best = -1;
+        int bestMask = 0;
+        int bestCount = gridSize + 1;
+        for (int i = 0; i < emptyCount; i++) {
+            int cell = empty[i];
+            int mask = candidates(cell);
+            int count = Integer.bitCount(mask);
+            if (count < bestCount) {
+                best = cell;
+                bestMask = mask;
+                bestCount = count;
+                if (count == 2) {
+                    break;
+                }
+            }
+        }
+
+        if (best < 0) {
+            return recordSolution();
+        }
+
+        int branchMark = trailSize;
+        for (int mask = bestMask; mask != 0; mask &= mask - 1) {
+            place(best, Integer.numberOfTrailingZeros(mask));
+            if (search()) {
+                return true;
+            }
+            undo(branchMark);
+        }
+
+        undo(mark);
+        backtrackCount++;
+        return false;
+    }
+
+    private boolean recordSolution() {
+        solutionCount++;
+        if (solutionCount == 1 && output != null) {
+            System.arraycopy(cells, 0, output, 0, cellCount);
+        }
+        return solutionCount >= solutionLimit;
+    }
+
+    /**
+     * Aplica singles nus e ocultos até não haver mais deduções.
+     *
+     * @return false se uma contradição foi encontrada
+     */
+    private boolean propagate() {
+        while (emptyCount > 0) {
+            // Singles nus: células com um único candidato
+            boolean changed = false;
+            for (int i = emptyCount - 1; i >= 0; i--) {
+                int cell = empty[i];
+                int mask = candidates(cell);
+                if (mask == 0) {
+                    return false;
+                }
+                if ((mask & (mask - 1)) == 0) {
+                    place(cell, Integer.numberOfTrailingZeros(mask));
+                    propagationCount++;
+                    changed = true;
+                }
+            }
+            if (changed) {
+                continue;
+            }
+
+            // Singles ocultos: dígitos com uma única posição possível na unidade
+            for (int unit = 0; unit < unitCount; unit++) {
+                seenOnce[unit] = 0;
+                seenTwice[unit] = 0;
+            }
+            for (int i = 0; i < emptyCount; i++) {
+                int cell = empty[i];
+                int mask = candidates(cell);
+                markSeen(rowOf[cell], mask);
+                markSeen(gridSize + colOf[cell], mask);
+                markSeen(2 * gridSize + boxOf[cell], mask);
+            }
+
+            for (int unit = 0; unit < unitCount; unit++) {
+                int placed = unitUsed(unit);
+                if ((seenOnce[unit] | placed) != allDigits) {
+                    return false;
+                }
+
+                for (int singles = seenOnce[unit] & ~seenTwice[unit] & ~placed; singles != 0; singles &= singles - 1) {
+                    int bit = singles & -singles;
+                    int target = -1;
+                    for (int cell : units[unit]) {
+                        if (cells[cell] == 0 && (candidates(cell) & bit) != 0) {
+                            target = cell;
+                            break;
+                        }
+                    }
+                    if (target < 0) {
+                        return false;
+                    }
+                    place(target, Integer.numberOfTrailingZeros(bit));
+                    propagationCount++;
+                    changed = true;
+                }
+            }
+            if (!changed) {
+                break;
+            }
+        }
+        return true;
+    }
+
+    private void markSeen(int unit, int mask) {
+        seenTwice[unit] |= seenOnce[unit] & mask;
+        seenOnce[unit] |= mask;
+    }
+
+    private int unitUsed(int unit) {
+        if (unit < gridSize) {
+            return rowUsed[unit];
+        }
+        if (unit < 2 * gridSize) {
+            return colUsed[unit - gridSize];
+        }
+        return boxUsed[unit - 2 * gridSize];
+    }
+
+    private int candidates(int cell) {
+        return allDigits & ~(rowUsed[rowOf[cell]] | colUsed[colOf[cell]] | boxUsed[boxOf[cell]]);
+    }
+
+    private void place(int cell, int value) {
+        int bit = 1 << value;
+        cells[cell] = value;
+        rowUsed[rowOf[cell]] |= bit;
+        colUsed[colOf[cell]] |= bit;
+        boxUsed[boxOf[cell]] |= bit;
+        trail[trailSize++] = cell;
+
+        // Move a célula para o fim da lista de vazias
+        int position = emptyPosition[cell];
+        int last = empty[--emptyCount];
+        empty[position] = last;
+        emptyPosition[last] = position;
+        empty[emptyCount] = cell;
+        emptyPosition[cell] = emptyCount;
+    }
+
+    private void undo(int mark) {
+        while (trailSize > mark) {
+            int cell = trail[--trailSize];
+            int bit = ~(1 << cells[cell]);
+            rowUsed[rowOf[cell]] &= bit;
+            colUsed[colOf[cell]] &= bit;
+            boxUsed[boxOf[cell]] &= bit;
+            cells[cell] = 0;
+            emptyCount++;
+        }
+    }
+}
@@ -0,0 +1,301 @@
+// ============= DlxSolver.java =============
+package br.com.dio.solver;
+
+/**
+ * Resolução por cobertura exata (Algorithm X com Dancing Links).
+ * Cada opção (célula, dígito) é uma linha com quatro nós: célula preenchida,
+ * dígito na linha, dígito na coluna e dígito no bloco. A estrutura inteira
+ * fica em arrays de int montados uma única vez no construtor; cada resolução
+ * cobre as pistas, busca e descobre tudo de volta, sem gerar lixo.
+ * Não é thread-safe: cada thread deve usar sua própria instância.
+ */
+public final class DlxSolver implements SudokuSolver {
+    private static final int ROOT = 0;
+    private static final int NODES_PER_OPTION = 4;
+
+    private final int gridSize;
+    private final int cellCount;
+    private final int columnCount;
+    private final int firstOptionNode;
+
+    // Ligações da matriz esparsa; os índices 1..columnCount são os cabeçalhos
+    private final int[] left;
+    private final int[] right;
+    private final int[] up;
+    private final int[] down;
+    private final int[] column;
+    private final int[] columnSize;
+
+    // Colunas cobertas pelas pistas, para desfazer ao final de cada resolução
+    private final int[] coveredColumns;
+    private final boolean[] covered;
+    private int coveredCount;
+
+    // Nós escolhidos em cada nível da busca
+    private final int[] chosen;
+
+    private int[] output;
+    private int solutionLimit;
+    private int solutionCount;
+    private long nodeBudget;
+    private boolean budgetExhausted;
+
+    // Contadores acumulados; os nós saem do consumo do limite de nós
+    private long nodeCount;
+    private long backtrackCount;
+    private long propagationCount;
+
+    public DlxSolver() {
+        this(3);
+    }
+
+    /**
+     * @param subgridSize lado do bloco (2 a 5), para tabuleiros de 4x4 a 25x25
+     */
+    public DlxSolver(int subgridSize) {
+        if (subgridSize < 2 || subgridSize > 5) {
+            throw new IllegalArgumentException("Tamanho de bloco não suportado: " + subgridSize);
+        }
+        gridSize = subgridSize * subgridSize;
+        cellCount = gridSize * gridSize;
+        columnCount = 4 * cellCount;
+        firstOptionNode = columnCount + 1;
+
+        int optionCount = cellCount * gridSize;
+        int nodeCount = firstOptionNode + optionCount * NODES_PER_OPTION;
+        left = new int[nodeCount];
+        right = new int[nodeCount];
+        up = new int[nodeCount];
+        down = new int[nodeCount];
+        column = new int[nodeCount];
+        columnSize = new int[columnCount + 1];
+        coveredColumns = new int[columnCount];
+        covered = new boolean[columnCount + 1];
+        chosen = new int[cellCount];
+
+        // Cabeçalhos em lista circular a partir da raiz
+        for (int c = 0; c <= columnCount; c++) {
+            left[c] = c == 0 ? columnCount : c - 1;
+            right[c] = c == columnCount ? 0 : c + 1;
+            up[c] = c;
+            down[c] = c;
+            column[c] = c;
+        }
+
+        for (int option = 0; option < optionCount; option++) {
+            int cell = option / gridSize;
+            int digit = option % gridSize;
+            int row = cell / gridSize;
+            int col = cell % gridSize;
+            int box = (row / subgridSize) * subgridSize + col / subgridSize;
+
+            int first = optionNode(option);
+            appendNode(first, 1 + cell);
+            appendNode(first + 1, 1 + cellCount + row * gridSize + digit);
+            appendNode(first + 2, 1 + 2 * cellCount + col * gridSize + digit);
+            appendNode(first + 3, 1 + 3 * cellCount + box * gridSize + digit);
+
+            for (int i = 0; i < NODES_PER_OPTION; i++) {
+                int node = first + i;
+                left[node] = first + (i + NODES_PER_OPTION - 1) % NODES_PER_OPTION;
+                right[node] = first + (i + 1) % NODES_PER_OPTION;
+            }
+        }
+    }
+
+    private int optionNode(int option) {
+        return firstOptionNode + option * NODES_PER_OPTION;
+    }
+
+    private void appendNode(int node, int header) {
+        column[node] = header;
+        up[node] = up[header];
+        down[node] = header;
+        down[up[header]] = node;
+        up[header] = node;
+        columnSize[header]++;
+    }
+
+    @Override
+    public int getGridSize() {
+        return gridSize;
+    }
+
+    @Override
+    public boolean solve(int[] grid, long maxNodes) {
+        output = grid;
+        run(grid, 1, maxNodes);
+        output = null;
+        return solutionCount > 0;
+    }
+
+    @Override
+    public int countSolutions(int[] grid, int limit, long maxNodes) {
+        output = null;
+        run(grid, limit, maxNodes);
+        return budgetExhausted ? UNKNOWN : solutionCount;
+    }
+
+    @Override
+    public int solveAndCount(int[] grid, int limit) {
+        // As pistas são lidas só no início: o array pode receber a solução
+        output = grid;
+        run(grid, limit, Long.MAX_VALUE);
+        output = null;
+        return solutionCount;
+    }
+
+    @Override
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    @Override
+    public long getBacktrackCount() {
+        return backtrackCount;
+    }
+
+    @Override
+    public long getPropagationCount() {
+        return propagationCount;
+    }
+
+    private void run(int[] grid, int limit, long maxNodes) {
+        solutionLimit = limit;
+        solutionCount = 0;
+        nodeBudget = maxNodes;
+        budgetExhausted = false;
+
+        if (coverGivens(grid)) {
+            search(0);
+        }
+        uncoverGivens();
+        nodeCount += maxNodes - Math.max(nodeBudget, 0);
+    }
+
+    /**
+     * Cobre as colunas de cada pista. Retorna false se duas pistas disputam a
+     * mesma restrição (tabuleiro inválido).
+     */
+    private boolean coverGivens(int[] grid) {
+        if (grid.length != cellCount) {
+            throw new IllegalArgumentException("O tabuleiro deve ter " + cellCount + " células");
+        }
+
+        for (int cell = 0; cell < cellCount; cell++) {
+            int value = grid[cell];
+            if (value < 0 || value > gridSize) {
+                throw new IllegalArgumentException("Valor inválido na célula " + cell + ": " + value);
+            }
+            if (value == 0) {
+                continue;
+            }
+
+            int first = optionNode(cell * gridSize + value - 1);
+            for (int i = 0; i < NODES_PER_OPTION; i++) {
+                if (covered[column[first + i]]) {
+                    return false;
+                }
+            }
+            for (int i = 0; i < NODES_PER_OPTION; i++) {
+                int header = column[first + i];
+                cover(header);
+                covered[header] = true;
+                coveredColumns[coveredCount++] = header;
+            }
+        }
+        return true;
+    }
+
+    private void uncoverGivens() {
+        while (coveredCount > 0) {
+            int header = coveredColumns[--coveredCount];
+            uncover(header);
+            covered[header] = false;
+        }
+    }
+
+    /**
+     * Retorna true quando a busca deve parar (limite de soluções ou de nós).
+     */
+    private boolean search(int depth) {
+        if (right[ROOT] == ROOT) {
+            return recordSolution(depth);
+        }
+        if (--nodeBudget < 0) {
+            budgetExhausted = true;
+            return true;
+        }
+
+        // Coluna com menos opções (heurística S de Knuth)
+        int best = right[ROOT];
+        int bestSize = columnSize[best];
+        for (int c = right[best]; c != ROOT && bestSize > 1; c = right[c]) {
+            if (columnSize[c] < bestSize) {
+                best = c;
+                bestSize = columnSize[c];
+            }
+        }
+        if (bestSize == 0) {
+            backtrackCount++;
+            return false;
+        }
+
+        cover(best);
+        for (int node = down[best]; node != best; node = down[node]) {
+            chosen[depth] = node;
+            for (int j = right[node]; j != node; j = right[j]) {
+                cover(column[j]);
+            }
+
+            boolean stop = search(depth + 1);
+
+            for (int j = left[node]; j != node; j = left[j]) {
+                uncover(column[j]);
+            }
+            if (stop) {
+                uncover(best);
+                return true;
+            }
+        }
+        uncover(best);
+        backtrackCount++;
+        return false;
+    }
+
+    private boolean recordSolution(int depth) {
+        solutionCount++;
+        if (solutionCount == 1 && output != null) {
+            for (int i = 0; i < depth; i++) {
+                int option = (chosen[i] - firstOptionNode) / NODES_PER_OPTION;
+                output[option / gridSize] = option % gridSize + 1;
+            }
+        }
+        return solutionCount >= solutionLimit;
+    }
+
+    private void cover(int header) {
+        propagationCount++;
+        right[left[header]] = right[header];
+        left[right[header]] = left[header];
+        for (int i = down[header]; i != header; i = down[i]) {
+            for (int j = right[i]; j != i; j = right[j]) {
+                up[down[j]] = up[j];
+                down[up[j]] = down[j];
+                columnSize[column[j]]--;
+            }
+        }
+    }
+
+    private void uncover(int header) {
+        for (int i = up[header]; i != header; i = up[i]) {
+            for (int j = left[i]; j != i; j = left[j]) {
+                columnSize[column[j]]++;
+                up[down[j]] = j;
+                down[up[j]] = j;
+            }
+        }
+        right[left[header]] = header;
+        left[right[header]] = header;
+    }
+}
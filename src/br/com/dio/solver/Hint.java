@@ -0,0 +1,74 @@
+// ============= Hint.java =============
+package br.com.dio.solver;
+
+import br.com.dio.enums.Technique;
+import br.com.dio.util.CellSymbols;
+
+/**
+ * Dica para o jogador: uma colocação com a técnica mais difícil necessária
+ * para deduzi-la, ou um valor errado já colocado no tabuleiro.
+ * Linhas e colunas contam a partir de 0; a descrição usa r1c1 como origem.
+ */
+public final class Hint {
+    private final int row;
+    private final int col;
+    private final int value;
+    private final Technique technique;
+
+    private Hint(int row, int col, int value, Technique technique) {
+        this.row = row;
+        this.col = col;
+        this.value = value;
+        this.technique = technique;
+    }
+
+    public static Hint placement(int row, int col, int value, Technique technique) {
+        return new Hint(row, col, value, technique);
+    }
+
+    /**
+     * @param expected valor correto da célula, ou 0 se a solução não é conhecida
+     */
+    public static Hint mistake(int row, int col, int expected) {
+        return new Hint(row, col, expected, null);
+    }
+
+    public boolean isMistake() {
+        return technique == null;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public int getCol() {
+        return col;
+    }
+
+    /**
+     * Valor a colocar; num erro, o valor correto (0 se desconhecido).
+     */
+    public int getValue() {
+        return value;
+    }
+
+    /**
+     * Técnica que justifica a colocação; null num erro.
+     */
+    public Technique getTechnique() {
+        return technique;
+    }
+
+    public String getDescription() {
+        String cell = "r" + (row + 1) + "c" + (col + 1);
+        if (isMistake()) {
+            return "Valor errado em " + cell;
+        }
+        return technique.getDescription() + " em " + cell + ": " + CellSymbols.toSymbol(value);
+    }
+
+    @Override
+    public String toString() {
+        return getDescription();
+    }
+}
@@ -0,0 +1,690 @@
+// ============= LogicalGrader.java =============
+package br.com.dio.solver;
+
+import br.com.dio.enums.Technique;
+
+/**
+ * Avaliador de dificuldade por técnicas humanas.
+ * Resolve o puzzle só com deduções lógicas, sempre aplicando a técnica mais
+ * barata que faz progresso, e dá como nota a técnica mais difícil que foi
+ * necessária. Se as técnicas conhecidas não bastam, a nota é
+ * {@link Technique#GUESSING}. Um puzzle resolvido até o fim sem tentativa e
+ * erro tem solução única.
+ * Candidatos em máscaras de bits (bit d para o dígito d), sem alocação durante
+ * a avaliação. Não é thread-safe: cada thread deve usar sua própria instância.
+ */
+public final class LogicalGrader {
+    // Número máximo de células numa cadeia XY
+    private static final int MAX_CHAIN_LENGTH = 6;
+    private static final int XY_WING_LENGTH = 3;
+
+    // Modos da busca de combinações
+    private static final int NAKED = 0;
+    private static final int HIDDEN = 1;
+    private static final int FISH_ROWS = 2;
+    private static final int FISH_COLUMNS = 3;
+
+    private final int gridSize;
+    private final int cellCount;
+    private final int unitCount;
+    private final int allDigits;
+
+    private final int[] rowOf;
+    private final int[] colOf;
+    private final int[] boxOf;
+    // Linhas, colunas e blocos, nesta ordem
+    private final int[][] units;
+    private final int[][] peers;
+
+    private final int[] values;
+    private final int[] candidates;
+    private int emptyCount;
+
+    // Rascunho dos subconjuntos e peixes: item (posição, dígito ou linha) e máscara
+    private final int[] subsetItems;
+    private final int[] subsetMasks;
+    private final int[] digitPositions;
+
+    // Rascunho das cadeias XY
+    private final boolean[] inChain;
+    private int chainStart;
+    private int chainDigit;
+
+    public LogicalGrader() {
+        this(3);
+    }
+
+    /**
+     * @param subgridSize lado do bloco (2 a 5), para tabuleiros de 4x4 a 25x25
+     */
+    public LogicalGrader(int subgridSize) {
+        if (subgridSize < 2 || subgridSize > 5) {
+            throw new IllegalArgumentException("Tamanho de bloco não suportado: " + subgridSize);
+        }
+        this.gridSize = subgridSize * subgridSize;
+        this.cellCount = gridSize * gridSize;
+        this.unitCount = gridSize * 3;
+        this.allDigits = ((1 << gridSize) - 1) << 1;
+
+        rowOf = new int[cellCount];
+        colOf = new int[cellCount];
+        boxOf = new int[cellCount];
+        units = new int[unitCount][gridSize];
+        for (int cell = 0; cell < cellCount; cell++) {
+            int row = cell / gridSize;
+            int col = cell % gridSize;
+            int box = (row / subgridSize) * subgridSize + col / subgridSize;
+            int boxIndex = (row % subgridSize) * subgridSize + col % subgridSize;
+
+            rowOf[cell] = row;
+            colOf[cell] = col;
+            boxOf[cell] = box;
+
+            units[row][col] = cell;
+            units[gridSize + col][row] = cell;
+            units[2 * gridSize + box][boxIndex] = cell;
+        }
+
+        // Vizinhos: linha e coluna inteiras mais o restante do bloco
+        int peerCount = 2 * (gridSize - 1) + (subgridSize - 1) * (subgridSize - 1);
+        peers = new int[cellCount][peerCount];
+        for (int cell = 0; cell < cellCount; cell++) {
+            int count = 0;
+            for (int other = 0; other < cellCount; other++) {
+                if (other != cell && sees(cell, other)) {
+                    peers[cell][count++] = other;
+                }
+            }
+        }
+
+        values = new int[cellCount];
+        candidates = new int[cellCount];
+        subsetItems = new int[gridSize];
+        subsetMasks = new int[gridSize];
+        digitPositions = new int[gridSize + 1];
+        inChain = new boolean[cellCount];
+    }
+
+    public int getGridSize() {
+        return gridSize;
+    }
+
+    /**
+     * Avalia o puzzle (N x N posições em ordem de linhas, 0 nas vazias).
+     * O array não é alterado.
+     *
+     * @return a técnica mais difícil necessária
+     * @throws IllegalArgumentException se o puzzle não tem solução
+     */
+    public Technique grade(int[] grid) {
+        return grade(grid, Technique.GUESSING);
+    }
+
+    /**
+     * Como {@link #grade(int[])}, mas desiste assim que uma técnica mais difícil
+     * que {@code limit} for necessária e retorna {@link Technique#GUESSING}.
+     * Útil para filtrar puzzles sem pagar pelas técnicas caras.
+     */
+    public Technique grade(int[] grid, Technique limit) {
+        load(grid);
+        Technique hardest = Technique.NAKED_SINGLE;
+
+        while (emptyCount > 0) {
+            Technique used = step(limit);
+            if (used == null) {
+                return Technique.GUESSING;
+            }
+            if (used.isHarderThan(hardest)) {
+                hardest = used;
+            }
+        }
+        return hardest;
+    }
+
+    /**
+     * Próxima colocação dedutível a partir de um estado de jogo, com os
+     * candidatos já conhecidos (bit d para o dígito d, 0 nas preenchidas), sem
+     * recalculá-los. Procura singles e, enquanto não houver, aplica a
+     * eliminação mais barata que avança; a técnica da dica é a mais difícil
+     * usada até a colocação. Se nada avança, a dica é
+     * {@link Technique#GUESSING} na célula com menos candidatos, com valor 0.
+     * Os arrays não são alterados.
+     *
+     * @return null se não há células vazias
+     */
+    public Hint hint(int[] grid, int[] cellCandidates) {
+        return hint(grid, cellCandidates, Technique.GUESSING);
+    }
+
+    /**
+     * Como {@link #hint(int[], int[])}, sem tentar técnicas mais difíceis que
+     * {@code limit}: limita a latência em tabuleiros grandes.
+     */
+    public Hint hint(int[] grid, int[] cellCandidates, Technique limit) {
+        if (grid.length != cellCount || cellCandidates.length != cellCount) {
+            throw new IllegalArgumentException("O tabuleiro deve ter " + cellCount + " células");
+        }
+        emptyCount = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            values[cell] = grid[cell];
+            candidates[cell] = grid[cell] == 0 ? cellCandidates[cell] & allDigits : 0;
+            if (grid[cell] == 0) {
+                emptyCount++;
+            }
+        }
+        if (emptyCount == 0) {
+            return null;
+        }
+
+        Technique hardest = Technique.NAKED_SINGLE;
+        while (true) {
+            int cell = findNakedSingle();
+            if (cell >= 0) {
+                return placement(cell, Integer.numberOfTrailingZeros(candidates[cell]), hardest);
+            }
+            int found = findHiddenSingle();
+            if (found >= 0) {
+                return placement(found / (gridSize + 1), found % (gridSize + 1),
+                        hardest.isHarderThan(Technique.HIDDEN_SINGLE) ? hardest : Technique.HIDDEN_SINGLE);
+            }
+
+            Technique used = eliminationStep(limit);
+            if (used == null) {
+                break;
+            }
+            if (used.isHarderThan(hardest)) {
+                hardest = used;
+            }
+        }
+
+        int best = -1;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (values[cell] == 0 && (best < 0
+                    || Integer.bitCount(candidates[cell]) < Integer.bitCount(candidates[best]))) {
+                best = cell;
+            }
+        }
+        return Hint.placement(rowOf[best], colOf[best], 0, Technique.GUESSING);
+    }
+
+    private Hint placement(int cell, int digit, Technique technique) {
+        return Hint.placement(rowOf[cell], colOf[cell], digit, technique);
+    }
+
+    private int findNakedSingle() {
+        for (int cell = 0; cell < cellCount; cell++) {
+            int mask = candidates[cell];
+            if (values[cell] == 0 && mask != 0 && (mask & (mask - 1)) == 0) {
+                return cell;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return célula * (N + 1) + dígito, ou -1
+     */
+    private int findHiddenSingle() {
+        for (int[] unit : units) {
+            int once = 0;
+            int twice = 0;
+            for (int cell : unit) {
+                twice |= once & candidates[cell];
+                once |= candidates[cell];
+            }
+            int singles = once & ~twice;
+            if (singles != 0) {
+                int bit = singles & -singles;
+                for (int cell : unit) {
+                    if ((candidates[cell] & bit) != 0) {
+                        return cell * (gridSize + 1) + Integer.numberOfTrailingZeros(bit);
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Aplica a eliminação mais barata que avança (sem singles).
+     *
+     * @return a técnica aplicada, ou null se nenhuma até {@code limit} avança
+     */
+    private Technique eliminationStep(Technique limit) {
+        for (Technique technique : Technique.values()) {
+            if (technique.compareTo(Technique.LOCKED_CANDIDATES) < 0) {
+                continue;
+            }
+            if (technique.isHarderThan(limit) || technique == Technique.GUESSING) {
+                return null;
+            }
+            if (apply(technique)) {
+                return technique;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Aplica a técnica mais barata que faz progresso.
+     *
+     * @return a técnica aplicada, ou null se nenhuma até {@code limit} avança
+     */
+    private Technique step(Technique limit) {
+        for (Technique technique : Technique.values()) {
+            if (technique.isHarderThan(limit) || technique == Technique.GUESSING) {
+                return null;
+            }
+            if (apply(technique)) {
+                return technique;
+            }
+        }
+        return null;
+    }
+
+    private boolean apply(Technique technique) {
+        switch (technique) {
+            case NAKED_SINGLE: return nakedSingles();
+            case HIDDEN_SINGLE: return hiddenSingles();
+            case LOCKED_CANDIDATES: return lockedCandidates();
+            case NAKED_PAIR: return nakedSubsets(2);
+            case HIDDEN_PAIR: return hiddenSubsets(2);
+            case NAKED_TRIPLE: return nakedSubsets(3);
+            case HIDDEN_TRIPLE: return hiddenSubsets(3);
+            case X_WING: return fish(2);
+            case SWORDFISH: return fish(3);
+            case XY_WING: return xyChains(XY_WING_LENGTH);
+            case XY_CHAIN: return xyChains(MAX_CHAIN_LENGTH);
+            default: return false;
+        }
+    }
+
+    private void load(int[] grid) {
+        if (grid.length != cellCount) {
+            throw new IllegalArgumentException("O tabuleiro deve ter " + cellCount + " células");
+        }
+
+        emptyCount = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            int value = grid[cell];
+            if (value < 0 || value > gridSize) {
+                throw new IllegalArgumentException("Valor inválido na célula " + cell + ": " + value);
+            }
+            values[cell] = value;
+            candidates[cell] = value == 0 ? allDigits : 0;
+            if (value == 0) {
+                emptyCount++;
+            }
+        }
+
+        for (int cell = 0; cell < cellCount; cell++) {
+            int value = values[cell];
+            if (value == 0) {
+                continue;
+            }
+            int clear = ~(1 << value);
+            for (int peer : peers[cell]) {
+                if (values[peer] == value) {
+                    throw new IllegalArgumentException("O tabuleiro não tem solução");
+                }
+                candidates[peer] &= clear;
+            }
+        }
+    }
+
+    private boolean sees(int a, int b) {
+        return rowOf[a] == rowOf[b] || colOf[a] == colOf[b] || boxOf[a] == boxOf[b];
+    }
+
+    private void place(int cell, int value) {
+        values[cell] = value;
+        candidates[cell] = 0;
+        emptyCount--;
+        int clear = ~(1 << value);
+        for (int peer : peers[cell]) {
+            candidates[peer] &= clear;
+        }
+    }
+
+    private boolean eliminate(int cell, int mask) {
+        if ((candidates[cell] & mask) == 0) {
+            return false;
+        }
+        candidates[cell] &= ~mask;
+        return true;
+    }
+
+    // ---------------------------------------------------------------- singles
+
+    private boolean nakedSingles() {
+        boolean progress = false;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (values[cell] != 0) {
+                continue;
+            }
+            int mask = candidates[cell];
+            if (mask == 0) {
+                throw new IllegalArgumentException("O tabuleiro não tem solução");
+            }
+            if ((mask & (mask - 1)) == 0) {
+                place(cell, Integer.numberOfTrailingZeros(mask));
+                progress = true;
+            }
+        }
+        return progress;
+    }
+
+    private boolean hiddenSingles() {
+        boolean progress = false;
+        for (int[] unit : units) {
+            int once = 0;
+            int twice = 0;
+            for (int cell : unit) {
+                twice |= once & candidates[cell];
+                once |= candidates[cell];
+            }
+
+            for (int singles = once & ~twice; singles != 0; singles &= singles - 1) {
+                int bit = singles & -singles;
+                for (int cell : unit) {
+                    // Uma colocação anterior nesta passada pode ter removido o candidato
+                    if ((candidates[cell] & bit) != 0) {
+                        place(cell, Integer.numberOfTrailingZeros(bit));
+                        progress = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return progress;
+    }
+
+    // ---------------------------------------------------- candidatos bloqueados
+
+    /**
+     * Apontamento (dígito de um bloco preso numa linha ou coluna) e
+     * reivindicação (dígito de uma linha ou coluna preso num bloco).
+     */
+    private boolean lockedCandidates() {
+        boolean progress = false;
+        for (int digit = 1; digit <= gridSize; digit++) {
+            int bit = 1 << digit;
+
+            for (int unit = 0; unit < unitCount; unit++) {
+                int first = -1;
+                boolean sameRow = true;
+                boolean sameCol = true;
+                boolean sameBox = true;
+                for (int cell : units[unit]) {
+                    if ((candidates[cell] & bit) == 0) {
+                        continue;
+                    }
+                    if (first < 0) {
+                        first = cell;
+                    } else {
+                        sameRow &= rowOf[cell] == rowOf[first];
+                        sameCol &= colOf[cell] == colOf[first];
+                        sameBox &= boxOf[cell] == boxOf[first];
+                    }
+                }
+                if (first < 0) {
+                    continue;
+                }
+
+                boolean isBox = unit >= 2 * gridSize;
+                if (isBox && sameRow) {
+                    progress |= eliminateOutside(units[rowOf[first]], unit, bit);
+                } else if (isBox && sameCol) {
+                    progress |= eliminateOutside(units[gridSize + colOf[first]], unit, bit);
+                } else if (!isBox && sameBox) {
+                    progress |= eliminateOutside(units[2 * gridSize + boxOf[first]], unit, bit);
+                }
+            }
+        }
+        return progress;
+    }
+
+    /**
+     * Remove o dígito das células de {@code target} que não pertencem à unidade
+     * {@code source}.
+     */
+    private boolean eliminateOutside(int[] target, int source, int bit) {
+        boolean progress = false;
+        for (int cell : target) {
+            if (!inUnit(cell, source)) {
+                progress |= eliminate(cell, bit);
+            }
+        }
+        return progress;
+    }
+
+    private boolean inUnit(int cell, int unit) {
+        if (unit < gridSize) {
+            return rowOf[cell] == unit;
+        }
+        if (unit < 2 * gridSize) {
+            return colOf[cell] == unit - gridSize;
+        }
+        return boxOf[cell] == unit - 2 * gridSize;
+    }
+
+    // ----------------------------------------------------------- subconjuntos
+
+    /**
+     * Pares e trios nus: {@code size} células de uma unidade cujos candidatos,
+     * juntos, somam {@code size} dígitos.
+     */
+    private boolean nakedSubsets(int size) {
+        boolean progress = false;
+        for (int unit = 0; unit < unitCount; unit++) {
+            int count = 0;
+            for (int index = 0; index < gridSize; index++) {
+                int mask = candidates[units[unit][index]];
+                int bits = Integer.bitCount(mask);
+                if (bits >= 2 && bits <= size) {
+                    subsetItems[count] = index;
+                    subsetMasks[count++] = mask;
+                }
+            }
+            if (count >= size) {
+                progress |= searchSubsets(NAKED, unit, count, size, 0, 0, 0, 0);
+            }
+        }
+        return progress;
+    }
+
+    /**
+     * Pares e trios ocultos: {@code size} dígitos de uma unidade que, juntos,
+     * só cabem em {@code size} células.
+     */
+    private boolean hiddenSubsets(int size) {
+        boolean progress = false;
+        for (int unit = 0; unit < unitCount; unit++) {
+            for (int digit = 1; digit <= gridSize; digit++) {
+                digitPositions[digit] = 0;
+            }
+            for (int index = 0; index < gridSize; index++) {
+                for (int mask = candidates[units[unit][index]]; mask != 0; mask &= mask - 1) {
+                    digitPositions[Integer.numberOfTrailingZeros(mask)] |= 1 << index;
+                }
+            }
+
+            int count = 0;
+            for (int digit = 1; digit <= gridSize; digit++) {
+                int bits = Integer.bitCount(digitPositions[digit]);
+                if (bits >= 2 && bits <= size) {
+                    subsetItems[count] = digit;
+                    subsetMasks[count++] = digitPositions[digit];
+                }
+            }
+            if (count >= size) {
+                progress |= searchSubsets(HIDDEN, unit, count, size, 0, 0, 0, 0);
+            }
+        }
+        return progress;
+    }
+
+    /**
+     * X-Wing ({@code size} 2) e Swordfish ({@code size} 3): {@code size} linhas
+     * em que um dígito só aparece em {@code size} colunas (ou o inverso).
+     */
+    private boolean fish(int size) {
+        boolean progress = false;
+        for (int digit = 1; digit <= gridSize; digit++) {
+            progress |= fish(FISH_ROWS, digit, size);
+            progress |= fish(FISH_COLUMNS, digit, size);
+        }
+        return progress;
+    }
+
+    private boolean fish(int mode, int digit, int size) {
+        int bit = 1 << digit;
+        int count = 0;
+        for (int line = 0; line < gridSize; line++) {
+            int[] unit = units[mode == FISH_ROWS ? line : gridSize + line];
+            int positions = 0;
+            for (int index = 0; index < gridSize; index++) {
+                if ((candidates[unit[index]] & bit) != 0) {
+                    positions |= 1 << index;
+                }
+            }
+            int bits = Integer.bitCount(positions);
+            if (bits >= 2 && bits <= size) {
+                subsetItems[count] = line;
+                subsetMasks[count++] = positions;
+            }
+        }
+        return count >= size && searchSubsets(mode, digit, count, size, 0, 0, 0, 0);
+    }
+
+    /**
+     * Percorre as combinações de {@code size} itens de subsetMasks[0..count)
+     * cuja união tem exatamente {@code size} bits, aplicando as eliminações de
+     * cada uma. {@code target} é a unidade (subconjuntos) ou o dígito (peixes).
+     */
+    private boolean searchSubsets(int mode, int target, int count, int size,
+                                  int start, int depth, int union, int chosen) {
+        if (depth == size) {
+            return Integer.bitCount(union) == size && applySubset(mode, target, count, union, chosen);
+        }
+        boolean progress = false;
+        for (int i = start; i <= count - (size - depth); i++) {
+            int merged = union | subsetMasks[i];
+            if (Integer.bitCount(merged) <= size) {
+                progress |= searchSubsets(mode, target, count, size, i + 1, depth + 1, merged, chosen | (1 << i));
+            }
+        }
+        return progress;
+    }
+
+    private boolean applySubset(int mode, int target, int count, int union, int chosen) {
+        // Itens escolhidos: posições na unidade, dígitos ou linhas-base
+        int items = 0;
+        for (int i = 0; i < count; i++) {
+            if ((chosen & (1 << i)) != 0) {
+                items |= 1 << subsetItems[i];
+            }
+        }
+
+        boolean progress = false;
+        int[] unit = units[mode == FISH_ROWS || mode == FISH_COLUMNS ? 0 : target];
+        switch (mode) {
+            case NAKED:
+                // Os dígitos do subconjunto saem das demais células da unidade
+                for (int index = 0; index < gridSize; index++) {
+                    if ((items & (1 << index)) == 0) {
+                        progress |= eliminate(unit[index], union);
+                    }
+                }
+                break;
+            case HIDDEN:
+                // As células do subconjunto ficam só com os dígitos dele
+                for (int index = 0; index < gridSize; index++) {
+                    if ((union & (1 << index)) != 0) {
+                        progress |= eliminate(unit[index], allDigits & ~items);
+                    }
+                }
+                break;
+            default:
+                // Peixe: o dígito sai das linhas cobertas fora das linhas-base
+                int bit = 1 << target;
+                for (int cover = union; cover != 0; cover &= cover - 1) {
+                    int coverLine = Integer.numberOfTrailingZeros(cover);
+                    int[] line = units[mode == FISH_ROWS ? gridSize + coverLine : coverLine];
+                    for (int index = 0; index < gridSize; index++) {
+                        if ((items & (1 << index)) == 0) {
+                            progress |= eliminate(line[index], bit);
+                        }
+                    }
+                }
+                break;
+        }
+        return progress;
+    }
+
+    // ------------------------------------------------------------- cadeias XY
+
+    /**
+     * Cadeias de células com dois candidatos em que cada elo compartilha um
+     * dígito com o anterior. Se a ponta inicial não for z, a final é z: z sai
+     * das células que enxergam as duas pontas. Com três células é o XY-Wing.
+     */
+    private boolean xyChains(int maxLength) {
+        for (int start = 0; start < cellCount; start++) {
+            int mask = candidates[start];
+            if (Integer.bitCount(mask) != 2) {
+                continue;
+            }
+            for (int digits = mask; digits != 0; digits &= digits - 1) {
+                chainStart = start;
+                chainDigit = Integer.numberOfTrailingZeros(digits);
+                int other = Integer.numberOfTrailingZeros(mask & ~(1 << chainDigit));
+
+                inChain[start] = true;
+                boolean progress = extendChain(start, other, 1, maxLength);
+                inChain[start] = false;
+                if (progress) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param forced dígito que {@code cell} assume se a ponta inicial não for z
+     */
+    private boolean extendChain(int cell, int forced, int length, int maxLength) {
+        int forcedBit = 1 << forced;
+        for (int peer : peers[cell]) {
+            int mask = candidates[peer];
+            if (inChain[peer] || (mask & forcedBit) == 0 || Integer.bitCount(mask) != 2) {
+                continue;
+            }
+            int next = Integer.numberOfTrailingZeros(mask & ~forcedBit);
+            if (next == chainDigit && length + 1 >= XY_WING_LENGTH
+                    && eliminateCommonPeers(chainStart, peer, 1 << chainDigit)) {
+                return true;
+            }
+            if (length + 1 < maxLength) {
+                inChain[peer] = true;
+                boolean progress = extendChain(peer, next, length + 1, maxLength);
+                inChain[peer] = false;
+                if (progress) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean eliminateCommonPeers(int a, int b, int bit) {
+        boolean progress = false;
+        for (int peer : peers[a]) {
+            if (peer != b && sees(peer, b)) {
+                progress |= eliminate(peer, bit);
+            }
+        }
+        return progress;
+    }
+}
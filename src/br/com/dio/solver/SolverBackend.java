@@ -0,0 +1,52 @@
+// ============= SolverBackend.java =============
+package br.com.dio.solver;
+
+import java.util.Locale;
+
+/**
+ * Motores de resolução disponíveis, selecionáveis em tempo de execução.
+ */
+public enum SolverBackend {
+    BITMASK("Máscaras de bits") {
+        @Override
+        public SudokuSolver create(int subgridSize) {
+            return new BitmaskSolver(subgridSize);
+        }
+    },
+    DLX("Dancing Links") {
+        @Override
+        public SudokuSolver create(int subgridSize) {
+            return new DlxSolver(subgridSize);
+        }
+    };
+
+    private final String description;
+
+    SolverBackend(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Cria uma nova instância do motor para blocos de lado {@code subgridSize}.
+     */
+    public abstract SudokuSolver create(int subgridSize);
+
+    /**
+     * Converte o nome do motor (sem diferenciar maiúsculas) ou retorna
+     * {@code fallback} se o nome for nulo.
+     */
+    public static SolverBackend fromName(String name, SolverBackend fallback) {
+        if (name == null || name.isBlank()) {
+            return fallback;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Motor de resolução inválido: " + name);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+// ============= SudokuSolver.java =============
+package br.com.dio.solver;
+
+/**
+ * Interface comum dos motores de resolução. Os tabuleiros são arrays de N x N
+ * posições em ordem de linhas, com 0 nas células vazias. As implementações não
+ * são thread-safe.
+ */
+public interface SudokuSolver {
+    /** Retornado por countSolutions quando o limite de nós foi esgotado. */
+    int UNKNOWN = -1;
+
+    int getGridSize();
+
+    /**
+     * Resolve o tabuleiro. Em caso de sucesso a solução é escrita no próprio array.
+     *
+     * @return true se o tabuleiro tem solução
+     */
+    default boolean solve(int[] grid) {
+        return solve(grid, Long.MAX_VALUE);
+    }
+
+    /**
+     * Como {@link #solve(int[])}, mas desiste depois de visitar
+     * {@code maxNodes} nós da busca e retorna false.
+     */
+    boolean solve(int[] grid, long maxNodes);
+
+    /**
+     * Conta as soluções, parando assim que {@code limit} forem encontradas.
+     * Use {@code limit = 2} para verificar unicidade. O array não é alterado.
+     */
+    default int countSolutions(int[] grid, int limit) {
+        return countSolutions(grid, limit, Long.MAX_VALUE);
+    }
+
+    /**
+     * Como {@link #countSolutions(int[], int)}, mas desiste depois de visitar
+     * {@code maxNodes} nós da busca e retorna {@link #UNKNOWN}.
+     */
+    int countSolutions(int[] grid, int limit, long maxNodes);
+
+    /**
+     * Conta as soluções até {@code limit}, como {@link #countSolutions(int[], int)},
+     * e escreve a primeira encontrada no próprio array: resolve e verifica a
+     * unicidade numa só busca.
+     */
+    int solveAndCount(int[] grid, int limit);
+
+    /**
+     * Nós da busca visitados desde a criação da instância (acumulado).
+     */
+    long getNodeCount();
+
+    /**
+     * Ramos abandonados por contradição desde a criação (acumulado).
+     */
+    long getBacktrackCount();
+
+    /**
+     * Passos de propagação desde a criação (acumulado): células deduzidas no
+     * motor de máscaras, colunas cobertas no DLX.
+     */
+    long getPropagationCount();
+}
@@ -0,0 +1,129 @@
+// ============= BankFormat.java =============
+package br.com.dio.storage;
+
+import br.com.dio.generator.Canonicalizer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Formato binário do banco de puzzles.
+ *
+ * Arquivo: cabeçalho de {@value #HEADER_SIZE} bytes, registros de tamanho fixo,
+ * índice por nota (números dos registros ordenados pela técnica exigida) e
+ * tabela hash por forma canônica (endereçamento aberto, número do registro
+ * + 1 em cada posição, 0 para vazia).
+ *
+ * Registro: chave canônica (8 bytes), nota (1 byte, ordinal de Technique),
+ * solução com um valor (v - 1) a cada 4 bits, ou 5 bits no 25x25, e a máscara
+ * das pistas (1 bit por célula), completado até um múltiplo de 8 bytes.
+ * No 9x9 são 64 bytes por puzzle.
+ */
+final class BankFormat {
+    static final int MAGIC = 0x53444B42; // "SDKB"
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 256;
+
+    // Campos do cabeçalho
+    static final int HEADER_MAGIC = 0;
+    static final int HEADER_VERSION = 4;
+    static final int HEADER_SUBGRID_SIZE = 8;
+    static final int HEADER_RECORD_SIZE = 12;
+    static final int HEADER_COUNT = 16;
+    static final int HEADER_GRADE_INDEX = 24;
+    static final int HEADER_HASH_INDEX = 32;
+    static final int HEADER_HASH_SLOTS = 40;
+    // Início de cada nota no índice por nota (uma posição a mais no fim)
+    static final int HEADER_GRADE_STARTS = 48;
+
+    static final int KEY_OFFSET = 0;
+    static final int GRADE_OFFSET = 8;
+    static final int SOLUTION_OFFSET = 9;
+
+    final int subgridSize;
+    final int gridSize;
+    final int cellCount;
+    final int bitsPerValue;
+    final int maskOffset;
+    final int recordSize;
+
+    BankFormat(int subgridSize) {
+        this.subgridSize = subgridSize;
+        this.gridSize = subgridSize * subgridSize;
+        this.cellCount = gridSize * gridSize;
+        this.bitsPerValue = gridSize <= 16 ? 4 : 5;
+        this.maskOffset = SOLUTION_OFFSET + (cellCount * bitsPerValue + 7) / 8;
+        this.recordSize = (maskOffset + (cellCount + 7) / 8 + 7) & ~7;
+    }
+
+    void encode(int[] puzzle, int[] solution, int grade, long key, byte[] record, int offset) {
+        ByteBuffer.wrap(record).putLong(offset + KEY_OFFSET, key);
+        record[offset + GRADE_OFFSET] = (byte) grade;
+
+        int solutionEnd = offset + maskOffset;
+        for (int i = offset + SOLUTION_OFFSET; i < offset + recordSize; i++) {
+            record[i] = 0;
+        }
+        long bit = (long) (offset + SOLUTION_OFFSET) * 8;
+        for (int i = 0; i < cellCount; i++, bit += bitsPerValue) {
+            writeBits(record, bit, solution[i] - 1);
+        }
+        for (int i = 0; i < cellCount; i++) {
+            if (puzzle[i] != 0) {
+                record[solutionEnd + (i >>> 3)] |= (byte) (1 << (i & 7));
+            }
+        }
+    }
+
+    void decode(byte[] record, int[] puzzle, int[] solution) {
+        long bit = SOLUTION_OFFSET * 8L;
+        for (int i = 0; i < cellCount; i++, bit += bitsPerValue) {
+            solution[i] = readBits(record, bit) + 1;
+            boolean given = (record[maskOffset + (i >>> 3)] & (1 << (i & 7))) != 0;
+            puzzle[i] = given ? solution[i] : 0;
+        }
+    }
+
+    private void writeBits(byte[] record, long bit, int value) {
+        // Um valor ocupa no máximo dois bytes
+        int index = (int) (bit >>> 3);
+        int shifted = value << (int) (bit & 7);
+        record[index] |= (byte) shifted;
+        if ((shifted >>> 8) != 0) {
+            record[index + 1] |= (byte) (shifted >>> 8);
+        }
+    }
+
+    private int readBits(byte[] record, long bit) {
+        int index = (int) (bit >>> 3);
+        int word = record[index] & 0xFF;
+        if (index + 1 < record.length) {
+            word |= (record[index + 1] & 0xFF) << 8;
+        }
+        return (word >>> (int) (bit & 7)) & ((1 << bitsPerValue) - 1);
+    }
+
+    long canonicalKey(int[] puzzle, int[] solution) {
+        return Canonicalizer.keyOf(subgridSize, puzzle, solution);
+    }
+
+    /**
+     * Espalha os bits da chave (finalizador do MurmurHash3).
+     */
+    static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xFF51AFD7ED558CCDL;
+        key ^= key >>> 33;
+        key *= 0xC4CEB93FE53D1A85L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    static int hashSlots(long count) {
+        // Ocupação de no máximo 50%
+        long slots = Long.highestOneBit(Math.max(8, count * 2 - 1)) << 1;
+        if (slots > 1 << 30) {
+            throw new IllegalArgumentException("Banco grande demais: " + count + " puzzles");
+        }
+        return (int) slots;
+    }
+}
@@ -0,0 +1,73 @@
+// ============= MappedRegion.java =============
+package br.com.dio.storage;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Trecho de arquivo mapeado em memória como uma sequência de elementos de
+ * tamanho fixo. Um MappedByteBuffer cobre no máximo 2 GB, então o trecho é
+ * dividido em blocos de até 1 GB alinhados ao tamanho do elemento, e nenhum
+ * elemento fica dividido entre dois blocos. Só usa os métodos absolutos dos
+ * buffers, por isso as leituras podem ser feitas por várias threads.
+ */
+final class MappedRegion {
+    private static final long MAX_CHUNK_BYTES = 1L << 30;
+
+    private final MappedByteBuffer[] chunks;
+    private final long chunkElements;
+    private final int elementSize;
+
+    MappedRegion(FileChannel channel, FileChannel.MapMode mode, long offset, long elements, int elementSize)
+            throws IOException {
+        this.elementSize = elementSize;
+        this.chunkElements = MAX_CHUNK_BYTES / elementSize;
+
+        int chunkCount = (int) ((elements + chunkElements - 1) / chunkElements);
+        chunks = new MappedByteBuffer[chunkCount];
+        for (int i = 0; i < chunkCount; i++) {
+            long first = i * chunkElements;
+            long size = Math.min(chunkElements, elements - first) * elementSize;
+            chunks[i] = channel.map(mode, offset + first * elementSize, size);
+        }
+    }
+
+    void get(long index, byte[] target) {
+        chunk(index).get(position(index), target, 0, elementSize);
+    }
+
+    void put(long index, byte[] source, int offset) {
+        chunk(index).put(position(index), source, offset, elementSize);
+    }
+
+    int getInt(long index, int field) {
+        return chunk(index).getInt(position(index) + field);
+    }
+
+    void putInt(long index, int field, int value) {
+        chunk(index).putInt(position(index) + field, value);
+    }
+
+    long getLong(long index, int field) {
+        return chunk(index).getLong(position(index) + field);
+    }
+
+    byte getByte(long index, int field) {
+        return chunk(index).get(position(index) + field);
+    }
+
+    void force() {
+        for (MappedByteBuffer chunk : chunks) {
+            chunk.force();
+        }
+    }
+
+    private MappedByteBuffer chunk(long index) {
+        return chunks[(int) (index / chunkElements)];
+    }
+
+    private int position(long index) {
+        return (int) (index % chunkElements) * elementSize;
+    }
+}
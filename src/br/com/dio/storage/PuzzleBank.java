@@ -0,0 +1,227 @@
+// ============= PuzzleBank.java =============
+package br.com.dio.storage;
+
+import br.com.dio.enums.DifficultyLevel;
+import br.com.dio.enums.Technique;
+import br.com.dio.model.SudokuBoard;
+import br.com.dio.solver.BitmaskSolver;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.random.RandomGenerator;
+
+/**
+ * Banco de puzzles em arquivo, somente leitura, gerado por
+ * {@link PuzzleBankWriter}. Registros e índices são lidos pelo mapeamento do
+ * arquivo em memória: abrir o banco não desserializa nada, e carregar o
+ * puzzle número N de um nível é O(1). Pode ser consultado por várias threads.
+ */
+public class PuzzleBank implements Closeable {
+    private final BankFormat format;
+    private final FileChannel channel;
+    private final long count;
+    private final long[] gradeStarts;
+    private final int hashMask;
+    private final MappedRegion records;
+    private final MappedRegion gradeIndex;
+    private final MappedRegion hash;
+
+    private PuzzleBank(FileChannel channel, ByteBuffer header) throws IOException {
+        this.channel = channel;
+        this.format = new BankFormat(header.getInt(BankFormat.HEADER_SUBGRID_SIZE));
+        this.count = header.getLong(BankFormat.HEADER_COUNT);
+
+        int gradeCount = Technique.values().length;
+        gradeStarts = new long[gradeCount + 1];
+        for (int grade = 0; grade <= gradeCount; grade++) {
+            gradeStarts[grade] = header.getLong(BankFormat.HEADER_GRADE_STARTS + grade * Long.BYTES);
+        }
+        int hashSlots = (int) header.getLong(BankFormat.HEADER_HASH_SLOTS);
+        hashMask = hashSlots - 1;
+
+        FileChannel.MapMode mode = FileChannel.MapMode.READ_ONLY;
+        records = new MappedRegion(channel, mode, BankFormat.HEADER_SIZE, count, format.recordSize);
+        gradeIndex = new MappedRegion(channel, mode, header.getLong(BankFormat.HEADER_GRADE_INDEX),
+                count, Integer.BYTES);
+        hash = new MappedRegion(channel, mode, header.getLong(BankFormat.HEADER_HASH_INDEX),
+                hashSlots, Integer.BYTES);
+    }
+
+    public static PuzzleBank open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new PuzzleBank(channel, readHeader(channel, 0));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Lê e valida o cabeçalho. Com {@code subgridSize} diferente de 0, exige
+     * também esse tamanho de tabuleiro.
+     */
+    static ByteBuffer readHeader(FileChannel channel, int subgridSize) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(BankFormat.HEADER_SIZE);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                throw new IOException("Banco de puzzles truncado");
+            }
+        }
+        if (header.getInt(BankFormat.HEADER_MAGIC) != BankFormat.MAGIC
+                || header.getInt(BankFormat.HEADER_VERSION) != BankFormat.VERSION) {
+            throw new IOException("Arquivo não é um banco de puzzles compatível");
+        }
+        int storedSize = header.getInt(BankFormat.HEADER_SUBGRID_SIZE);
+        if (subgridSize != 0 && storedSize != subgridSize) {
+            throw new IllegalArgumentException("O banco guarda tabuleiros com blocos de lado " + storedSize);
+        }
+        return header;
+    }
+
+    public int getSubgridSize() {
+        return format.subgridSize;
+    }
+
+    public long size() {
+        return count;
+    }
+
+    public long count(Technique grade) {
+        return gradeStarts[grade.ordinal() + 1] - gradeStarts[grade.ordinal()];
+    }
+
+    public long count(DifficultyLevel level) {
+        return gradeStarts[lastGrade(level) + 1] - gradeStarts[firstGrade(level)];
+    }
+
+    public Technique getGrade(long index) {
+        checkIndex(index, count);
+        return Technique.values()[records.getByte(index, BankFormat.GRADE_OFFSET) & 0xFF];
+    }
+
+    /**
+     * Carrega o puzzle de número {@code index} (ordem de gravação).
+     */
+    public void load(long index, SudokuBoard target) {
+        checkIndex(index, count);
+        if (target.getSubgridSize() != format.subgridSize) {
+            throw new IllegalArgumentException("O banco guarda tabuleiros de "
+                    + format.gridSize + "x" + format.gridSize);
+        }
+        byte[] record = new byte[format.recordSize];
+        int[] puzzle = new int[format.cellCount];
+        int[] solution = new int[format.cellCount];
+        records.get(index, record);
+        format.decode(record, puzzle, solution);
+        target.loadPuzzle(puzzle, solution);
+    }
+
+    /**
+     * Número do registro do {@code n}-ésimo puzzle do nível.
+     */
+    public long indexOf(DifficultyLevel level, long n) {
+        checkIndex(n, count(level));
+        return gradeIndex.getInt(gradeStarts[firstGrade(level)] + n, 0);
+    }
+
+    /**
+     * Carrega o {@code n}-ésimo puzzle do nível em O(1).
+     */
+    public void load(DifficultyLevel level, long n, SudokuBoard target) {
+        load(indexOf(level, n), target);
+    }
+
+    /**
+     * Carrega um puzzle sorteado do nível.
+     *
+     * @return false se o banco não tem puzzles desse nível
+     */
+    public boolean loadRandom(DifficultyLevel level, RandomGenerator random, SudokuBoard target) {
+        long available = count(level);
+        if (available == 0) {
+            return false;
+        }
+        load(level, random.nextLong(available), target);
+        return true;
+    }
+
+    /**
+     * Procura um puzzle (pistas, 0 nas vazias) pela forma canônica. O puzzle
+     * é resolvido antes, porque a forma canônica depende da solução; para
+     * evitar isso, use {@link #find(int[], int[])}.
+     *
+     * @return o número do registro equivalente, ou -1 se não há
+     */
+    public long find(int[] puzzle) {
+        checkLength(puzzle);
+        int[] solution = puzzle.clone();
+        if (!new BitmaskSolver(format.subgridSize).solve(solution)) {
+            return -1;
+        }
+        return find(puzzle, solution);
+    }
+
+    /**
+     * Procura um puzzle cuja solução já é conhecida.
+     */
+    public long find(int[] puzzle, int[] solution) {
+        checkLength(puzzle);
+        checkLength(solution);
+        long key = format.canonicalKey(puzzle, solution);
+        int slot = (int) BankFormat.mix(key) & hashMask;
+        while (true) {
+            int entry = hash.getInt(slot, 0);
+            if (entry == 0) {
+                return -1;
+            }
+            if (records.getLong(entry - 1, BankFormat.KEY_OFFSET) == key) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & hashMask;
+        }
+    }
+
+    public boolean contains(int[] puzzle) {
+        return find(puzzle) >= 0;
+    }
+
+    /**
+     * Chave canônica gravada no registro.
+     */
+    public long getCanonicalKey(long index) {
+        checkIndex(index, count);
+        return records.getLong(index, BankFormat.KEY_OFFSET);
+    }
+
+    private void checkLength(int[] grid) {
+        if (grid.length != format.cellCount) {
+            throw new IllegalArgumentException("O tabuleiro deve ter " + format.cellCount + " células");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // As notas de um nível são contíguas na ordem de Technique
+    private static int firstGrade(DifficultyLevel level) {
+        return level.ordinal() == 0 ? 0
+                : DifficultyLevel.values()[level.ordinal() - 1].getHardestTechnique().ordinal() + 1;
+    }
+
+    private static int lastGrade(DifficultyLevel level) {
+        return level.getHardestTechnique().ordinal();
+    }
+
+    private static void checkIndex(long index, long size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Puzzle " + index + " fora do intervalo 0.." + (size - 1));
+        }
+    }
+}
@@ -0,0 +1,224 @@
+// ============= PuzzleBankWriter.java =============
+package br.com.dio.storage;
+
+import br.com.dio.enums.Technique;
+import br.com.dio.model.SudokuBoard;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Grava puzzles num banco. Se o arquivo já existe, os novos puzzles são
+ * acrescentados aos registros existentes. Os índices por nota e por forma
+ * canônica são reconstruídos no {@link #close()}, lendo os registros pelo
+ * mapeamento em memória, de modo que o heap não cresce com o banco.
+ * Não é thread-safe; para gravar em paralelo, codifique os registros nas
+ * threads de trabalho com {@link #encode} e grave-os com {@link #records()}.
+ */
+public class PuzzleBankWriter implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final BankFormat format;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final byte[] record;
+    private long count;
+
+    public PuzzleBankWriter(Path path, int subgridSize) throws IOException {
+        if (subgridSize < SudokuBoard.MIN_SUBGRID_SIZE || subgridSize > SudokuBoard.MAX_SUBGRID_SIZE) {
+            throw new IllegalArgumentException("Tamanho de bloco não suportado: " + subgridSize);
+        }
+        format = new BankFormat(subgridSize);
+        boolean exists = Files.exists(path) && Files.size(path) > 0;
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        try {
+            if (exists) {
+                count = PuzzleBank.readHeader(channel, subgridSize).getLong(BankFormat.HEADER_COUNT);
+                // Descarta os índices antigos: serão reconstruídos no close()
+                channel.truncate(BankFormat.HEADER_SIZE + count * format.recordSize);
+            } else {
+                channel.truncate(0);
+                channel.write(ByteBuffer.allocate(BankFormat.HEADER_SIZE), 0);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        channel.position(BankFormat.HEADER_SIZE + count * format.recordSize);
+
+        buffer = ByteBuffer.allocateDirect(BUFFER_SIZE - BUFFER_SIZE % format.recordSize);
+        record = new byte[format.recordSize];
+    }
+
+    public int getRecordSize() {
+        return format.recordSize;
+    }
+
+    public long size() {
+        return count;
+    }
+
+    /**
+     * Acrescenta o puzzle (pistas originais e solução) do tabuleiro.
+     */
+    public void add(SudokuBoard board) throws IOException {
+        encode(board, record, 0);
+        write(record, 0, record.length);
+    }
+
+    /**
+     * Codifica o tabuleiro como um registro do banco, avaliando sua nota.
+     * Pode ser chamado por várias threads ao mesmo tempo.
+     */
+    public void encode(SudokuBoard board, byte[] target, int offset) {
+        encode(board, board.grade(), target, offset);
+    }
+
+    public void encode(SudokuBoard board, Technique grade, byte[] target, int offset) {
+        if (board.getSubgridSize() != format.subgridSize) {
+            throw new IllegalArgumentException("O banco guarda apenas tabuleiros de "
+                    + format.gridSize + "x" + format.gridSize);
+        }
+        if (!board.hasSolution()) {
+            throw new IllegalArgumentException("Só puzzles com solução podem ser guardados no banco");
+        }
+        int[] puzzle = new int[format.cellCount];
+        int[] solution = new int[format.cellCount];
+        board.copyPuzzle(puzzle);
+        board.copySolution(solution);
+        format.encode(puzzle, solution, grade.ordinal(), format.canonicalKey(puzzle, solution), target, offset);
+    }
+
+    /**
+     * Saída para registros já codificados; cada escrita deve conter registros
+     * inteiros.
+     */
+    public OutputStream records() {
+        return new OutputStream() {
+            @Override
+            public void write(int b) {
+                throw new UnsupportedOperationException("Grave registros inteiros");
+            }
+
+            @Override
+            public void write(byte[] data, int offset, int length) throws IOException {
+                PuzzleBankWriter.this.write(data, offset, length);
+            }
+        };
+    }
+
+    private void write(byte[] data, int offset, int length) throws IOException {
+        if (length % format.recordSize != 0) {
+            throw new IllegalArgumentException("Tamanho não corresponde a registros inteiros: " + length);
+        }
+        int end = offset + length;
+        while (offset < end) {
+            int chunk = Math.min(buffer.remaining(), end - offset);
+            buffer.put(data, offset, chunk);
+            offset += chunk;
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+        }
+        count += length / format.recordSize;
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Grava os registros pendentes, reconstrói os índices e atualiza o cabeçalho.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+            buildIndexes();
+            channel.force(true);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void buildIndexes() throws IOException {
+        int gradeCount = Technique.values().length;
+        long recordsEnd = BankFormat.HEADER_SIZE + count * format.recordSize;
+        long gradeIndexOffset = recordsEnd;
+        long hashOffset = (gradeIndexOffset + count * Integer.BYTES + 7) & ~7L;
+        int hashSlots = BankFormat.hashSlots(count);
+
+        long[] gradeStarts = new long[gradeCount + 1];
+        if (count > 0) {
+            MappedRegion records = new MappedRegion(channel, FileChannel.MapMode.READ_ONLY,
+                    BankFormat.HEADER_SIZE, count, format.recordSize);
+
+            // Contagem por nota e ordenação por contagem dos números dos registros
+            for (long i = 0; i < count; i++) {
+                gradeStarts[gradeOf(records, i) + 1]++;
+            }
+            for (int grade = 0; grade < gradeCount; grade++) {
+                gradeStarts[grade + 1] += gradeStarts[grade];
+            }
+            MappedRegion gradeIndex = new MappedRegion(channel, FileChannel.MapMode.READ_WRITE,
+                    gradeIndexOffset, count, Integer.BYTES);
+            long[] next = gradeStarts.clone();
+            for (long i = 0; i < count; i++) {
+                gradeIndex.putInt(next[gradeOf(records, i)]++, 0, (int) i);
+            }
+            gradeIndex.force();
+
+            // Tabela hash por chave canônica, sondagem linear; na repetição fica o primeiro
+            MappedRegion hash = new MappedRegion(channel, FileChannel.MapMode.READ_WRITE,
+                    hashOffset, hashSlots, Integer.BYTES);
+            int mask = hashSlots - 1;
+            for (long i = 0; i < count; i++) {
+                long key = records.getLong(i, BankFormat.KEY_OFFSET);
+                int slot = (int) BankFormat.mix(key) & mask;
+                while (true) {
+                    int entry = hash.getInt(slot, 0);
+                    if (entry == 0) {
+                        hash.putInt(slot, 0, (int) i + 1);
+                        break;
+                    }
+                    if (records.getLong(entry - 1, BankFormat.KEY_OFFSET) == key) {
+                        break;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+            }
+            hash.force();
+        } else {
+            channel.write(ByteBuffer.allocate(hashSlots * Integer.BYTES), hashOffset);
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(BankFormat.HEADER_SIZE);
+        header.putInt(BankFormat.HEADER_MAGIC, BankFormat.MAGIC);
+        header.putInt(BankFormat.HEADER_VERSION, BankFormat.VERSION);
+        header.putInt(BankFormat.HEADER_SUBGRID_SIZE, format.subgridSize);
+        header.putInt(BankFormat.HEADER_RECORD_SIZE, format.recordSize);
+        header.putLong(BankFormat.HEADER_COUNT, count);
+        header.putLong(BankFormat.HEADER_GRADE_INDEX, gradeIndexOffset);
+        header.putLong(BankFormat.HEADER_HASH_INDEX, hashOffset);
+        header.putLong(BankFormat.HEADER_HASH_SLOTS, hashSlots);
+        for (int grade = 0; grade <= gradeCount; grade++) {
+            header.putLong(BankFormat.HEADER_GRADE_STARTS + grade * Long.BYTES, gradeStarts[grade]);
+        }
+        channel.write(header, 0);
+    }
+
+    private static int gradeOf(MappedRegion records, long index) {
+        return records.getByte(index, BankFormat.GRADE_OFFSET) & 0xFF;
+    }
+}
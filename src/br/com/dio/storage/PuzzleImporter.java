@@ -0,0 +1,327 @@
+// ============= PuzzleImporter.java =============
+package br.com.dio.storage;
+
+import br.com.dio.model.SudokuBoard;
+import br.com.dio.util.CellSymbols;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Importação em massa de coleções de puzzles em texto: uma linha por puzzle
+ * com N x N símbolos em ordem de linhas ('.' ou '0' nas vazias), como nos
+ * formatos .sdm e .txt de 81 caracteres. Texto após os símbolos, separado
+ * por espaço ou tabulação, é ignorado, assim como linhas vazias e linhas
+ * começando por '#'.
+ *
+ * O arquivo é lido por um FileChannel em blocos de bytes cortados no último
+ * fim de linha; cada bloco é processado numa tarefa de um ForkJoinPool, sem
+ * criar uma String por linha: os símbolos vão direto para o
+ * {@link SudokuBoard}, que verifica a unicidade e resolve numa só busca. Os
+ * puzzles de solução única são escritos na ordem de entrada, uma linha
+ * "puzzle solução" cada. Como no {@link br.com.dio.generator.BatchGenerator},
+ * uma janela limitada de blocos em andamento mantém a memória constante,
+ * qualquer que seja o tamanho do arquivo.
+ */
+public class PuzzleImporter {
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    private final int parallelism;
+    private final int chunkSize;
+    private final int subgridSize;
+
+    public PuzzleImporter(int parallelism, int subgridSize) {
+        this(parallelism, DEFAULT_CHUNK_SIZE, subgridSize);
+    }
+
+    /**
+     * @param chunkSize bytes lidos por bloco; deve caber ao menos uma linha
+     */
+    public PuzzleImporter(int parallelism, int chunkSize, int subgridSize) {
+        if (parallelism <= 0 || chunkSize <= 0) {
+            throw new IllegalArgumentException("Paralelismo e tamanho do bloco devem ser positivos");
+        }
+        if (subgridSize < SudokuBoard.MIN_SUBGRID_SIZE || subgridSize > SudokuBoard.MAX_SUBGRID_SIZE) {
+            throw new IllegalArgumentException("Tamanho de bloco não suportado: " + subgridSize);
+        }
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+        this.subgridSize = subgridSize;
+    }
+
+    /**
+     * Contagem das linhas de uma importação.
+     */
+    public static final class Result {
+        private long puzzles;
+        private long imported;
+        private long malformed;
+        private long unsolvable;
+        private long multiple;
+
+        /**
+         * Linhas com puzzle (sem contar vazias e comentários).
+         */
+        public long getPuzzles() {
+            return puzzles;
+        }
+
+        /**
+         * Puzzles de solução única, escritos na saída.
+         */
+        public long getImported() {
+            return imported;
+        }
+
+        /**
+         * Linhas curtas demais ou com símbolos inválidos.
+         */
+        public long getMalformed() {
+            return malformed;
+        }
+
+        /**
+         * Pistas contraditórias ou sem solução.
+         */
+        public long getUnsolvable() {
+            return unsolvable;
+        }
+
+        public long getMultiple() {
+            return multiple;
+        }
+
+        private void add(ChunkTask task) {
+            puzzles += task.puzzles;
+            imported += task.imported;
+            malformed += task.malformed;
+            unsolvable += task.unsolvable;
+            multiple += task.multiple;
+        }
+
+        @Override
+        public String toString() {
+            return puzzles + " puzzles: " + imported + " importados, " + malformed + " malformados, "
+                    + unsolvable + " sem solução, " + multiple + " com mais de uma solução";
+        }
+    }
+
+    public Result importFile(Path input, Path output) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        int window = parallelism * 4;
+        Deque<ChunkTask> pending = new ArrayDeque<>(window);
+        Result result = new Result();
+
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            byte[] previous = null;
+            int tailStart = 0;
+            int tailEnd = 0;
+            boolean eof = false;
+
+            while (!eof) {
+                // O trecho após o último fim de linha do bloco anterior abre o próximo
+                byte[] chunk = new byte[chunkSize];
+                int carried = tailEnd - tailStart;
+                if (carried > 0) {
+                    System.arraycopy(previous, tailStart, chunk, 0, carried);
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(chunk, carried, chunkSize - carried);
+                while (buffer.hasRemaining()) {
+                    if (in.read(buffer) < 0) {
+                        eof = true;
+                        break;
+                    }
+                }
+                int filled = buffer.position();
+
+                int end = eof ? filled : lastLineEnd(chunk, filled);
+                if (end == 0 && !eof) {
+                    throw new IOException("Linha maior que o bloco de " + chunkSize + " bytes");
+                }
+                previous = chunk;
+                tailStart = end;
+                tailEnd = filled;
+
+                if (end > 0) {
+                    ChunkTask task = new ChunkTask(chunk, end, subgridSize);
+                    pool.execute(task);
+                    pending.addLast(task);
+                    if (pending.size() >= window) {
+                        drain(pending.removeFirst(), out, result);
+                    }
+                }
+            }
+
+            while (!pending.isEmpty()) {
+                drain(pending.removeFirst(), out, result);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return result;
+    }
+
+    private static int lastLineEnd(byte[] chunk, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (chunk[i] == '\n') {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    private static void drain(ChunkTask task, FileChannel out, Result result) throws IOException {
+        byte[] records = task.join();
+        ByteBuffer buffer = ByteBuffer.wrap(records, 0, task.length);
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        result.add(task);
+    }
+
+    /**
+     * Valida, resolve e codifica as linhas de um bloco.
+     */
+    private static final class ChunkTask extends RecursiveTask<byte[]> {
+        private final byte[] text;
+        private final int end;
+        private final int subgridSize;
+        // Preenchidos em compute(), visíveis após join()
+        private int length;
+        private int puzzles;
+        private int imported;
+        private int malformed;
+        private int unsolvable;
+        private int multiple;
+
+        ChunkTask(byte[] text, int end, int subgridSize) {
+            this.text = text;
+            this.end = end;
+            this.subgridSize = subgridSize;
+        }
+
+        @Override
+        protected byte[] compute() {
+            SudokuBoard board = new SudokuBoard(subgridSize);
+            int cellCount = board.getCellCount();
+            int recordLength = 2 * cellCount + 2;
+            byte[] records = new byte[countLines() * recordLength];
+
+            int start = 0;
+            while (start < end) {
+                int lineEnd = start;
+                while (lineEnd < end && text[lineEnd] != '\n') {
+                    lineEnd++;
+                }
+                int next = lineEnd + 1;
+                if (lineEnd > start && text[lineEnd - 1] == '\r') {
+                    lineEnd--;
+                }
+
+                if (lineEnd > start && text[start] != '#') {
+                    puzzles++;
+                    if (!parse(board, start, lineEnd - start)) {
+                        malformed++;
+                    } else {
+                        switch (board.solvePuzzle()) {
+                            case 0:
+                                unsolvable++;
+                                break;
+                            case 1:
+                                encode(board, records, length);
+                                length += recordLength;
+                                imported++;
+                                break;
+                            default:
+                                multiple++;
+                                break;
+                        }
+                    }
+                }
+                start = next;
+            }
+            return records;
+        }
+
+        private boolean parse(SudokuBoard board, int start, int lineLength) {
+            int cellCount = board.getCellCount();
+            if (lineLength < cellCount) {
+                return false;
+            }
+            if (lineLength > cellCount && text[start + cellCount] != ' ' && text[start + cellCount] != '\t') {
+                return false;
+            }
+            return board.loadPuzzle(text, start);
+        }
+
+        private int countLines() {
+            int lines = 1;
+            for (int i = 0; i < end; i++) {
+                if (text[i] == '\n') {
+                    lines++;
+                }
+            }
+            return lines;
+        }
+
+        private static void encode(SudokuBoard board, byte[] buffer, int offset) {
+            int size = board.getGridSize();
+            int position = offset;
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    buffer[position++] = (byte) CellSymbols.toSymbol(board.getPlayBoard(row, col));
+                }
+            }
+            buffer[position++] = ' ';
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    buffer[position++] = (byte) CellSymbols.toSymbol(board.getSolution(row, col));
+                }
+            }
+            buffer[position] = '\n';
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        String input = null;
+        String output = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int subgridSize = 3;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--in": input = args[i + 1]; break;
+                case "--out": output = args[i + 1]; break;
+                case "--threads": threads = Integer.parseInt(args[i + 1]); break;
+                case "--box": subgridSize = Integer.parseInt(args[i + 1]); break;
+                default:
+                    usage();
+                    return;
+            }
+        }
+        if (input == null || output == null || args.length % 2 != 0) {
+            usage();
+            return;
+        }
+
+        long start = System.nanoTime();
+        Result result = new PuzzleImporter(threads, subgridSize).importFile(Paths.get(input), Paths.get(output));
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println(result);
+        System.out.printf("%.2f s (%.0f puzzles/s, %d threads)%n", seconds, result.getPuzzles() / seconds, threads);
+    }
+
+    private static void usage() {
+        System.out.println("Uso: java br.com.dio.storage.PuzzleImporter --in arquivo --out arquivo "
+                + "[--threads T] [--box 2..5]");
+    }
+}
@@ -0,0 +1,37 @@
+// ============= CellSymbols.java =============
+package br.com.dio.util;
+
+/**
+ * Conversão entre valores de célula e os símbolos exibidos/digitados:
+ * 1 a 9 e, para tabuleiros maiores, letras a partir de A (A = 10 ... P = 25).
+ */
+public final class CellSymbols {
+    public static final char EMPTY = '.';
+
+    private CellSymbols() {
+    }
+
+    public static char toSymbol(int value) {
+        if (value == 0) {
+            return EMPTY;
+        }
+        return value <= 9 ? (char) ('0' + value) : (char) ('A' + value - 10);
+    }
+
+    /**
+     * @return o valor do símbolo, 0 para vazio ('0' ou '.') ou -1 se inválido
+     */
+    public static int fromSymbol(char symbol) {
+        if (symbol == EMPTY || symbol == '0') {
+            return 0;
+        }
+        if (symbol >= '1' && symbol <= '9') {
+            return symbol - '0';
+        }
+        char upper = Character.toUpperCase(symbol);
+        if (upper >= 'A' && upper <= 'P') {
+            return upper - 'A' + 10;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,50 @@
+// ============= Deadline.java =============
+package br.com.dio.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prazo de uma operação longa, medido com {@link System#nanoTime()}, que
+ * também pode ser cancelado por outra thread (por exemplo, quando outra
+ * tentativa já terminou). A operação consulta {@link #isExpired()} entre
+ * etapas e desiste quando ele retorna true.
+ */
+public final class Deadline {
+    private final long deadlineNanos;
+    private final boolean bounded;
+    private volatile boolean cancelled;
+
+    private Deadline(long deadlineNanos, boolean bounded) {
+        this.deadlineNanos = deadlineNanos;
+        this.bounded = bounded;
+    }
+
+    /**
+     * Prazo que só expira se for cancelado.
+     */
+    public static Deadline none() {
+        return new Deadline(0, false);
+    }
+
+    public static Deadline after(long timeout, TimeUnit unit) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("O prazo não pode ser negativo: " + timeout);
+        }
+        return new Deadline(System.nanoTime() + unit.toNanos(timeout), true);
+    }
+
+    public boolean isExpired() {
+        return cancelled || (bounded && System.nanoTime() - deadlineNanos >= 0);
+    }
+
+    /**
+     * Faz o prazo expirar imediatamente, para todas as threads que o usam.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
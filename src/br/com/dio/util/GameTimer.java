@@ -1,46 +1,76 @@
 package br.com.dio.util;
 
-import javax.swing.Timer;
-import java.awt.event.ActionListener;
-
 /**
- * Classe responsável pelo cronômetro do jogo
+ * Cronômetro de uma partida, medido com {@link System#nanoTime()}: não salta
+ * quando o relógio do sistema é ajustado. Pode ser pausado (diálogos, fim da
+ * partida) e retomado; o tempo pausado não conta.
+ *
+ * Não tem timer próprio: quem exibe o tempo consulta {@link #getElapsedMillis()}
+ * a cada tique do {@link TickScheduler} compartilhado. Não é thread-safe.
  */
 public class GameTimer {
-    private Timer timer;
-    private long startTime;
-    private ActionListener updateListener;
+    private long startNanos;
+    // Início da pausa atual, ou -1 se o cronômetro está correndo
+    private long pausedAt = -1;
+    private long pausedNanos;
 
-    public GameTimer(ActionListener updateListener) {
-        this.updateListener = updateListener;
+    /**
+     * Zera e inicia o cronômetro.
+     */
+    public void start() {
+        startNanos = System.nanoTime();
+        pausedAt = -1;
+        pausedNanos = 0;
     }
 
-    public void start() {
-        startTime = System.currentTimeMillis();
-        if (timer != null) {
-            timer.stop();
+    /**
+     * Congela o tempo até {@link #resume()}; não faz nada se já está pausado.
+     */
+    public void pause() {
+        if (pausedAt < 0) {
+            pausedAt = System.nanoTime();
         }
-        timer = new Timer(1000, updateListener);
-        timer.start();
     }
 
-    public void stop() {
-        if (timer != null) {
-            timer.stop();
+    public void resume() {
+        if (pausedAt >= 0) {
+            pausedNanos += System.nanoTime() - pausedAt;
+            pausedAt = -1;
         }
     }
 
-    public String getFormattedTime() {
-        long elapsedTime = System.currentTimeMillis() - startTime;
-        long minutes = (elapsedTime / 1000) / 60;
-        long seconds = (elapsedTime / 1000) % 60;
-        return String.format("Tempo: %02d:%02d", minutes, seconds);
+    public boolean isPaused() {
+        return pausedAt >= 0;
+    }
+
+    public long getElapsedNanos() {
+        long now = pausedAt >= 0 ? pausedAt : System.nanoTime();
+        return now - startNanos - pausedNanos;
     }
 
-    public String getElapsedTime() {
-        long elapsedTime = System.currentTimeMillis() - startTime;
-        long minutes = (elapsedTime / 1000) / 60;
-        long seconds = (elapsedTime / 1000) % 60;
-        return String.format("%02d:%02d", minutes, seconds);
+    public long getElapsedMillis() {
+        return getElapsedNanos() / 1_000_000;
+    }
+
+    /**
+     * Formata uma duração em ms como mm:ss.
+     */
+    public static String format(long elapsedMillis) {
+        return formatTo(elapsedMillis, new StringBuilder(5)).toString();
+    }
+
+    /**
+     * Acrescenta a duração como mm:ss (minutos com pelo menos dois dígitos),
+     * sem String.format nem alocação enquanto o builder tem capacidade.
+     */
+    public static StringBuilder formatTo(long elapsedMillis, StringBuilder target) {
+        long minutes = (elapsedMillis / 1000) / 60;
+        int seconds = (int) ((elapsedMillis / 1000) % 60);
+        if (minutes < 10) {
+            target.append('0');
+        }
+        target.append(minutes).append(':');
+        target.append((char) ('0' + seconds / 10)).append((char) ('0' + seconds % 10));
+        return target;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,71 @@
+// ============= SplitMix64.java =============
+package br.com.dio.util;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Gerador SplitMix64 (Steele, Lea e Flood): um contador de 64 bits somado a
+ * uma constante ímpar a cada passo e embaralhado por uma função de mistura.
+ * Rápido, sem alocação e com a sequência fixada aqui, e não na biblioteca
+ * padrão, cujo algoritmo pode mudar entre versões do Java: uma semente
+ * guardada hoje gera os mesmos números depois de uma atualização da JVM.
+ *
+ * Não é seguro para várias threads; use {@link #split()} para dar a cada
+ * tarefa um gerador independente e reproduzível.
+ */
+public final class SplitMix64 implements RandomGenerator {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long state;
+
+    public SplitMix64(long seed) {
+        this.state = seed;
+    }
+
+    @Override
+    public long nextLong() {
+        return mix(state += GOLDEN_GAMMA);
+    }
+
+    @Override
+    public int nextInt() {
+        return (int) (nextLong() >>> 32);
+    }
+
+    /**
+     * Inteiro uniforme em [0, bound), pela multiplicação de Lemire com
+     * rejeição; também fixado aqui para que a sequência não dependa da JVM.
+     */
+    @Override
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("O limite deve ser positivo: " + bound);
+        }
+        long product = (nextLong() >>> 32) * bound;
+        if ((product & 0xffffffffL) < bound) {
+            long threshold = (1L << 32) % bound;
+            while ((product & 0xffffffffL) < threshold) {
+                product = (nextLong() >>> 32) * bound;
+            }
+        }
+        return (int) (product >>> 32);
+    }
+
+    /**
+     * Novo gerador cuja sequência não se sobrepõe à deste na prática; a
+     * sequência dos dois continua determinada pela semente original.
+     */
+    public SplitMix64 split() {
+        return new SplitMix64(nextLong());
+    }
+
+    /**
+     * Função de mistura do SplitMix64 (variante 13 de Stafford); também
+     * serve para espalhar valores pequenos, como datas, em sementes.
+     */
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,61 @@
+// ============= TickScheduler.java =============
+package br.com.dio.util;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tique periódico compartilhado por todas as partidas: uma única thread
+ * daemon chama os assinantes a cada {@value #TICK_MILLIS} ms, em vez de um
+ * timer por partida. Os assinantes rodam nessa thread e devem ser rápidos;
+ * quem atualiza Swing repassa o tique com SwingUtilities.invokeLater.
+ */
+public final class TickScheduler {
+    public static final int TICK_MILLIS = 250;
+
+    private static final Set<Runnable> SUBSCRIBERS = ConcurrentHashMap.newKeySet();
+    private static ScheduledExecutorService executor;
+
+    private TickScheduler() {
+    }
+
+    /**
+     * Passa a chamar o assinante a cada tique. A thread é criada na primeira
+     * assinatura.
+     */
+    public static void subscribe(Runnable subscriber) {
+        SUBSCRIBERS.add(subscriber);
+        synchronized (TickScheduler.class) {
+            if (executor == null) {
+                executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "game-ticks");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                executor.scheduleAtFixedRate(TickScheduler::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    public static void unsubscribe(Runnable subscriber) {
+        SUBSCRIBERS.remove(subscriber);
+    }
+
+    public static int getSubscriberCount() {
+        return SUBSCRIBERS.size();
+    }
+
+    private static void tick() {
+        for (Runnable subscriber : SUBSCRIBERS) {
+            try {
+                subscriber.run();
+            } catch (RuntimeException e) {
+                // Um assinante com defeito não pode parar os demais
+                e.printStackTrace();
+            }
+        }
+    }
+}
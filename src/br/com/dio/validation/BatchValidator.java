@@ -0,0 +1,58 @@
+// ============= BatchValidator.java =============
+package br.com.dio.validation;
+
+/**
+ * Validação de lotes de tabuleiros pelas regras do jogo (linhas, colunas e
+ * blocos), sem solução armazenada. Serve para submissões de jogadores,
+ * bancos importados e verificações do gerador.
+ *
+ * Há duas implementações com o mesmo resultado: uma escalar, sempre
+ * disponível, e uma com a Vector API ({@code jdk.incubator.vector}), que
+ * valida várias faixas do lote por instrução. A vetorial fica numa raiz de
+ * fontes à parte ({@code vector/}), porque o módulo incubado precisa de
+ * {@code --add-modules jdk.incubator.vector} para compilar e para rodar;
+ * {@link #create()} a escolhe quando o módulo está presente.
+ */
+public interface BatchValidator {
+    String VECTOR_IMPLEMENTATION = "br.com.dio.validation.VectorBatchValidator";
+
+    /**
+     * Valida os {@link BoardBatch#size()} tabuleiros do lote.
+     *
+     * @param conflicts recebe, por tabuleiro, as repetições de dígitos em
+     *                  linhas, colunas e blocos, contadas como em
+     *                  {@link br.com.dio.model.SudokuBoard#countConflicts()}
+     * @param filled    recebe, por tabuleiro, as células preenchidas
+     */
+    void validate(BoardBatch batch, int[] conflicts, int[] filled);
+
+    /**
+     * Nome da implementação, para relatórios.
+     */
+    String getName();
+
+    /**
+     * A implementação vetorial se o módulo {@code jdk.incubator.vector}
+     * está carregado, e a escalar caso contrário. {@code -Dsudoku.validator=scalar}
+     * força a escalar.
+     */
+    static BatchValidator create() {
+        if (!"scalar".equalsIgnoreCase(System.getProperty("sudoku.validator"))
+                && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (BatchValidator) Class.forName(VECTOR_IMPLEMENTATION)
+                        .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Fontes vetoriais fora do classpath: fica a escalar
+            }
+        }
+        return new ScalarBatchValidator();
+    }
+
+    /**
+     * Indica se um tabuleiro validado está completo e sem conflitos.
+     */
+    static boolean isSolved(BoardBatch batch, int[] conflicts, int[] filled, int board) {
+        return conflicts[board] == 0 && filled[board] == batch.getCellCount();
+    }
+}
@@ -0,0 +1,177 @@
+// ============= BoardBatch.java =============
+package br.com.dio.validation;
+
+import br.com.dio.model.SudokuBoard;
+
+/**
+ * Lote de tabuleiros de um mesmo tamanho em estrutura de arrays: para cada
+ * célula, os valores de todos os tabuleiros ficam lado a lado
+ * ({@code values[célula * capacidade + tabuleiro]}). Assim a mesma célula de
+ * vários tabuleiros é lida de uma vez, e cada tabuleiro ocupa uma faixa dos
+ * vetores em {@link BatchValidator}. Valor 0 é célula vazia.
+ *
+ * Não é seguro para várias threads; reaproveite o lote com {@link #clear()}.
+ */
+public final class BoardBatch {
+    // A capacidade é arredondada para um múltiplo disto (16 ints = 512 bits),
+    // para que as faixas de qualquer largura de vetor caibam sem resto
+    static final int LANE_ALIGNMENT = 16;
+
+    // Células de cada unidade, por tamanho de bloco: linhas, colunas e blocos
+    // em sequência, gridSize células por unidade
+    private static final int[][] UNIT_CELLS = new int[SudokuBoard.MAX_SUBGRID_SIZE + 1][];
+
+    static {
+        for (int size = SudokuBoard.MIN_SUBGRID_SIZE; size <= SudokuBoard.MAX_SUBGRID_SIZE; size++) {
+            UNIT_CELLS[size] = buildUnits(size);
+        }
+    }
+
+    private final int subgridSize;
+    private final int gridSize;
+    private final int cellCount;
+    private final int capacity;
+    private final int[] values;
+    private int size;
+
+    /**
+     * @param subgridSize lado do bloco, como em {@link SudokuBoard}
+     * @param capacity    número máximo de tabuleiros no lote
+     */
+    public BoardBatch(int subgridSize, int capacity) {
+        if (subgridSize < SudokuBoard.MIN_SUBGRID_SIZE || subgridSize > SudokuBoard.MAX_SUBGRID_SIZE) {
+            throw new IllegalArgumentException("Tamanho de bloco não suportado: " + subgridSize);
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacidade inválida: " + capacity);
+        }
+        this.subgridSize = subgridSize;
+        this.gridSize = subgridSize * subgridSize;
+        this.cellCount = gridSize * gridSize;
+        this.capacity = (capacity + LANE_ALIGNMENT - 1) / LANE_ALIGNMENT * LANE_ALIGNMENT;
+        this.values = new int[cellCount * this.capacity];
+    }
+
+    public int getSubgridSize() {
+        return subgridSize;
+    }
+
+    public int getGridSize() {
+        return gridSize;
+    }
+
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isFull() {
+        return size == capacity;
+    }
+
+    /**
+     * Esvazia o lote. As posições livres voltam a ter só células vazias, que
+     * não geram conflitos se forem validadas.
+     */
+    public void clear() {
+        for (int cell = 0; cell < cellCount; cell++) {
+            int base = cell * capacity;
+            for (int board = 0; board < size; board++) {
+                values[base + board] = 0;
+            }
+        }
+        size = 0;
+    }
+
+    /**
+     * Acrescenta o tabuleiro de jogo atual de {@code board}.
+     *
+     * @return posição do tabuleiro no lote
+     */
+    public int add(SudokuBoard board) {
+        if (board.getSubgridSize() != subgridSize) {
+            throw new IllegalArgumentException("Tabuleiro de tamanho diferente do lote: " + board.getGridSize());
+        }
+        int index = reserve();
+        for (int row = 0; row < gridSize; row++) {
+            for (int col = 0; col < gridSize; col++) {
+                values[(row * gridSize + col) * capacity + index] = board.getPlayBoard(row, col);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Acrescenta uma grade em ordem de linhas, com 0 nas células vazias.
+     *
+     * @return posição do tabuleiro no lote
+     */
+    public int add(int[] grid) {
+        if (grid.length != cellCount) {
+            throw new IllegalArgumentException("Grade com " + grid.length + " células; esperado " + cellCount);
+        }
+        for (int value : grid) {
+            if (value < 0 || value > gridSize) {
+                throw new IllegalArgumentException("Valor fora do intervalo 0.." + gridSize + ": " + value);
+            }
+        }
+        int index = reserve();
+        for (int cell = 0; cell < cellCount; cell++) {
+            values[cell * capacity + index] = grid[cell];
+        }
+        return index;
+    }
+
+    public int get(int board, int row, int col) {
+        if (board < 0 || board >= size) {
+            throw new IllegalArgumentException("Tabuleiro fora do lote: " + board);
+        }
+        return values[(row * gridSize + col) * capacity + board];
+    }
+
+    int[] values() {
+        return values;
+    }
+
+    int[] unitCells() {
+        return UNIT_CELLS[subgridSize];
+    }
+
+    private int reserve() {
+        if (size == capacity) {
+            throw new IllegalArgumentException("Lote cheio: " + capacity + " tabuleiros");
+        }
+        return size++;
+    }
+
+    private static int[] buildUnits(int subgridSize) {
+        int gridSize = subgridSize * subgridSize;
+        int[] units = new int[3 * gridSize * gridSize];
+        int next = 0;
+        for (int row = 0; row < gridSize; row++) {
+            for (int col = 0; col < gridSize; col++) {
+                units[next++] = row * gridSize + col;
+            }
+        }
+        for (int col = 0; col < gridSize; col++) {
+            for (int row = 0; row < gridSize; row++) {
+                units[next++] = row * gridSize + col;
+            }
+        }
+        for (int box = 0; box < gridSize; box++) {
+            int firstRow = box / subgridSize * subgridSize;
+            int firstCol = box % subgridSize * subgridSize;
+            for (int i = 0; i < gridSize; i++) {
+                units[next++] = (firstRow + i / subgridSize) * gridSize + firstCol + i % subgridSize;
+            }
+        }
+        return units;
+    }
+}
@@ -0,0 +1,52 @@
+// ============= ScalarBatchValidator.java =============
+package br.com.dio.validation;
+
+/**
+ * Validação tabuleiro a tabuleiro. Cada unidade mantém a máscara dos
+ * dígitos vistos (bit d para o dígito d); uma célula cujo bit já estava na
+ * máscara é uma repetição.
+ */
+public final class ScalarBatchValidator implements BatchValidator {
+    @Override
+    public void validate(BoardBatch batch, int[] conflicts, int[] filled) {
+        validateRange(batch, 0, batch.size(), conflicts, filled);
+    }
+
+    @Override
+    public String getName() {
+        return "escalar";
+    }
+
+    /**
+     * Valida os tabuleiros {@code from} (inclusive) a {@code to} (exclusive);
+     * usado também para o resto que não preenche um vetor.
+     */
+    static void validateRange(BoardBatch batch, int from, int to, int[] conflicts, int[] filled) {
+        int[] values = batch.values();
+        int[] units = batch.unitCells();
+        int capacity = batch.getCapacity();
+        int gridSize = batch.getGridSize();
+        int cellCount = batch.getCellCount();
+
+        for (int board = from; board < to; board++) {
+            int repeated = 0;
+            int count = 0;
+            for (int unitStart = 0; unitStart < units.length; unitStart += gridSize) {
+                int seen = 0;
+                for (int i = unitStart; i < unitStart + gridSize; i++) {
+                    int value = values[units[i] * capacity + board];
+                    // Bit do dígito, ou 0 para célula vazia
+                    int bit = (1 << value) & ~1;
+                    repeated += (seen & bit) >>> value;
+                    seen |= bit;
+                    // As linhas vêm primeiro e cobrem cada célula uma vez
+                    if (unitStart < cellCount) {
+                        count += Math.min(value, 1);
+                    }
+                }
+            }
+            conflicts[board] = repeated;
+            filled[board] = count;
+        }
+    }
+}
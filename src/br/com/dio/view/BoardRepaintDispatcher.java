@@ -0,0 +1,153 @@
+// ============= BoardRepaintDispatcher.java =============
+package br.com.dio.view;
+
+import br.com.dio.model.BoardListener;
+import br.com.dio.model.SudokuBoard;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Leva as alterações do tabuleiro ao {@link SudokuGridPanel} agrupadas por
+ * quadro: cada aviso só marca a célula num conjunto de bits, e a EDT
+ * atualiza a tela no máximo uma vez a cada {@value #FRAME_MILLIS} ms com
+ * tudo o que foi marcado desde o quadro anterior. Rajadas (reinício,
+ * solução, reprodução, jogadas remotas) viram um único repaint.
+ *
+ * Os avisos podem vir de qualquer thread. Há no máximo uma tarefa deste
+ * despachante na fila de eventos do Swing de cada vez, então avisos mais
+ * rápidos que a tela não acumulam trabalho na EDT: os estados
+ * intermediários de uma célula são descartados e só o último é desenhado.
+ */
+public class BoardRepaintDispatcher implements BoardListener {
+    // Um quadro a 60 Hz, arredondado para a resolução do Timer do Swing
+    private static final int FRAME_MILLIS = 16;
+    private static final long FRAME_NANOS = FRAME_MILLIS * 1_000_000L;
+
+    private final SudokuGridPanel panel;
+    // Bit por célula; trocado só na EDT, em attach
+    private volatile AtomicLongArray dirty = new AtomicLongArray(0);
+    private volatile boolean allDirty;
+    // Há uma atualização agendada (na fila do Swing ou no Timer)
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final Timer frameTimer;
+    private final LongAdder events = new LongAdder();
+    private SudokuBoard board;
+    private int gridSize;
+    // Só na EDT
+    private long lastFlushNanos;
+    private long frames;
+
+    public BoardRepaintDispatcher(SudokuGridPanel panel) {
+        this.panel = panel;
+        this.frameTimer = new Timer(FRAME_MILLIS, e -> flush());
+        frameTimer.setRepeats(false);
+    }
+
+    /**
+     * Passa a observar {@code newBoard}, deixando de observar o anterior. Na EDT.
+     */
+    public void attach(SudokuBoard newBoard) {
+        if (board != null) {
+            board.removeListener(this);
+        }
+        board = newBoard;
+        gridSize = newBoard.getGridSize();
+        dirty = new AtomicLongArray((newBoard.getCellCount() + 63) / 64);
+        newBoard.addListener(this);
+        boardChanged();
+    }
+
+    @Override
+    public void cellChanged(int row, int col) {
+        // gridSize é escrito antes de dirty em attach: lido depois dele
+        AtomicLongArray bits = dirty;
+        int index = row * gridSize + col;
+        if (index >>> 6 >= bits.length()) {
+            // Aviso atrasado de um tabuleiro maior já substituído
+            return;
+        }
+        long bit = 1L << index;
+        if ((bits.get(index >>> 6) & bit) == 0) {
+            bits.getAndUpdate(index >>> 6, word -> word | bit);
+        }
+        requestFrame();
+    }
+
+    @Override
+    public void boardChanged() {
+        allDirty = true;
+        requestFrame();
+    }
+
+    /**
+     * Desenha já o que estiver pendente, sem esperar o quadro; por exemplo
+     * antes de abrir um diálogo modal. Na EDT.
+     */
+    public void flushNow() {
+        frameTimer.stop();
+        flush();
+    }
+
+    /**
+     * Avisos recebidos e quadros desenhados desde a criação: a razão entre
+     * os dois mostra quanto foi agrupado.
+     */
+    public long getEventCount() {
+        return events.sum();
+    }
+
+    public long getFrameCount() {
+        return frames;
+    }
+
+    private void requestFrame() {
+        events.increment();
+        if (scheduled.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::scheduleFrame);
+        }
+    }
+
+    private void scheduleFrame() {
+        long wait = lastFlushNanos + FRAME_NANOS - System.nanoTime();
+        if (wait <= 0) {
+            flush();
+        } else {
+            frameTimer.setInitialDelay((int) Math.max(1, wait / 1_000_000));
+            frameTimer.restart();
+        }
+    }
+
+    private void flush() {
+        // Liberado antes de ler os bits: um aviso durante a leitura agenda o próximo quadro
+        scheduled.set(false);
+        boolean everything = allDirty;
+        allDirty = false;
+
+        AtomicLongArray bits = dirty;
+        int changed = 0;
+        int lastIndex = -1;
+        for (int word = 0; word < bits.length(); word++) {
+            long marked = bits.getAndSet(word, 0);
+            if (marked != 0) {
+                changed += Long.bitCount(marked);
+                lastIndex = word * 64 + 63 - Long.numberOfLeadingZeros(marked);
+            }
+        }
+        if (!everything && changed == 0) {
+            return;
+        }
+
+        if (everything || changed > 1) {
+            // Compara o tabuleiro todo com a tela e repinta uma só região
+            panel.updateDisplay();
+        } else {
+            panel.updateCellDisplay(lastIndex / gridSize, lastIndex % gridSize);
+        }
+        lastFlushNanos = System.nanoTime();
+        frames++;
+    }
+}
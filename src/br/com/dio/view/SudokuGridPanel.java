@@ -2,141 +2,298 @@
 package br.com.dio.view;
 
 import br.com.dio.model.SudokuBoard;
+import br.com.dio.util.CellSymbols;
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.Arrays;
 
 /**
- * Classe responsável pela exibição do grid de Sudoku
+ * Classe responsável pela exibição do grid de Sudoku.
+ * O grid inteiro é um único componente desenhado à mão: fontes e cores ficam
+ * em cache, cada atualização repinta só as células que mudaram e a seleção
+ * pelo mouse é feita calculando a célula sob o cursor.
  */
 public class SudokuGridPanel extends JPanel {
-    private static final int CELL_SIZE = 60;
-    private JButton[][] cells;
+    private static final int BOARD_PIXELS = 540;
+    private static final int PADDING = 15;
+
+    private static final Color BACKGROUND = new Color(240, 240, 240);
+    private static final Color ORIGINAL_BACKGROUND = new Color(220, 230, 255);
+    private static final Color ORIGINAL_SELECTED = new Color(180, 200, 255);
+    private static final Color EDITABLE_BACKGROUND = Color.WHITE;
+    private static final Color EDITABLE_SELECTED = new Color(255, 255, 180);
+    private static final Color ORIGINAL_TEXT = Color.BLACK;
+    private static final Color EDITABLE_TEXT = new Color(0, 0, 150);
+    private static final Color CELL_LINE = Color.GRAY;
+    private static final Color BLOCK_LINE = Color.BLACK;
+
+    // Texto de cada valor, para não criar Strings a cada pintura
+    private static final String[] SYMBOLS = new String[SudokuBoard.MAX_SUBGRID_SIZE * SudokuBoard.MAX_SUBGRID_SIZE + 1];
+
+    static {
+        SYMBOLS[0] = "";
+        for (int value = 1; value < SYMBOLS.length; value++) {
+            SYMBOLS[value] = String.valueOf(CellSymbols.toSymbol(value));
+        }
+    }
+
+    // Marca somada ao valor no cache de células exibidas para as pistas originais
+    private static final int ORIGINAL_FLAG = 1 << 8;
+
     private SudokuBoard board;
     private int selectedRow = -1;
     private int selectedCol = -1;
-    private ActionListener cellClickListener;
+    private final ActionListener cellClickListener;
+
+    // Geometria e fontes do tamanho de tabuleiro atual
+    private int gridSize;
+    private int subgridSize;
+    private int cellSize;
+    private int blockLineWidth;
+    private Font originalFont;
+    private Font editableFont;
+
+    // Valor (com a marca de pista original) exibido em cada célula
+    private int[] shown;
 
     public SudokuGridPanel(SudokuBoard board, ActionListener cellClickListener) {
         this.board = board;
         this.cellClickListener = cellClickListener;
+
+        setBackground(BACKGROUND);
+        setOpaque(true);
+        // O foco fica na janela, que repassa as teclas ao controlador
+        setFocusable(false);
         initializeGrid();
-    }
 
-    private void initializeGrid() {
-        setLayout(new GridLayout(3, 3, 4, 4));
-        setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
-        // Mudança: fundo cinza claro ao invés de preto
-        setBackground(new Color(240, 240, 240));
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                handleClick(e);
+            }
+        });
+    }
 
-        cells = new JButton[board.getGridSize()][board.getGridSize()];
+    /**
+     * Troca o tabuleiro exibido, recalculando a geometria se o tamanho mudou.
+     */
+    public void setBoard(SudokuBoard board) {
+        boolean resized = board.getGridSize() != gridSize;
+        this.board = board;
+        selectedRow = -1;
+        selectedCol = -1;
 
-        for (int blockRow = 0; blockRow < 3; blockRow++) {
-            for (int blockCol = 0; blockCol < 3; blockCol++) {
-                JPanel subGrid = createSubGrid(blockRow, blockCol);
-                add(subGrid);
-            }
+        if (resized) {
+            initializeGrid();
+            revalidate();
+        } else {
+            invalidateAll();
         }
+        updateDisplay();
     }
 
-    private JPanel createSubGrid(int blockRow, int blockCol) {
-        JPanel subGrid = new JPanel(new GridLayout(3, 3, 1, 1));
-        // Borda mais visível
-        subGrid.setBorder(BorderFactory.createLineBorder(Color.BLACK, 3));
-        subGrid.setBackground(new Color(240, 240, 240));
+    private void initializeGrid() {
+        gridSize = board.getGridSize();
+        subgridSize = board.getSubgridSize();
+        cellSize = BOARD_PIXELS / gridSize;
+        blockLineWidth = gridSize > 9 ? 2 : 3;
 
-        for (int row = 0; row < 3; row++) {
-            for (int col = 0; col < 3; col++) {
-                int actualRow = blockRow * 3 + row;
-                int actualCol = blockCol * 3 + col;
+        // Fonte proporcional ao tamanho da célula (20 pt no 9x9)
+        int fontSize = Math.max(10, Math.min(28, 180 / gridSize));
+        originalFont = new Font("Arial", Font.BOLD, fontSize);
+        editableFont = new Font("Arial", Font.PLAIN, fontSize);
 
-                JButton cell = createCell(actualRow, actualCol);
-                cells[actualRow][actualCol] = cell;
-                subGrid.add(cell);
-            }
-        }
+        shown = new int[gridSize * gridSize];
+        invalidateAll();
 
-        return subGrid;
+        int side = cellSize * gridSize + 2 * PADDING;
+        setPreferredSize(new Dimension(side, side));
     }
 
-    private JButton createCell(int row, int col) {
-        JButton cell = new JButton();
-        cell.setFont(new Font("Arial", Font.BOLD, 20));
-        cell.setFocusPainted(false);
-        cell.setMargin(new Insets(0, 0, 0, 0));
-        cell.setBorder(BorderFactory.createLineBorder(Color.GRAY, 1));
-        cell.setPreferredSize(new Dimension(CELL_SIZE, CELL_SIZE));
+    private void invalidateAll() {
+        Arrays.fill(shown, -1);
+    }
 
-        // Garantir que a célula seja opaca para mostrar a cor de fundo
-        cell.setOpaque(true);
+    private void handleClick(MouseEvent e) {
+        int col = cellAt(e.getX(), originX());
+        int row = cellAt(e.getY(), originY());
+        if (row < 0 || col < 0) {
+            return;
+        }
 
-        cell.addActionListener(e -> {
-            selectCell(row, col);
-            if (cellClickListener != null) {
-                cellClickListener.actionPerformed(e);
-            }
-        });
+        selectCell(row, col);
+        if (cellClickListener != null) {
+            cellClickListener.actionPerformed(new ActionEvent(this, ActionEvent.ACTION_PERFORMED, "select"));
+        }
+    }
 
-        return cell;
+    private int cellAt(int pixel, int origin) {
+        int offset = pixel - origin;
+        if (offset < 0 || offset >= cellSize * gridSize) {
+            return -1;
+        }
+        return offset / cellSize;
     }
 
     public void selectCell(int row, int col) {
-        // Deseleciona célula anterior
+        if (row == selectedRow && col == selectedCol) {
+            return;
+        }
+        // Repinta a célula deselecionada e a nova seleção
         if (selectedRow >= 0 && selectedCol >= 0) {
-            updateCellColor(selectedRow, selectedCol, false);
+            repaintCell(selectedRow, selectedCol);
         }
 
         selectedRow = row;
         selectedCol = col;
-        updateCellColor(row, col, true);
+        repaintCell(row, col);
     }
 
-    public void updateCellColor(int row, int col, boolean selected) {
-        JButton cell = cells[row][col];
+    /**
+     * Compara o tabuleiro com o que está na tela e repinta, numa só região,
+     * apenas as células alteradas.
+     */
+    public void updateDisplay() {
+        int minRow = gridSize;
+        int minCol = gridSize;
+        int maxRow = -1;
+        int maxCol = -1;
 
-        if (board.isOriginal(row, col)) {
-            // Células originais: fundo azul claro, texto preto
-            cell.setBackground(selected ? new Color(180, 200, 255) : new Color(220, 230, 255));
-            cell.setForeground(Color.BLACK);
-        } else {
-            // Células editáveis: fundo branco/amarelo claro, texto azul escuro
-            cell.setBackground(selected ? new Color(255, 255, 180) : Color.WHITE);
-            cell.setForeground(new Color(0, 0, 150)); // Azul escuro para melhor contraste
+        for (int row = 0; row < gridSize; row++) {
+            for (int col = 0; col < gridSize; col++) {
+                if (refresh(row, col)) {
+                    minRow = Math.min(minRow, row);
+                    minCol = Math.min(minCol, col);
+                    maxRow = Math.max(maxRow, row);
+                    maxCol = Math.max(maxCol, col);
+                }
+            }
         }
 
-        // Força a atualização visual
-        cell.repaint();
+        if (maxRow >= 0) {
+            repaintCells(minRow, minCol, maxRow, maxCol);
+        }
     }
 
-    public void updateDisplay() {
-        for (int i = 0; i < board.getGridSize(); i++) {
-            for (int j = 0; j < board.getGridSize(); j++) {
-                updateCellDisplay(i, j);
-            }
+    public void updateCellDisplay(int row, int col) {
+        if (refresh(row, col)) {
+            repaintCell(row, col);
         }
     }
 
-    public void updateCellDisplay(int row, int col) {
-        int value = board.getPlayBoard(row, col);
-        JButton cell = cells[row][col];
+    /**
+     * Atualiza o cache da célula. Retorna true se ela precisa ser repintada.
+     */
+    private boolean refresh(int row, int col) {
+        int state = board.getPlayBoard(row, col) | (board.isOriginal(row, col) ? ORIGINAL_FLAG : 0);
+        int index = row * gridSize + col;
+        if (shown[index] == state) {
+            return false;
+        }
+        shown[index] = state;
+        return true;
+    }
+
+    private void repaintCell(int row, int col) {
+        repaintCells(row, col, row, col);
+    }
+
+    private void repaintCells(int minRow, int minCol, int maxRow, int maxCol) {
+        // Margem para as linhas de bloco, que ultrapassam a borda da célula
+        int margin = blockLineWidth;
+        repaint(originX() + minCol * cellSize - margin,
+                originY() + minRow * cellSize - margin,
+                (maxCol - minCol + 1) * cellSize + 2 * margin,
+                (maxRow - minRow + 1) * cellSize + 2 * margin);
+    }
+
+    private int originX() {
+        return (getWidth() - cellSize * gridSize) / 2;
+    }
+
+    private int originY() {
+        return (getHeight() - cellSize * gridSize) / 2;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Graphics2D g2 = (Graphics2D) g.create();
+        try {
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            paintGrid(g2);
+        } finally {
+            g2.dispose();
+        }
+    }
 
-        cell.setText(value == 0 ? "" : String.valueOf(value));
+    private void paintGrid(Graphics2D g) {
+        int x0 = originX();
+        int y0 = originY();
+        int boardSize = cellSize * gridSize;
 
-        if (board.isOriginal(row, col)) {
-            // Células originais (não editáveis): fundo azul claro, texto preto
-            cell.setBackground(new Color(220, 230, 255));
-            cell.setForeground(Color.BLACK);
-            cell.setFont(new Font("Arial", Font.BOLD, 20));
+        // Só as células que cruzam a região de recorte
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        int firstRow = Math.max(0, (clip.y - y0) / cellSize);
+        int lastRow = Math.min(gridSize - 1, (clip.y + clip.height - y0) / cellSize);
+        int firstCol = Math.max(0, (clip.x - x0) / cellSize);
+        int lastCol = Math.min(gridSize - 1, (clip.x + clip.width - x0) / cellSize);
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                paintCell(g, row, col, x0 + col * cellSize, y0 + row * cellSize);
+            }
+        }
+
+        // Linhas finas entre células
+        g.setColor(CELL_LINE);
+        for (int i = 1; i < gridSize; i++) {
+            if (i % subgridSize != 0) {
+                g.drawLine(x0 + i * cellSize, y0, x0 + i * cellSize, y0 + boardSize);
+                g.drawLine(x0, y0 + i * cellSize, x0 + boardSize, y0 + i * cellSize);
+            }
+        }
+
+        // Linhas grossas dos blocos e borda externa
+        g.setColor(BLOCK_LINE);
+        int half = blockLineWidth / 2;
+        for (int i = 0; i <= gridSize; i += subgridSize) {
+            g.fillRect(x0 + i * cellSize - half, y0 - half, blockLineWidth, boardSize + blockLineWidth);
+            g.fillRect(x0 - half, y0 + i * cellSize - half, boardSize + blockLineWidth, blockLineWidth);
+        }
+    }
+
+    private void paintCell(Graphics2D g, int row, int col, int x, int y) {
+        boolean original = board.isOriginal(row, col);
+        boolean selected = row == selectedRow && col == selectedCol;
+
+        if (original) {
+            g.setColor(selected ? ORIGINAL_SELECTED : ORIGINAL_BACKGROUND);
         } else {
-            // Células editáveis pelo jogador: fundo branco, texto azul escuro
-            cell.setBackground(Color.WHITE);
-            cell.setForeground(new Color(0, 0, 150));
-            cell.setFont(new Font("Arial", Font.PLAIN, 20));
+            g.setColor(selected ? EDITABLE_SELECTED : EDITABLE_BACKGROUND);
+        }
+        g.fillRect(x, y, cellSize, cellSize);
+
+        int value = board.getPlayBoard(row, col);
+        if (value == 0) {
+            return;
         }
 
-        // Garantir que as cores sejam aplicadas
-        cell.setOpaque(true);
-        cell.repaint();
+        Font font = original ? originalFont : editableFont;
+        FontMetrics metrics = g.getFontMetrics(font);
+        String text = SYMBOLS[value];
+        g.setFont(font);
+        g.setColor(original ? ORIGINAL_TEXT : EDITABLE_TEXT);
+        g.drawString(text,
+                x + (cellSize - metrics.stringWidth(text)) / 2,
+                y + (cellSize - metrics.getHeight()) / 2 + metrics.getAscent());
     }
 
     public int getSelectedRow() {
@@ -149,9 +306,9 @@ public class SudokuGridPanel extends JPanel {
 
     public void clearSelection() {
         if (selectedRow >= 0 && selectedCol >= 0) {
-            updateCellColor(selectedRow, selectedCol, false);
+            repaintCell(selectedRow, selectedCol);
         }
         selectedRow = -1;
         selectedCol = -1;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,69 @@
+// ============= VectorBatchValidator.java =============
+package br.com.dio.validation;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Validação com a Vector API: cada faixa do vetor é um tabuleiro do lote, e
+ * a mesma célula de {@code lanes} tabuleiros é lida numa única carga graças
+ * ao layout de {@link BoardBatch}. As operações são as da versão escalar
+ * (deslocamento, and, or), todas disponíveis em AVX2, então não há
+ * contagem de bits nem desvios por faixa.
+ *
+ * Compilar e rodar com {@code --add-modules jdk.incubator.vector}.
+ */
+public final class VectorBatchValidator implements BatchValidator {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public void validate(BoardBatch batch, int[] conflicts, int[] filled) {
+        int[] values = batch.values();
+        int[] units = batch.unitCells();
+        int capacity = batch.getCapacity();
+        int gridSize = batch.getGridSize();
+        int cellCount = batch.getCellCount();
+        int size = batch.size();
+        int lanes = SPECIES.length();
+        int bound = SPECIES.loopBound(size);
+
+        IntVector zero = IntVector.zero(SPECIES);
+        IntVector one = IntVector.broadcast(SPECIES, 1);
+        for (int board = 0; board < bound; board += lanes) {
+            IntVector repeated = zero;
+            IntVector count = zero;
+            int unitStart = 0;
+            // Linhas: também contam as células preenchidas
+            for (; unitStart < cellCount; unitStart += gridSize) {
+                IntVector seen = zero;
+                for (int i = unitStart; i < unitStart + gridSize; i++) {
+                    IntVector value = IntVector.fromArray(SPECIES, values, units[i] * capacity + board);
+                    IntVector bit = one.lanewise(VectorOperators.LSHL, value).and(~1);
+                    repeated = repeated.add(seen.and(bit).lanewise(VectorOperators.LSHR, value));
+                    seen = seen.or(bit);
+                    count = count.add(value.min(1));
+                }
+            }
+            // Colunas e blocos
+            for (; unitStart < units.length; unitStart += gridSize) {
+                IntVector seen = zero;
+                for (int i = unitStart; i < unitStart + gridSize; i++) {
+                    IntVector value = IntVector.fromArray(SPECIES, values, units[i] * capacity + board);
+                    IntVector bit = one.lanewise(VectorOperators.LSHL, value).and(~1);
+                    repeated = repeated.add(seen.and(bit).lanewise(VectorOperators.LSHR, value));
+                    seen = seen.or(bit);
+                }
+            }
+            repeated.intoArray(conflicts, board);
+            count.intoArray(filled, board);
+        }
+        // Tabuleiros que não completam um vetor
+        ScalarBatchValidator.validateRange(batch, bound, size, conflicts, filled);
+    }
+
+    @Override
+    public String getName() {
+        return "vetorial (" + SPECIES.vectorBitSize() + " bits)";
+    }
+}